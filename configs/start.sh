@@ -328,4 +328,4 @@ fi
 echo "Running APPO"
 umask 0027
 cd /usr/app || exit
-java -Dlog4j2.formatMsgNoLookups=true -jar bin/appo-0.0.1-SNAPSHOT.jar
+java -Dlog4j2.formatMsgNoLookups=true $JAVA_OPTS -jar bin/appo-0.0.1-SNAPSHOT.jar
@@ -29,6 +29,7 @@ import javax.net.ssl.X509TrustManager;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.servicecomb.springboot2.starter.EnableServiceComb;
 import org.camunda.bpm.spring.boot.starter.annotation.EnableProcessApplication;
+import org.edgegallery.mecm.appo.config.VirtualThreads;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -38,7 +39,9 @@ import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfi
 import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 /**
@@ -46,6 +49,7 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
  */
 @SpringBootApplication(exclude = {SecurityAutoConfiguration.class, UserDetailsServiceAutoConfiguration.class})
 @EnableAsync
+@EnableScheduling
 @EnableProcessApplication
 @EnableServiceComb
 public class AppOrchestratorApplication {
@@ -61,6 +65,33 @@ public class AppOrchestratorApplication {
     @Value("${appo.async.queue-capacity}")
     private int queueCapacity;
 
+    @Value("${appo.batch.max-concurrency:10}")
+    private int batchMaxConcurrency;
+
+    @Value("${appo.batch.max-batches:5}")
+    private int batchMaxBatches;
+
+    @Value("${appo.batch.queue-capacity:100}")
+    private int batchQueueCapacity;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int dbMaxPoolSize;
+
+    @Value("${appo.inventory-read.max-threads:50}")
+    private int inventoryReadMaxThreads;
+
+    @Value("${appo.inventory-batch.max-threads:4}")
+    private int inventoryWriteMaxThreads;
+
+    @Value("${appo.inventory-batch.queue-capacity:100}")
+    private int inventoryWriteQueueCapacity;
+
+    @Value("${appo.inventory-batch.record-threads:16}")
+    private int inventoryRecordWriteThreads;
+
+    @Value("${appo.virtual-threads.enabled:false}")
+    private boolean virtualThreads;
+
     /**
      * Edge application orchestrator entry function.
      *
@@ -107,6 +138,15 @@ public class AppOrchestratorApplication {
     @Bean
     @Primary
     public Executor asyncExecutor() {
+        if (virtualThreads && VirtualThreads.isSupported()) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor();
+            executor.setThreadFactory(VirtualThreads.threadFactory("appo-Camunda-"));
+            LOGGER.info("async process flows run on virtual threads");
+            return executor;
+        }
+        if (virtualThreads) {
+            LOGGER.warn("virtual threads not supported by JDK, async process flows run on thread pool");
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(corePoolSize);
         executor.setMaxPoolSize(maxPoolSize);
@@ -116,4 +156,88 @@ public class AppOrchestratorApplication {
         return executor;
     }
 
+    /**
+     * Batch child flow executor, shared by all batches to bound the global batch concurrency.
+     *
+     * @return thread pool task executor
+     */
+    @Bean
+    public Executor batchExecutor() {
+        // running batches wait on their children while holding a connection each, children need one more each
+        int concurrency = Math.max(1, Math.min(batchMaxConcurrency, dbMaxPoolSize - batchMaxBatches - 1));
+        if (concurrency < batchMaxConcurrency) {
+            LOGGER.warn("batch concurrency limited to {}, database pool of {} must exceed {} batches and their "
+                    + "children", concurrency, dbMaxPoolSize, batchMaxBatches);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(batchQueueCapacity);
+        executor.setThreadNamePrefix("appo-Batch-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Inventory read executor, runs primary and hedged inventory reads bounded by their timeout. Runs a virtual
+     * thread per read in virtual thread mode, reads are then bounded by the outbound connection pool.
+     *
+     * @return executor
+     */
+    @Bean
+    public Executor inventoryReadExecutor() {
+        if (virtualThreads && VirtualThreads.isSupported()) {
+            return VirtualThreads.newThreadPerTaskExecutor("appo-Inventory-");
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(inventoryReadMaxThreads);
+        executor.setMaxPoolSize(inventoryReadMaxThreads);
+        executor.setQueueCapacity(0);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("appo-Inventory-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Inventory write executor, writes batches of application records, on virtual threads in virtual thread mode.
+     *
+     * @return executor
+     */
+    @Bean
+    public Executor inventoryWriteExecutor() {
+        if (virtualThreads && VirtualThreads.isSupported()) {
+            return VirtualThreads.newThreadPerTaskExecutor("appo-InventoryWrite-");
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(inventoryWriteMaxThreads);
+        executor.setMaxPoolSize(inventoryWriteMaxThreads);
+        executor.setQueueCapacity(inventoryWriteQueueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("appo-InventoryWrite-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Inventory record write executor, sends records of a batch concurrently when inventory has no bulk API.
+     * Records queued are bounded by batch write threads times max batch size, in virtual thread mode each record
+     * is sent on a virtual thread.
+     *
+     * @return executor
+     */
+    @Bean
+    public Executor inventoryRecordWriteExecutor() {
+        if (virtualThreads && VirtualThreads.isSupported()) {
+            return VirtualThreads.newThreadPerTaskExecutor("appo-InventoryRecord-");
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(inventoryRecordWriteThreads);
+        executor.setMaxPoolSize(inventoryRecordWriteThreads);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("appo-InventoryRecord-");
+        executor.initialize();
+        return executor;
+    }
+
 }
@@ -21,6 +21,7 @@ import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import java.util.concurrent.CompletableFuture;
 import javax.validation.Valid;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
@@ -31,6 +32,7 @@ import org.edgegallery.mecm.appo.apihandler.dto.BatchInstancesReqParam;
 import org.edgegallery.mecm.appo.apihandler.dto.BatchTerminateReqParam;
 import org.edgegallery.mecm.appo.apihandler.dto.CreateParam;
 import org.edgegallery.mecm.appo.service.AppoService;
+import org.edgegallery.mecm.appo.service.IdempotencyService;
 import org.edgegallery.mecm.appo.utils.AppoResponse;
 import org.edgegallery.mecm.appo.utils.AppoV2Response;
 import org.edgegallery.mecm.appo.utils.Constants;
@@ -65,9 +67,12 @@ public class AppOrchestratorHandler {
 
     private final AppoService appoService;
 
+    private final IdempotencyService idempotencyService;
+
     @Autowired
-    public AppOrchestratorHandler(AppoService appoService) {
+    public AppOrchestratorHandler(AppoService appoService, IdempotencyService idempotencyService) {
         this.appoService = appoService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
@@ -85,13 +90,16 @@ public class AppOrchestratorHandler {
     @PreAuthorize("hasRole('MECM_TENANT') || hasRole('MECM_ADMIN')")
     public ResponseEntity<AppoResponse> createAppInstance(
             @ApiParam(value = "access token") @RequestHeader("access_token") String accessToken,
+            @ApiParam(value = "idempotency key") @RequestHeader(value = Constants.IDEMPOTENCY_KEY, required = false)
+            @Size(max = 64) String idempotencyKey,
             @ApiParam(value = "tenant id") @PathVariable("tenant_id")
             @Pattern(regexp = Constants.TENENT_ID_REGEX) @Size(max = 64) String tenantId,
             @ApiParam(value = "create application instance")
             @Valid @RequestBody CreateParam createParam) {
         logger.debug("Application create request received...");
 
-        return appoService.createAppInstance(accessToken, tenantId, createParam);
+        return idempotencyService.execute(tenantId, idempotencyKey, "createAppInstance", createParam,
+                AppoResponse.class, () -> appoService.createAppInstance(accessToken, tenantId, createParam));
     }
 
     /**
@@ -110,6 +118,8 @@ public class AppOrchestratorHandler {
     @PreAuthorize("hasRole('MECM_TENANT') || hasRole('MECM_ADMIN')")
     public ResponseEntity<AppoResponse> instantiateAppInstance(
             @ApiParam(value = "access token") @RequestHeader("access_token") String accessToken,
+            @ApiParam(value = "idempotency key") @RequestHeader(value = Constants.IDEMPOTENCY_KEY, required = false)
+            @Size(max = 64) String idempotencyKey,
             @ApiParam(value = "tenant id") @PathVariable("tenant_id")
             @Pattern(regexp = Constants.TENENT_ID_REGEX) @Size(max = 64) String tenantId,
             @ApiParam(value = "application instance id")
@@ -120,7 +130,9 @@ public class AppOrchestratorHandler {
 
         logger.debug("Application instantiation request received...");
 
-        return appoService.instantiateAppInstance(accessToken, tenantId, appInstanceId, instantiateParam);
+        return idempotencyService.execute(tenantId, idempotencyKey, "instantiateAppInstance:" + appInstanceId,
+                instantiateParam, AppoResponse.class,
+                () -> appoService.instantiateAppInstance(accessToken, tenantId, appInstanceId, instantiateParam));
     }
 
     /**
@@ -164,6 +176,8 @@ public class AppOrchestratorHandler {
     @PreAuthorize("hasRole('MECM_TENANT') || hasRole('MECM_ADMIN')")
     public ResponseEntity<AppoResponse> terminateAppInstance(
             @ApiParam(value = "access token") @RequestHeader("access_token") String accessToken,
+            @ApiParam(value = "idempotency key") @RequestHeader(value = Constants.IDEMPOTENCY_KEY, required = false)
+            @Size(max = 64) String idempotencyKey,
             @ApiParam(value = "tenant id") @PathVariable("tenant_id")
             @Pattern(regexp = Constants.TENENT_ID_REGEX) @Size(max = 64) String tenantId,
             @ApiParam(value = "application instance id")
@@ -171,7 +185,9 @@ public class AppOrchestratorHandler {
             @Size(max = 64) String appInstanceId) {
         logger.debug("Terminate application info request received...");
 
-        return appoService.terminateAppInstance(accessToken, tenantId, appInstanceId);
+        return idempotencyService.execute(tenantId, idempotencyKey, "terminateAppInstance:" + appInstanceId, null,
+                AppoResponse.class,
+                () -> appoService.terminateAppInstance(accessToken, tenantId, appInstanceId));
     }
 
     /**
@@ -184,7 +200,7 @@ public class AppOrchestratorHandler {
     @ApiOperation(value = "Retrieves edge host performance statistics", response = AppoV2Response.class)
     @GetMapping(path = "/tenants/{tenant_id}/hosts/{host_ip}/kpi")
     @PreAuthorize("hasRole('MECM_TENANT') || hasRole('MECM_ADMIN') || hasRole('MECM_GUEST')")
-    public ResponseEntity<AppoV2Response> queryKpi(@ApiParam(value = "access token")
+    public CompletableFuture<ResponseEntity<AppoV2Response>> queryKpi(@ApiParam(value = "access token")
                                                  @RequestHeader("access_token") String accessToken,
                                                    @PathVariable("tenant_id")
                                                  @Pattern(regexp = Constants.TENENT_ID_REGEX)
@@ -208,7 +224,7 @@ public class AppOrchestratorHandler {
     @GetMapping(path = "/tenants/{tenant_id}/hosts/{host_ip}/mep_capabilities",
             produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("hasRole('MECM_TENANT') || hasRole('MECM_ADMIN') || hasRole('MECM_GUEST')")
-    public ResponseEntity<String> queryEdgehostCapabilities(@ApiParam(value = "access token")
+    public CompletableFuture<ResponseEntity<String>> queryEdgehostCapabilities(@ApiParam(value = "access token")
                                                                   @RequestHeader("access_token") String accessToken,
                                                                   @ApiParam(value = "tenant id")
                                                                   @PathVariable("tenant_id")
@@ -235,7 +251,7 @@ public class AppOrchestratorHandler {
     @GetMapping(path = "/tenants/{tenant_id}/hosts/{host_ip}/mep_capabilities/{capability_id}",
             produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("hasRole('MECM_TENANT') || hasRole('MECM_ADMIN') || hasRole('MECM_GUEST')")
-    public ResponseEntity<String> queryEdgehostCapability(@ApiParam(value = "access token")
+    public CompletableFuture<ResponseEntity<String>> queryEdgehostCapability(@ApiParam(value = "access token")
                                                                 @RequestHeader("access_token") String accessToken,
                                                                 @ApiParam(value = "tenant id")
                                                                 @PathVariable("tenant_id")
@@ -279,13 +295,16 @@ public class AppOrchestratorHandler {
     @PreAuthorize("hasRole('MECM_TENANT') || hasRole('MECM_ADMIN')")
     public ResponseEntity<AppoResponse> batchCreateAppInstance(
             @ApiParam(value = "access token") @RequestHeader("access_token") String accessToken,
+            @ApiParam(value = "idempotency key") @RequestHeader(value = Constants.IDEMPOTENCY_KEY, required = false)
+            @Size(max = 64) String idempotencyKey,
             @ApiParam(value = "tenant id") @PathVariable("tenant_id")
             @Pattern(regexp = Constants.TENENT_ID_REGEX) @Size(max = 64) String tenantId,
             @ApiParam(value = "create application instance")
             @Valid @RequestBody BatchCreateParam createParam) {
         logger.debug("Application create request received...");
 
-        return appoService.createAppInstance(accessToken, tenantId, createParam);
+        return idempotencyService.execute(tenantId, idempotencyKey, "batchCreateAppInstance", createParam,
+                AppoResponse.class, () -> appoService.createAppInstance(accessToken, tenantId, createParam));
     }
 
     /**
@@ -304,13 +323,17 @@ public class AppOrchestratorHandler {
     @PreAuthorize("hasRole('MECM_TENANT') || hasRole('MECM_ADMIN')")
     public ResponseEntity<AppoResponse> batchInstantiateAppInstance(
             @ApiParam(value = "access token") @RequestHeader("access_token") String accessToken,
+            @ApiParam(value = "idempotency key") @RequestHeader(value = Constants.IDEMPOTENCY_KEY, required = false)
+            @Size(max = 64) String idempotencyKey,
             @ApiParam(value = "tenant id") @PathVariable("tenant_id")
             @Pattern(regexp = Constants.TENENT_ID_REGEX) @Size(max = 64) String tenantId,
             @ApiParam(value = "Instantiate application instances")
             @Valid @RequestBody BatchInstancesReqParam appInstanceParam) {
         logger.debug("Application instantiation request received...");
 
-        return appoService.instantiateAppInstance(accessToken, tenantId, appInstanceParam);
+        return idempotencyService.execute(tenantId, idempotencyKey, "batchInstantiateAppInstance",
+                appInstanceParam, AppoResponse.class,
+                () -> appoService.instantiateAppInstance(accessToken, tenantId, appInstanceParam));
     }
 
     /**
@@ -329,13 +352,17 @@ public class AppOrchestratorHandler {
     @PreAuthorize("hasRole('MECM_TENANT') || hasRole('MECM_ADMIN')")
     public ResponseEntity<AppoResponse> batchTerminateAppInstances(
             @ApiParam(value = "access token") @RequestHeader("access_token") String accessToken,
+            @ApiParam(value = "idempotency key") @RequestHeader(value = Constants.IDEMPOTENCY_KEY, required = false)
+            @Size(max = 64) String idempotencyKey,
             @ApiParam(value = "tenant id") @PathVariable("tenant_id")
             @Pattern(regexp = Constants.TENENT_ID_REGEX) @Size(max = 64) String tenantId,
             @ApiParam(value = "Batch terminate application instances")
             @Valid @RequestBody BatchTerminateReqParam appInstanceParam) {
         logger.debug("Batch terminate application instance request received...");
 
-        return appoService.terminateAppInstance(accessToken, tenantId, appInstanceParam);
+        return idempotencyService.execute(tenantId, idempotencyKey, "batchTerminateAppInstances",
+                appInstanceParam, AppoResponse.class,
+                () -> appoService.terminateAppInstance(accessToken, tenantId, appInstanceParam));
     }
 
     /**
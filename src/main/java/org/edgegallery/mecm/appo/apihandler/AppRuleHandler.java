@@ -32,6 +32,7 @@ import org.edgegallery.mecm.appo.model.AppRule;
 import org.edgegallery.mecm.appo.model.DnsRule;
 import org.edgegallery.mecm.appo.model.TrafficRule;
 import org.edgegallery.mecm.appo.service.AppoService;
+import org.edgegallery.mecm.appo.service.IdempotencyService;
 import org.edgegallery.mecm.appo.utils.AppoResponse;
 import org.edgegallery.mecm.appo.utils.Constants;
 import org.modelmapper.ModelMapper;
@@ -61,9 +62,12 @@ public class AppRuleHandler {
 
     private final AppoService appoService;
 
+    private final IdempotencyService idempotencyService;
+
     @Autowired
-    public AppRuleHandler(AppoService appoService) {
+    public AppRuleHandler(AppoService appoService, IdempotencyService idempotencyService) {
         this.appoService = appoService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
@@ -80,6 +84,8 @@ public class AppRuleHandler {
     @PreAuthorize("hasRole('MECM_TENANT') || hasRole('MECM_ADMIN')")
     public ResponseEntity<AppoResponse> addAppRules(
             @ApiParam(value = "access token") @RequestHeader("access_token") String accessToken,
+            @ApiParam(value = "idempotency key") @RequestHeader(value = Constants.IDEMPOTENCY_KEY, required = false)
+            @Size(max = 64) String idempotencyKey,
             @ApiParam(value = "tenant identifier") @PathVariable("tenant_id")
             @Pattern(regexp = Constants.TENENT_ID_REGEX) @Size(max = 64) String tenantId,
             @ApiParam(value = "app instance identifier") @PathVariable("app_instance_id")
@@ -90,7 +96,9 @@ public class AppRuleHandler {
         ModelMapper mapper = new ModelMapper();
         AppRule appRule = mapper.map(appRuleConfigDto, AppRule.class);
 
-        return appoService.configureAppRules(accessToken, tenantId, appInstanceId, appRule, "POST");
+        return idempotencyService.execute(tenantId, idempotencyKey, "addAppRules:" + appInstanceId,
+                appRuleConfigDto, AppoResponse.class,
+                () -> appoService.configureAppRules(accessToken, tenantId, appInstanceId, appRule, "POST"));
     }
 
     /**
@@ -107,6 +115,8 @@ public class AppRuleHandler {
     @PreAuthorize("hasRole('MECM_TENANT') || hasRole('MECM_ADMIN')")
     public ResponseEntity<AppoResponse> updateApplicationRules(
             @ApiParam(value = "access token") @RequestHeader("access_token") String accessToken,
+            @ApiParam(value = "idempotency key") @RequestHeader(value = Constants.IDEMPOTENCY_KEY, required = false)
+            @Size(max = 64) String idempotencyKey,
             @ApiParam(value = "tenant identifier") @PathVariable("tenant_id")
             @Pattern(regexp = Constants.TENENT_ID_REGEX) @Size(max = 64) String tenantId,
             @ApiParam(value = "app instance identifier") @PathVariable("app_instance_id")
@@ -117,7 +127,9 @@ public class AppRuleHandler {
         ModelMapper mapper = new ModelMapper();
         AppRule appRule = mapper.map(appRuleConfigDto, AppRule.class);
 
-        return appoService.configureAppRules(accessToken, tenantId, appInstanceId, appRule, "PUT");
+        return idempotencyService.execute(tenantId, idempotencyKey, "updateApplicationRules:" + appInstanceId,
+                appRuleConfigDto, AppoResponse.class,
+                () -> appoService.configureAppRules(accessToken, tenantId, appInstanceId, appRule, "PUT"));
     }
 
     /**
@@ -133,6 +145,8 @@ public class AppRuleHandler {
     @PreAuthorize("hasRole('MECM_TENANT') || hasRole('MECM_ADMIN')")
     public ResponseEntity<AppoResponse> deleteApplicationRules(
             @ApiParam(value = "access token") @RequestHeader("access_token") String accessToken,
+            @ApiParam(value = "idempotency key") @RequestHeader(value = Constants.IDEMPOTENCY_KEY, required = false)
+            @Size(max = 64) String idempotencyKey,
             @ApiParam(value = "tenant identifier") @PathVariable("tenant_id")
             @Pattern(regexp = Constants.TENENT_ID_REGEX) @Size(max = 64) String tenantId,
             @ApiParam(value = "app instance identifier") @PathVariable("app_instance_id")
@@ -156,6 +170,8 @@ public class AppRuleHandler {
         appRule.setAppTrafficRule(appTrafficRule);
         appRule.setAppDNSRule(appDnsRule);
 
-        return appoService.configureAppRules(accessToken, tenantId, appInstanceId, appRule, "DELETE");
+        return idempotencyService.execute(tenantId, idempotencyKey, "deleteApplicationRules:" + appInstanceId,
+                appRuleDelConfigDto, AppoResponse.class,
+                () -> appoService.configureAppRules(accessToken, tenantId, appInstanceId, appRule, "DELETE"));
     }
 }
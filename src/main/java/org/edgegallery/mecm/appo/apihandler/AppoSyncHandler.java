@@ -39,6 +39,7 @@ import org.edgegallery.mecm.appo.apihandler.dto.SyncUpdatedAppInstanceDto;
 import org.edgegallery.mecm.appo.exception.AppoException;
 import org.edgegallery.mecm.appo.model.AppInstanceInfo;
 import org.edgegallery.mecm.appo.service.AppInstanceInfoService;
+import org.edgegallery.mecm.appo.service.MepmEndpointCache;
 import org.edgegallery.mecm.appo.service.impl.RestServiceImpl;
 import org.edgegallery.mecm.appo.utils.AppoResponse;
 import org.edgegallery.mecm.appo.utils.AppoV2Response;
@@ -84,6 +85,9 @@ public class AppoSyncHandler {
     @Autowired
     private AppInstanceInfoService appInstanceInfoService;
 
+    @Autowired
+    private MepmEndpointCache endpointCache;
+
     /**
      * Synchronizes application instance info form all edges.
      *
@@ -221,17 +225,17 @@ public class AppoSyncHandler {
         String url = new StringBuilder(inventoryService).append(":")
                 .append(inventoryServicePort).append("/inventory/v1").append("/mepms/").append(hostIp).toString();
 
-        ResponseEntity<String> response = syncService.sendRequest(url, HttpMethod.GET, accessToken, null);
-
-        logger.info("response: {}", response);
-
-        JsonObject jsonObject = new JsonParser().parse(response.getBody()).getAsJsonObject();
-        JsonElement mepmPort = jsonObject.get("mepmPort");
-        if (mepmPort == null) {
-            throw new AppoException("MEPM port is null for host " + hostIp);
-        }
+        String mepmPort = endpointCache.getMepmPort(hostIp, () -> {
+            ResponseEntity<String> response = syncService.sendRequest(url, HttpMethod.GET, accessToken, null);
+            logger.info("response: {}", response);
+            JsonElement port = new JsonParser().parse(response.getBody()).getAsJsonObject().get("mepmPort");
+            if (port == null) {
+                throw new AppoException("MEPM port is null for host " + hostIp);
+            }
+            return port.getAsString();
+        });
 
-        return hostIp + ":" + mepmPort.getAsString();
+        return hostIp + ":" + mepmPort;
     }
 
     /**
@@ -254,11 +258,25 @@ public class AppoSyncHandler {
         JsonArray jsonArray = new JsonParser().parse(response.getBody()).getAsJsonArray();
 
         Set<String> mepms = new HashSet<>();
-        String mepm;
+        Set<String> mecHosts = new HashSet<>();
         for (JsonElement host: jsonArray) {
-            mepm = host.getAsJsonObject().get("mepmIp").getAsString();
-            mepms.add(mepm);
+            JsonObject mecHost = host.getAsJsonObject();
+            MepmEndpointCache.HostRecord hostRecord = MepmEndpointCache.HostRecord.fromInventory(mecHost);
+            if (hostRecord == null) {
+                logger.info("MEPM IP not configured in host {}", mecHost.get("mechostIp"));
+                continue;
+            }
+            mepms.add(hostRecord.getMepmIp());
+
+            // hosts are listed in full, so later flows on them need not read inventory again
+            JsonElement mecHostIp = mecHost.get("mechostIp");
+            if (mecHostIp != null) {
+                endpointCache.putHost(tenantId, mecHostIp.getAsString(), hostRecord);
+                mecHosts.add(mecHostIp.getAsString());
+            }
         }
+        // hosts removed from inventory or without MEPM are not resolved from cache anymore
+        endpointCache.retainHosts(tenantId, mecHosts);
 
         return mepms;
     }
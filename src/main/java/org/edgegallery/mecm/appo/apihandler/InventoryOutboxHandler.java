@@ -0,0 +1,107 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.apihandler;
+
+import static org.edgegallery.mecm.appo.utils.Constants.TENENT_ID_REGEX;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import org.apache.servicecomb.provider.rest.common.RestSchema;
+import org.edgegallery.mecm.appo.apihandler.dto.InventoryOutboxRecordDto;
+import org.edgegallery.mecm.appo.service.InventoryOutbox;
+import org.edgegallery.mecm.appo.utils.AppoResponse;
+import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Inventory outbox API handler.
+ */
+@RestSchema(schemaId = "appo-inventory-outbox")
+@Api(value = "Inventory outbox api system")
+@Validated
+@RequestMapping("/appo/v1")
+@RestController
+public class InventoryOutboxHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InventoryOutboxHandler.class);
+
+    private final InventoryOutbox outbox;
+
+    @Autowired
+    public InventoryOutboxHandler(InventoryOutbox outbox) {
+        this.outbox = outbox;
+    }
+
+    /**
+     * Retrieves application records parked after their inventory write failed max attempts.
+     *
+     * @param tenantId tenant ID
+     * @return parked application records
+     */
+    @ApiOperation(value = "Retrieves parked inventory outbox records", response = AppoResponse.class)
+    @GetMapping(path = "/tenants/{tenant_id}/inventory_outbox/parked", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('MECM_ADMIN')")
+    public ResponseEntity<AppoResponse> getParkedRecords(
+            @ApiParam(value = "tenant id") @PathVariable("tenant_id")
+            @Pattern(regexp = TENENT_ID_REGEX) @Size(max = 64) String tenantId) {
+
+        LOGGER.info("Retrieve parked inventory outbox records of tenant {}", tenantId);
+        ModelMapper mapper = new ModelMapper();
+        List<InventoryOutboxRecordDto> records = outbox.getParked(tenantId).stream()
+                .map(record -> mapper.map(record, InventoryOutboxRecordDto.class))
+                .collect(Collectors.toList());
+        return new ResponseEntity<>(new AppoResponse(records), HttpStatus.OK);
+    }
+
+    /**
+     * Retries parked application records, they are written to inventory with the next dispatch.
+     *
+     * @param tenantId tenant ID
+     * @return number of records retried
+     */
+    @ApiOperation(value = "Retries parked inventory outbox records", response = AppoResponse.class)
+    @PostMapping(path = "/tenants/{tenant_id}/inventory_outbox/parked/retry",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('MECM_ADMIN')")
+    public ResponseEntity<AppoResponse> retryParkedRecords(
+            @ApiParam(value = "tenant id") @PathVariable("tenant_id")
+            @Pattern(regexp = TENENT_ID_REGEX) @Size(max = 64) String tenantId) {
+
+        LOGGER.info("Retry parked inventory outbox records of tenant {}", tenantId);
+        int retried = outbox.retryParked(tenantId);
+        return new ResponseEntity<>(new AppoResponse(Collections.singletonMap("retried", retried)),
+                HttpStatus.ACCEPTED);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.apihandler;
+
+import static org.edgegallery.mecm.appo.utils.Constants.HOST_IP_REGX;
+import static org.edgegallery.mecm.appo.utils.Constants.TENENT_ID_REGEX;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import org.apache.servicecomb.provider.rest.common.RestSchema;
+import org.edgegallery.mecm.appo.service.MepmEndpointCache;
+import org.edgegallery.mecm.appo.utils.AppoResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * MEPM endpoint cache API handler.
+ */
+@RestSchema(schemaId = "appo-endpoint-cache")
+@Api(value = "MEPM endpoint cache api system")
+@Validated
+@RequestMapping("/appo/v1")
+@RestController
+public class MepmEndpointCacheHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MepmEndpointCacheHandler.class);
+
+    private final MepmEndpointCache endpointCache;
+
+    @Autowired
+    public MepmEndpointCacheHandler(MepmEndpointCache endpointCache) {
+        this.endpointCache = endpointCache;
+    }
+
+    /**
+     * Invalidates cached MEPM resolution of MEC host, e.g. after host is updated or removed in inventory.
+     *
+     * @param tenantId  tenant ID
+     * @param mecHostIp MEC host IP
+     * @return status code 200 on success
+     */
+    @ApiOperation(value = "Invalidates cached MEPM resolution of MEC host", response = AppoResponse.class)
+    @DeleteMapping(path = "/tenants/{tenant_id}/mechosts/{mechost_ip}/endpoint_cache",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('MECM_ADMIN')")
+    public ResponseEntity<AppoResponse> invalidateHost(
+            @ApiParam(value = "tenant id") @PathVariable("tenant_id")
+            @Pattern(regexp = TENENT_ID_REGEX) @Size(max = 64) String tenantId,
+            @ApiParam(value = "MEC host ip") @PathVariable("mechost_ip")
+            @Pattern(regexp = HOST_IP_REGX) @Size(max = 15) String mecHostIp) {
+
+        LOGGER.info("Invalidate cached MEPM resolution of host {} of tenant {}", mecHostIp, tenantId);
+        endpointCache.invalidateHost(tenantId, mecHostIp);
+        return new ResponseEntity<>(new AppoResponse("invalidated"), HttpStatus.OK);
+    }
+
+    /**
+     * Invalidates all cached MEPM resolution, e.g. after MEPMs are reconfigured in inventory.
+     *
+     * @return status code 200 on success
+     */
+    @ApiOperation(value = "Invalidates all cached MEPM resolution", response = AppoResponse.class)
+    @DeleteMapping(path = "/endpoint_cache", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('MECM_ADMIN')")
+    public ResponseEntity<AppoResponse> invalidateAll() {
+        endpointCache.invalidateAll();
+        return new ResponseEntity<>(new AppoResponse("invalidated"), HttpStatus.OK);
+    }
+}
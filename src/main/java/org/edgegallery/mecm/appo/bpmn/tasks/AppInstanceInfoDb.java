@@ -139,7 +139,7 @@ public class AppInstanceInfoDb extends ProcessflowAbstractTask {
 
             appInstanceInfo = appInstanceInfoService.getAppInstanceInfo(tenantId, appInstanceId);
 
-            delegateExecution.setVariable("app_instance_info", appInstanceInfo);
+            ProcessflowVariables.setVariable(delegateExecution, Constants.APP_INSTANCE_INFO, appInstanceInfo);
             setProcessflowResponseAttributes(delegateExecution, Constants.SUCCESS, Constants.PROCESS_FLOW_SUCCESS);
         } catch (AppoException e) {
             LOGGER.error("Failed to get app instance info record {}", e.getMessage());
@@ -305,7 +305,7 @@ public class AppInstanceInfoDb extends ProcessflowAbstractTask {
             LOGGER.info("Get application rule task {} ", appRuleTaskId);
 
             appRuleTaskInfo = appInstanceInfoService.getAppRuleTaskInfo(tenantId, appRuleTaskId);
-            delegateExecution.setVariable(Constants.APP_RULES, appRuleTaskInfo.getAppRules());
+            ProcessflowVariables.setVariable(delegateExecution, Constants.APP_RULES, appRuleTaskInfo.getAppRules());
 
             delegateExecution.setVariable(Constants.APP_RULE_CFG_STATUS, appRuleTaskInfo.getConfigResult());
 
@@ -0,0 +1,284 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.bpmn.tasks;
+
+import com.google.gson.Gson;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.variable.VariableMap;
+import org.edgegallery.mecm.appo.apihandler.dto.BatchInstancesParam;
+import org.edgegallery.mecm.appo.apihandler.dto.BatchInstancesReqParam;
+import org.edgegallery.mecm.appo.apihandler.dto.BatchResponseDto;
+import org.edgegallery.mecm.appo.utils.AppInstanceDependencyGraph;
+import org.edgegallery.mecm.appo.utils.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class BatchProcess extends ProcessflowAbstractTask {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchProcess.class);
+
+    public static final String STATUS_SUCCESS = "Success";
+    private static final String CREATE_PROCESS_KEY = "createApplicationInstance";
+    private static final String INSTANTIATE_PROCESS_KEY = "instantiateApplicationInstance";
+    private static final String TERMINATE_PROCESS_KEY = "terminateApplicationInstance";
+
+    private final DelegateExecution execution;
+    private final Executor executor;
+    private final int windowSize;
+    private final String action;
+
+    /**
+     * Creates a batch process instance.
+     *
+     * @param delegateExecution      delegate execution
+     * @param batchExecutor          executor shared by all batches, bounds the global concurrency
+     * @param maxConcurrencyPerBatch maximum number of child flows in flight for this batch
+     */
+    public BatchProcess(DelegateExecution delegateExecution, Executor batchExecutor, int maxConcurrencyPerBatch) {
+        execution = delegateExecution;
+        executor = batchExecutor;
+        windowSize = Math.max(1, maxConcurrencyPerBatch);
+        action = (String) delegateExecution.getVariable("action");
+    }
+
+    /**
+     * Executes batch action.
+     */
+    public void execute() {
+        switch (action) {
+            case "create":
+                createAppInstances();
+                break;
+            case "instantiate":
+                instantiateAppInstances();
+                break;
+            case "terminate":
+                terminateAppInstances();
+                break;
+            default:
+                LOGGER.info("Invalid batch action...{}", action);
+                setProcessflowExceptionResponseAttributes(execution, "Invalid batch action",
+                        Constants.PROCESS_FLOW_ERROR);
+        }
+    }
+
+    /**
+     * Creates application instance on each of the requested hosts.
+     */
+    private void createAppInstances() {
+        List<String> hosts = splitIds((String) execution.getVariable(Constants.MEC_HOSTS));
+        List<String> appInstanceIds = splitIds((String) execution.getVariable(Constants.APP_INSTANCE_IDS));
+        if (hosts.size() != appInstanceIds.size()) {
+            LOGGER.error("mec hosts {} and app instance ids {} mismatch", hosts.size(), appInstanceIds.size());
+            setProcessflowExceptionResponseAttributes(execution, "mec hosts and app instances mismatch",
+                    Constants.PROCESS_FLOW_ERROR);
+            return;
+        }
+
+        List<ChildFlow> childFlows = new ArrayList<>(hosts.size());
+        for (int i = 0; i < hosts.size(); i++) {
+            Map<String, Object> variables = new HashMap<>();
+            variables.put(Constants.ACCESS_TOKEN, execution.getVariable(Constants.ACCESS_TOKEN));
+            variables.put(Constants.TENANT_ID, execution.getVariable(Constants.TENANT_ID));
+            variables.put(Constants.APP_PACKAGE_ID, execution.getVariable(Constants.APP_PACKAGE_ID));
+            variables.put(Constants.APP_DESCR, execution.getVariable(Constants.APP_DESCR));
+            variables.put(Constants.APP_ID, execution.getVariable(Constants.APP_ID));
+            variables.put(Constants.APP_NAME, execution.getVariable(Constants.APP_NAME));
+            variables.put(Constants.HW_CAPABILITIES, execution.getVariable(Constants.HW_CAPABILITIES));
+            variables.put(Constants.MEC_HOST, hosts.get(i));
+            variables.put(Constants.APP_INSTANCE_ID, appInstanceIds.get(i));
+            variables.put(Constants.APPRULE_TASK_ID, appInstanceIds.get(i));
+            childFlows.add(new ChildFlow(appInstanceIds.get(i), hosts.get(i), variables));
+        }
+
+        List<BatchResponseDto> results = executeChildFlows(CREATE_PROCESS_KEY, childFlows);
+        setProcessflowResponseAttributes(execution, new Gson().toJson(results), Constants.PROCESS_FLOW_SUCCESS);
+    }
+
+    /**
+     * Instantiates each of the requested application instances, batch parameters are parsed once and each
+     * child receives only its own instantiation parameters.
+     */
+    private void instantiateAppInstances() {
+        String batchParams = (String) execution.getVariable(Constants.BATCH_INSTANTIATION_PARAMS);
+        BatchInstancesReqParam batchInstancesReqParam = new Gson().fromJson(batchParams,
+                BatchInstancesReqParam.class);
+
+        List<ChildFlow> childFlows = new ArrayList<>();
+        for (BatchInstancesParam instanceParam : batchInstancesReqParam.getInstantiationParameters()) {
+            Map<String, Object> variables = new HashMap<>();
+            variables.put(Constants.ACCESS_TOKEN, execution.getVariable(Constants.ACCESS_TOKEN));
+            variables.put(Constants.TENANT_ID, execution.getVariable(Constants.TENANT_ID));
+            variables.put(Constants.APP_INSTANCE_ID, instanceParam.getAppInstanceId());
+            variables.put(Constants.APPRULE_TASK_ID, instanceParam.getAppInstanceId());
+            if (instanceParam.getParameters() != null && !instanceParam.getParameters().isEmpty()) {
+                variables.put(Constants.INSTANTIATION_PARAMS, new Gson().toJson(instanceParam.getParameters()));
+            }
+            childFlows.add(new ChildFlow(instanceParam.getAppInstanceId(), null, variables));
+        }
+
+        List<BatchResponseDto> results = executeChildFlows(INSTANTIATE_PROCESS_KEY, childFlows);
+        setProcessflowResponseAttributes(execution, new Gson().toJson(results), Constants.PROCESS_FLOW_SUCCESS);
+    }
+
+    /**
+     * Terminates application instances level by level, instances of a level are terminated concurrently.
+     * An instance is skipped when any requested instance depending on it was not terminated.
+     */
+    private void terminateAppInstances() {
+        AppInstanceDependencyGraph graph = AppInstanceDependencyGraph
+                .fromJson((String) execution.getVariable(Constants.TERMINATE_PLAN));
+
+        List<BatchResponseDto> results = new ArrayList<>();
+        Set<String> notTerminated = new HashSet<>();
+        for (List<String> level : graph.getLevels()) {
+            List<ChildFlow> childFlows = new ArrayList<>();
+            for (String appInstanceId : level) {
+                if (!Collections.disjoint(graph.getDependents(appInstanceId), notTerminated)) {
+                    LOGGER.error("skip terminate app instance {}, dependent instance not terminated", appInstanceId);
+                    notTerminated.add(appInstanceId);
+                    results.add(new BatchResponseDto(appInstanceId, null,
+                            "skipped, dependent application instance not terminated"));
+                    continue;
+                }
+                Map<String, Object> variables = new HashMap<>();
+                variables.put(Constants.ACCESS_TOKEN, execution.getVariable(Constants.ACCESS_TOKEN));
+                variables.put(Constants.TENANT_ID, execution.getVariable(Constants.TENANT_ID));
+                variables.put(Constants.APP_INSTANCE_ID, appInstanceId);
+                variables.put(Constants.APPRULE_TASK_ID, appInstanceId);
+                childFlows.add(new ChildFlow(appInstanceId, null, variables));
+            }
+
+            for (BatchResponseDto result : executeChildFlows(TERMINATE_PROCESS_KEY, childFlows)) {
+                if (!STATUS_SUCCESS.equals(result.getStatus())) {
+                    notTerminated.add(result.getAppInstanceId());
+                }
+                results.add(result);
+            }
+        }
+        setProcessflowResponseAttributes(execution, new Gson().toJson(results), Constants.PROCESS_FLOW_SUCCESS);
+    }
+
+    /**
+     * Starts child process flows concurrently, keeping at most window size of them in flight.
+     *
+     * @param processKey child process key
+     * @param childFlows child flow inputs
+     * @return per child results, in request order
+     */
+    List<BatchResponseDto> executeChildFlows(String processKey, List<ChildFlow> childFlows) {
+        RuntimeService runtimeService = execution.getProcessEngineServices().getRuntimeService();
+        Semaphore window = new Semaphore(windowSize);
+
+        List<CompletableFuture<BatchResponseDto>> results = new ArrayList<>(childFlows.size());
+        for (ChildFlow childFlow : childFlows) {
+            try {
+                window.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.error("batch {} interrupted, app instance {} not started", processKey,
+                        childFlow.appInstanceId);
+                results.add(CompletableFuture.completedFuture(childFlow.result("interrupted, not started")));
+                continue;
+            }
+
+            CompletableFuture<BatchResponseDto> result;
+            try {
+                result = CompletableFuture.supplyAsync(() -> startChildFlow(runtimeService, processKey, childFlow),
+                        executor);
+            } catch (RejectedExecutionException e) {
+                window.release();
+                LOGGER.error("batch {} rejected app instance {}", processKey, childFlow.appInstanceId);
+                results.add(CompletableFuture.completedFuture(childFlow.result("rejected, not started")));
+                continue;
+            }
+            result.whenComplete((response, throwable) -> window.release());
+            results.add(result);
+        }
+
+        return results.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
+
+    private BatchResponseDto startChildFlow(RuntimeService runtimeService, String processKey, ChildFlow childFlow) {
+        LOGGER.info("batch {} start, app instance: {}, host: {}", processKey, childFlow.appInstanceId,
+                childFlow.host);
+        try {
+            VariableMap variables = runtimeService.createProcessInstanceByKey(processKey)
+                    .setVariables(ProcessflowVariables.toStartVariables(childFlow.variables))
+                    .executeWithVariablesInReturn()
+                    .getVariables();
+
+            if (childFlow.host == null) {
+                childFlow.host = (String) variables.get(Constants.MEC_HOST);
+            }
+
+            String responseCode = (String) variables.get(Constants.PROCESS_FLOW_RESP_CODE);
+            if (Constants.PROCESS_FLOW_SUCCESS.equals(responseCode)) {
+                return childFlow.result(STATUS_SUCCESS);
+            }
+            Object error = variables.get(Constants.PROCESS_FLOW_ERR_RESP);
+            if (error == null) {
+                error = variables.get(Constants.PROCESS_FLOW_EXCEPTION);
+            }
+            return childFlow.result(Objects.toString(error, "failed, response code: " + responseCode));
+        } catch (RuntimeException e) {
+            LOGGER.error("batch {} failed, app instance: {}, error: {}", processKey, childFlow.appInstanceId,
+                    e.getMessage());
+            return childFlow.result("failed: " + e.getMessage());
+        }
+    }
+
+    private static List<String> splitIds(String ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return Arrays.asList(ids.split(",", -1));
+    }
+
+    static final class ChildFlow {
+
+        private final String appInstanceId;
+        private String host;
+        private final Map<String, Object> variables;
+
+        ChildFlow(String appInstanceId, String host, Map<String, Object> variables) {
+            this.appInstanceId = appInstanceId;
+            this.host = host;
+            this.variables = variables;
+            this.variables.put(Constants.BATCH_CHILD, true);
+        }
+
+        BatchResponseDto result(String status) {
+            return new BatchResponseDto(appInstanceId, host, status);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.bpmn.tasks;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import javax.annotation.PostConstruct;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BatchProcessAdapter implements JavaDelegate {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchProcessAdapter.class);
+
+    @Autowired
+    @Qualifier("batchExecutor")
+    private Executor batchExecutor;
+
+    @Value("${appo.batch.max-concurrency-per-batch:5}")
+    private int maxConcurrencyPerBatch;
+
+    @Value("${appo.batch.max-batches:5}")
+    private int maxBatches;
+
+    // a running batch holds its engine connection while its children take further ones, so the number of
+    // running batches is bounded for the connection pool to fit them together with their children. Further
+    // batches wait for a running one to finish rather than being dropped, their instances are already accepted
+    private Semaphore batches;
+
+    @PostConstruct
+    void init() {
+        batches = new Semaphore(Math.max(1, maxBatches), true);
+    }
+
+    @Override
+    public void execute(DelegateExecution delegateExecution) {
+
+        BatchProcess batchProcess = new BatchProcess(delegateExecution, batchExecutor, maxConcurrencyPerBatch);
+        if (!batches.tryAcquire()) {
+            LOGGER.info("{} batches running, batch waits for one to finish", maxBatches);
+            // running batches finish even when interrupted, their children are then not started
+            batches.acquireUninterruptibly();
+        }
+        try {
+            batchProcess.execute();
+        } finally {
+            batches.release();
+        }
+    }
+}
@@ -197,7 +197,7 @@ public class DeComposeAppPkgTask extends ProcessflowAbstractTask {
 
         Gson gson = new Gson();
         String appRulejson = gson.toJson(appRule);
-        execution.setVariable(Constants.APP_RULES, appRulejson);
+        ProcessflowVariables.setVariable(execution, Constants.APP_RULES, appRulejson);
 
         LOGGER.info("Set app rules : {}", appRulejson);
     }
@@ -249,7 +249,7 @@ public class DeComposeAppPkgTask extends ProcessflowAbstractTask {
         }
 
         String appRequiredJson = gson.toJson(dependencies);
-        execution.setVariable(Constants.APP_REQUIRED, appRequiredJson);
+        ProcessflowVariables.setVariable(execution, Constants.APP_REQUIRED, appRequiredJson);
         LOGGER.info("Set app dependencies : {}", appRequiredJson);
 
         // becauseappServiceRequiredHas been serialized and stored inConstants.APP_REQUIREDUp
@@ -80,7 +80,7 @@ public class InputParameters {
         String appRuleTaskId = (String) delegateExecution.getVariable(Constants.APPRULE_TASK_ID);
         String hwCapabilities = (String) delegateExecution.getVariable(Constants.HW_CAPABILITIES);
 
-        delegateExecution.setVariable(Constants.ACCESS_TOKEN, accessToken);
+        ProcessflowVariables.setVariable(delegateExecution, Constants.ACCESS_TOKEN, accessToken);
         delegateExecution.setVariable(Constants.TENANT_ID, tenantId);
         delegateExecution.setVariable(Constants.APP_PACKAGE_ID, appPkgId);
         delegateExecution.setVariable(Constants.APP_DESCR, appDescr);
@@ -120,12 +120,12 @@ public class InputParameters {
         String tenantId = (String) delegateExecution.getVariable(Constants.TENANT_ID);
         String appInstanceIds = (String) delegateExecution.getVariable(Constants.APP_INSTANCE_IDS);
 
-        delegateExecution.setVariable(Constants.ACCESS_TOKEN, accessToken);
+        ProcessflowVariables.setVariable(delegateExecution, Constants.ACCESS_TOKEN, accessToken);
         delegateExecution.setVariable(Constants.TENANT_ID, tenantId);
         delegateExecution.setVariable(Constants.APP_INSTANCE_IDS, appInstanceIds);
         String instantiationParams = (String) delegateExecution.getVariable(Constants.BATCH_INSTANTIATION_PARAMS);
         if (instantiationParams != null) {
-            delegateExecution.setVariable(Constants.BATCH_INSTANTIATION_PARAMS, instantiationParams);
+            ProcessflowVariables.setVariable(delegateExecution, Constants.BATCH_INSTANTIATION_PARAMS, instantiationParams);
         }
         LOGGER.info("tenant_id: {}", tenantId);
     }
@@ -141,13 +141,13 @@ public class InputParameters {
         String appInstanceId = (String) delegateExecution.getVariable(Constants.APP_INSTANCE_ID);
         String appRuletaskId = (String) delegateExecution.getVariable(Constants.APPRULE_TASK_ID);
 
-        delegateExecution.setVariable(Constants.ACCESS_TOKEN, accessToken);
+        ProcessflowVariables.setVariable(delegateExecution, Constants.ACCESS_TOKEN, accessToken);
         delegateExecution.setVariable(Constants.TENANT_ID, tenantId);
         delegateExecution.setVariable(Constants.APP_INSTANCE_ID, appInstanceId);
         delegateExecution.setVariable(Constants.APPRULE_TASK_ID, appRuletaskId);
         String instantiationParams = (String) delegateExecution.getVariable(Constants.INSTANTIATION_PARAMS);
         if (instantiationParams != null) {
-            delegateExecution.setVariable(Constants.INSTANTIATION_PARAMS, instantiationParams);
+            ProcessflowVariables.setVariable(delegateExecution, Constants.INSTANTIATION_PARAMS, instantiationParams);
         }
 
         LOGGER.info("tenant_id: {}, app_instance_id: {}", tenantId, appInstanceId);
@@ -163,7 +163,7 @@ public class InputParameters {
         String tenantId = (String) delegateExecution.getVariable(Constants.TENANT_ID);
         String hostIp = (String) delegateExecution.getVariable(Constants.MEC_HOST);
         String capabilityId = (String) delegateExecution.getVariable(Constants.MEP_CAPABILITY_ID);
-        delegateExecution.setVariable(Constants.ACCESS_TOKEN, accessToken);
+        ProcessflowVariables.setVariable(delegateExecution, Constants.ACCESS_TOKEN, accessToken);
         delegateExecution.setVariable(Constants.TENANT_ID, tenantId);
         delegateExecution.setVariable(Constants.MEC_HOST, hostIp);
         delegateExecution.setVariable(Constants.MEP_CAPABILITY_ID, capabilityId);
@@ -183,9 +183,9 @@ public class InputParameters {
         String appInstanceId = (String) delegateExecution.getVariable(Constants.APP_INSTANCE_ID);
         String appRuleAction = (String) delegateExecution.getVariable(Constants.APP_RULE_ACTION);
         String appRuleTaskId = (String) delegateExecution.getVariable(Constants.APPRULE_TASK_ID);
-        delegateExecution.setVariable(Constants.ACCESS_TOKEN, accessToken);
+        ProcessflowVariables.setVariable(delegateExecution, Constants.ACCESS_TOKEN, accessToken);
         delegateExecution.setVariable(Constants.TENANT_ID, tenantId);
-        delegateExecution.setVariable(Constants.APP_RULES, appRules);
+        ProcessflowVariables.setVariable(delegateExecution, Constants.APP_RULES, appRules);
         delegateExecution.setVariable(Constants.APP_INSTANCE_ID, appInstanceId);
         delegateExecution.setVariable(Constants.APP_RULE_ACTION, appRuleAction);
         delegateExecution.setVariable(Constants.APPRULE_TASK_ID, appRuleTaskId);
@@ -16,17 +16,19 @@
 
 package org.edgegallery.mecm.appo.bpmn.tasks;
 
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import java.util.Arrays;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.stream.Collectors;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.edgegallery.mecm.appo.exception.AppoException;
 import org.edgegallery.mecm.appo.model.AppInstanceInfo;
+import org.edgegallery.mecm.appo.service.AppRulesCache;
+import org.edgegallery.mecm.appo.service.BatchingInventoryWriter;
+import org.edgegallery.mecm.appo.service.HedgedInventoryReader;
+import org.edgegallery.mecm.appo.service.InventoryOutbox;
+import org.edgegallery.mecm.appo.service.MepmEndpointCache;
 import org.edgegallery.mecm.appo.utils.Constants;
 import org.edgegallery.mecm.appo.utils.UrlUtil;
 import org.jose4j.json.internal.json_simple.JSONObject;
@@ -44,6 +46,9 @@ public class Inventory extends ProcessflowAbstractTask {
     private final String table;
     RestTemplate restTemplate;
     private final String baseUrl;
+    private final MepmEndpointCache endpointCache;
+    private final AppRulesCache appRulesCache;
+    private final InventoryOutbox outbox;
     private String protocol = HTTPS_PROTO;
 
     /**
@@ -51,16 +56,33 @@ public class Inventory extends ProcessflowAbstractTask {
      *
      * @param delegateExecution delegate execution
      * @param servicePort       inventory end point
+     * @param inventoryReader   hedged inventory reader
+     * @param endpointCache     MEPM endpoint resolution cache
+     * @param appRulesCache     app rules cache
+     * @param inventoryWriter   batching inventory writer
+     * @param outbox            inventory outbox application records are written behind through
      */
     public Inventory(DelegateExecution delegateExecution, boolean isSslEnabled, String servicePort,
-                     RestTemplate restClientTemplate) {
+                     RestTemplate restClientTemplate, HedgedInventoryReader inventoryReader,
+                     MepmEndpointCache endpointCache, AppRulesCache appRulesCache,
+                     BatchingInventoryWriter inventoryWriter, InventoryOutbox outbox) {
         execution = delegateExecution;
         if (!isSslEnabled) {
             protocol = "http://";
         }
         restTemplate = restClientTemplate;
         baseUrl = servicePort;
+        this.endpointCache = endpointCache;
+        this.appRulesCache = appRulesCache;
+        this.outbox = outbox;
         table = (String) execution.getVariable("inventory");
+        // MEC hosts and MEPMs are only read by flows, so their reads can be shared
+        setInventoryReader(inventoryReader, table, "mecHost".equals(table) || "mepm".equals(table));
+        // application records of batch children are written together with those of sibling flows
+        if ("application".equals(table) && inventoryWriter.isEnabled()
+                && Boolean.TRUE.equals(execution.getVariable(Constants.BATCH_CHILD))) {
+            setInventoryWriter(inventoryWriter, (String) execution.getVariable(Constants.TENANT_ID));
+        }
     }
 
     /**
@@ -98,26 +120,12 @@ public class Inventory extends ProcessflowAbstractTask {
         String tenantId = (String) execution.getVariable(Constants.TENANT_ID);
         String mepmIp = (String) execution.getVariable(Constants.MEPM_IP);
 
-        UrlUtil urlUtil = new UrlUtil();
-        urlUtil.addParams(Constants.TENANT_ID, tenantId);
-        urlUtil.addParams(Constants.MEPM_IP, mepmIp);
-
         try {
-            String mepmUrl = protocol + baseUrl + urlUtil.getUrl(Constants.INVENTORY_MEPM_URI);
-            String response = sendRequest(execution, restTemplate, mepmUrl, HttpMethod.GET);
-            if (response == null) {
-                return;
-            }
-
-            JsonObject jsonObject = new JsonParser().parse(response).getAsJsonObject();
-            JsonElement mepmPort = jsonObject.get("mepmPort");
+            String mepmPort = endpointCache.getMepmPort(mepmIp, () -> readMepm(execution, tenantId, mepmIp));
             if (mepmPort == null) {
-                setProcessflowErrorResponseAttributes(execution,
-                        "MEPM port not found", Constants.PROCESS_FLOW_ERROR);
-                LOGGER.info("MEPM port not found... in response");
                 return;
             }
-            execution.setVariable(Constants.MEPM_PORT, mepmPort.getAsString());
+            execution.setVariable(Constants.MEPM_PORT, mepmPort);
             setProcessflowResponseAttributes(execution, Constants.SUCCESS, Constants.PROCESS_FLOW_SUCCESS);
 
         } catch (AppoException | IllegalArgumentException e) {
@@ -126,6 +134,36 @@ public class Inventory extends ProcessflowAbstractTask {
         }
     }
 
+    /**
+     * Reads MEPM port from inventory.
+     *
+     * @param execution delegate execution
+     * @param tenantId  tenant ID
+     * @param mepmIp    MEPM IP
+     * @return MEPM port, null when it could not be read
+     */
+    private String readMepm(DelegateExecution execution, String tenantId, String mepmIp) {
+        UrlUtil urlUtil = new UrlUtil();
+        urlUtil.addParams(Constants.TENANT_ID, tenantId);
+        urlUtil.addParams(Constants.MEPM_IP, mepmIp);
+
+        String mepmUrl = protocol + baseUrl + urlUtil.getUrl(Constants.INVENTORY_MEPM_URI);
+        String response = sendRequest(execution, restTemplate, mepmUrl, HttpMethod.GET);
+        if (response == null) {
+            return null;
+        }
+
+        JsonObject jsonObject = new JsonParser().parse(response).getAsJsonObject();
+        JsonElement mepmPort = jsonObject.get("mepmPort");
+        if (mepmPort == null) {
+            setProcessflowErrorResponseAttributes(execution,
+                    "MEPM port not found", Constants.PROCESS_FLOW_ERROR);
+            LOGGER.info("MEPM port not found... in response");
+            return null;
+        }
+        return mepmPort.getAsString();
+    }
+
     /**
      * Retrieves MEC host from inventory.
      *
@@ -137,43 +175,21 @@ public class Inventory extends ProcessflowAbstractTask {
 
         try {
             String tenant = (String) execution.getVariable(Constants.TENANT_ID);
-            String mecHost = (String) execution.getVariable(Constants.MEC_HOST);
-            if (mecHost == null) {
+            String hostVariable = (String) execution.getVariable(Constants.MEC_HOST);
+            if (hostVariable == null) {
                 AppInstanceInfo instanceinfo = (AppInstanceInfo) execution.getVariable(Constants.APP_INSTANCE_INFO);
-                mecHost = instanceinfo.getMecHost();
+                hostVariable = instanceinfo.getMecHost();
             }
+            String mecHost = hostVariable;
 
-            UrlUtil urlUtil = new UrlUtil();
-            urlUtil.addParams(Constants.TENANT_ID, tenant);
-            urlUtil.addParams(Constants.MEC_HOST, mecHost);
-
-            String mecUrl = protocol + baseUrl + urlUtil.getUrl(Constants.INVENTORY_MEC_HOST_URI);
-            String response = sendRequest(execution, restTemplate, mecUrl, HttpMethod.GET);
-            if (response == null) {
+            MepmEndpointCache.HostRecord host = endpointCache.getHost(tenant, mecHost,
+                    () -> readMecHost(execution, tenant, mecHost));
+            if (host == null) {
                 return;
             }
-            
-            JsonObject jsonObject = new JsonParser().parse(response).getAsJsonObject();
-            JsonElement mepmIp = jsonObject.get("mepmIp");
-            if (mepmIp == null) {
-                setProcessflowErrorResponseAttributes(execution,
-                        "MEPM IP not configured in host", Constants.PROCESS_FLOW_ERROR);
-                LOGGER.info("MEPM IP not configured in host");
-                return;
-            }
-            execution.setVariable(Constants.MEPM_IP, mepmIp.getAsString());
-
-            JsonArray hwCapabilities = jsonObject.getAsJsonArray("hwcapabilities");
-            List<String> hwTypeList = new LinkedList<>();
-            if (hwCapabilities != null) {
-                for (int i = 0; i < hwCapabilities.size(); i++) {
-                    JsonObject hostCapability = (JsonObject) hwCapabilities.get(i);
-                    JsonElement hwType = hostCapability.get("hwType");
-                    hwTypeList.add(hwType.getAsString());
-                }
-                String capabilities = hwTypeList.stream().map(Object::toString)
-                        .collect(Collectors.joining(","));
-                execution.setVariable("hw_capabilities_list", capabilities);
+            execution.setVariable(Constants.MEPM_IP, host.getMepmIp());
+            if (host.getHwCapabilities() != null) {
+                execution.setVariable("hw_capabilities_list", host.getHwCapabilities());
             }
             setProcessflowResponseAttributes(execution, Constants.SUCCESS, Constants.PROCESS_FLOW_SUCCESS);
 
@@ -187,6 +203,35 @@ public class Inventory extends ProcessflowAbstractTask {
         }
     }
 
+    /**
+     * Reads MEC host MEPM IP and hardware capabilities from inventory.
+     *
+     * @param execution delegate execution
+     * @param tenant    tenant ID
+     * @param mecHost   MEC host IP
+     * @return MEC host record, null when it could not be read
+     */
+    private MepmEndpointCache.HostRecord readMecHost(DelegateExecution execution, String tenant, String mecHost) {
+        UrlUtil urlUtil = new UrlUtil();
+        urlUtil.addParams(Constants.TENANT_ID, tenant);
+        urlUtil.addParams(Constants.MEC_HOST, mecHost);
+
+        String mecUrl = protocol + baseUrl + urlUtil.getUrl(Constants.INVENTORY_MEC_HOST_URI);
+        String response = sendRequest(execution, restTemplate, mecUrl, HttpMethod.GET);
+        if (response == null) {
+            return null;
+        }
+
+        MepmEndpointCache.HostRecord host = MepmEndpointCache.HostRecord.fromInventory(
+                new JsonParser().parse(response).getAsJsonObject());
+        if (host == null) {
+            setProcessflowErrorResponseAttributes(execution,
+                    "MEPM IP not configured in host", Constants.PROCESS_FLOW_ERROR);
+            LOGGER.info("MEPM IP not configured in host");
+        }
+        return host;
+    }
+
 
     /**
      * Perform CURD operation on application inventory.
@@ -248,6 +293,12 @@ public class Inventory extends ProcessflowAbstractTask {
             String status = (String) execution.getVariable(STATUS);
             appData.put(STATUS, status);
 
+            if (outbox.isEnabled()) {
+                outbox.appendAdd(tenantId, (String) execution.getVariable(Constants.ACCESS_TOKEN), mecHost,
+                        appInstId, appData.toString(), status);
+                setProcessflowResponseAttributes(execution, Constants.SUCCESS, Constants.PROCESS_FLOW_SUCCESS);
+                return;
+            }
             String appUrl = protocol + baseUrl + urlUtil.getUrl(Constants.INVENTORY_APPLICATIONS_URI);
             sendRequest(execution, restTemplate, appUrl, appData.toString(), HttpMethod.POST);
 
@@ -265,6 +316,10 @@ public class Inventory extends ProcessflowAbstractTask {
     private void updateApplication(DelegateExecution execution) {
 
         LOGGER.info("Updates MEC application to inventory");
+        if (outbox.isEnabled()) {
+            appendApplicationStatus(execution);
+            return;
+        }
         String applicationjson = getApplication(execution);
         if (applicationjson == null) {
             LOGGER.info("Get Application record failed...");
@@ -307,6 +362,28 @@ public class Inventory extends ProcessflowAbstractTask {
         }
     }
 
+    /**
+     * Appends status update of MEC application to inventory outbox.
+     *
+     * @param execution delegate execution
+     */
+    private void appendApplicationStatus(DelegateExecution execution) {
+        String tenantId = (String) execution.getVariable(Constants.TENANT_ID);
+        String mecHost = (String) execution.getVariable(Constants.MEC_HOST);
+
+        if (mecHost == null) {
+            AppInstanceInfo appInstanceInfo = (AppInstanceInfo) execution.getVariable(Constants.APP_INSTANCE_INFO);
+            if (appInstanceInfo != null) {
+                mecHost = appInstanceInfo.getMecHost();
+            }
+        }
+        String appInstId = (String) execution.getVariable(Constants.APP_INSTANCE_ID);
+
+        outbox.appendStatus(tenantId, (String) execution.getVariable(Constants.ACCESS_TOKEN), mecHost, appInstId,
+                (String) execution.getVariable(STATUS));
+        setProcessflowResponseAttributes(execution, Constants.SUCCESS, Constants.PROCESS_FLOW_SUCCESS);
+    }
+
     /**
      * Retrieves MEC application from inventory.
      *
@@ -361,6 +438,11 @@ public class Inventory extends ProcessflowAbstractTask {
             urlUtil.addParams(Constants.MEC_HOST, appInstanceInfo.getMecHost());
         }
 
+        // pending writes would otherwise recreate the deleted record
+        if (outbox.isEnabled()) {
+            outbox.discard(tenantId, appInstId);
+        }
+
         try {
             String appUrl = protocol + baseUrl + urlUtil.getUrl(Constants.INVENTORY_APPLICATION_URI);
             sendRequest(execution, restTemplate, appUrl, HttpMethod.DELETE);
@@ -422,6 +504,9 @@ public class Inventory extends ProcessflowAbstractTask {
         try {
             String appRules = (String) execution.getVariable(Constants.UPDATED_APP_RULES);
 
+            // version merged app rules are based on, before it is refreshed by looking up existing rules
+            Long baseVersion = (Long) execution.getVariable(Constants.APP_RULES_VERSION);
+
             LOGGER.info("Add/Update app rule to Inventory");
             HttpMethod method = HttpMethod.PUT;
             if (getAppRules(execution) == null) {
@@ -430,6 +515,7 @@ public class Inventory extends ProcessflowAbstractTask {
             String appUrl = protocol + baseUrl + urlUtil.getUrl(Constants.INVENTORY_APPRULE_URI);
 
             sendRequest(execution, restTemplate, appUrl, appRules, method);
+            writeThrough(execution, tenantId, appInstId, baseVersion, appRules);
 
         } catch (AppoException | IllegalArgumentException e) {
             setProcessflowExceptionResponseAttributes(execution,
@@ -460,6 +546,8 @@ public class Inventory extends ProcessflowAbstractTask {
 
             LOGGER.info("Update app rules to Inventory");
             sendRequest(execution, restTemplate, appUrl, appRules, HttpMethod.PUT);
+            writeThrough(execution, tenantId, appInstId,
+                    (Long) execution.getVariable(Constants.APP_RULES_VERSION), appRules);
 
         } catch (AppoException | IllegalArgumentException e) {
             setProcessflowExceptionResponseAttributes(execution,
@@ -479,6 +567,20 @@ public class Inventory extends ProcessflowAbstractTask {
 
         String appInstId = (String) execution.getVariable(Constants.APP_INSTANCE_ID);
 
+        AppRulesCache.Snapshot cached = appRulesCache.get(tenantId, appInstId);
+        if (cached != null) {
+            LOGGER.info("Get app rule from cache, version {}", cached.getVersion());
+            ProcessflowVariables.setVariable(execution, Constants.APP_RULES_VERSION, cached.getVersion());
+            if (cached.getAppRules() == null) {
+                setProcessflowExceptionResponseAttributes(execution, "app rules not found",
+                        Constants.PROCESS_RECORD_NOT_FOUND);
+                return null;
+            }
+            ProcessflowVariables.setVariable(execution, Constants.INVENTORY_APP_RULES, cached.getAppRules());
+            setProcessflowResponseAttributes(execution, cached.getAppRules(), Constants.PROCESS_FLOW_SUCCESS);
+            return cached.getAppRules();
+        }
+
         UrlUtil urlUtil = new UrlUtil();
         urlUtil.addParams(Constants.TENANT_ID, tenantId);
         urlUtil.addParams(Constants.APP_INSTANCE_ID, appInstId);
@@ -489,7 +591,12 @@ public class Inventory extends ProcessflowAbstractTask {
             LOGGER.info("Get app rule from Inventory");
             String responseStr = sendRequest(execution, restTemplate, appRuleUrl, HttpMethod.GET);
             if (responseStr != null) {
-                execution.setVariable(Constants.INVENTORY_APP_RULES, responseStr);
+                ProcessflowVariables.setVariable(execution, Constants.INVENTORY_APP_RULES, responseStr);
+            }
+            if (responseStr != null
+                    || Constants.PROCESS_RECORD_NOT_FOUND.equals(execution.getVariable(RESPONSE_CODE))) {
+                AppRulesCache.Snapshot loaded = appRulesCache.load(tenantId, appInstId, responseStr);
+                ProcessflowVariables.setVariable(execution, Constants.APP_RULES_VERSION, loaded.getVersion());
             }
             return responseStr;
         } catch (AppoException | IllegalArgumentException e) {
@@ -520,6 +627,8 @@ public class Inventory extends ProcessflowAbstractTask {
 
             String appUrl = protocol + baseUrl + urlUtil.getUrl(Constants.INVENTORY_APPRULE_URI);
             sendRequest(execution, restTemplate, appUrl, appRules, HttpMethod.PUT);
+            writeThrough(execution, tenantId, appInstId,
+                    (Long) execution.getVariable(Constants.APP_RULES_VERSION), appRules);
 
         } catch (AppoException | IllegalArgumentException e) {
             setProcessflowExceptionResponseAttributes(execution,
@@ -546,9 +655,31 @@ public class Inventory extends ProcessflowAbstractTask {
             String appRuleUrl = protocol + baseUrl + urlUtil.getUrl(Constants.INVENTORY_APPRULE_URI);
 
             sendRequest(execution, restTemplate, appRuleUrl, HttpMethod.DELETE);
+            writeThrough(execution, tenantId, appInstId,
+                    (Long) execution.getVariable(Constants.APP_RULES_VERSION), null);
         } catch (AppoException | IllegalArgumentException e) {
             setProcessflowExceptionResponseAttributes(execution,
                     Constants.INTERNAL_ERROR, Constants.PROCESS_FLOW_ERROR);
         }
     }
+
+    /**
+     * Caches app rules written to inventory, or drops cached app rules when write failed.
+     *
+     * @param execution   delegate execution
+     * @param tenantId    tenant ID
+     * @param appInstId   application instance ID
+     * @param baseVersion version app rules were merged from, null when unknown
+     * @param appRules    app rules written, null when all were deleted
+     */
+    private void writeThrough(DelegateExecution execution, String tenantId, String appInstId, Long baseVersion,
+                              String appRules) {
+        if (!Constants.PROCESS_FLOW_SUCCESS.equals(execution.getVariable(RESPONSE_CODE))) {
+            appRulesCache.invalidate(tenantId, appInstId);
+            return;
+        }
+        if (!appRulesCache.put(tenantId, appInstId, baseVersion, appRules)) {
+            LOGGER.info("App rules changed since version {}, read from inventory next time", baseVersion);
+        }
+    }
 }
@@ -18,6 +18,11 @@ package org.edgegallery.mecm.appo.bpmn.tasks;
 
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.edgegallery.mecm.appo.service.AppRulesCache;
+import org.edgegallery.mecm.appo.service.BatchingInventoryWriter;
+import org.edgegallery.mecm.appo.service.HedgedInventoryReader;
+import org.edgegallery.mecm.appo.service.InventoryOutbox;
+import org.edgegallery.mecm.appo.service.MepmEndpointCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -38,13 +43,28 @@ public class InventoryAdapter implements JavaDelegate {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private HedgedInventoryReader inventoryReader;
+
+    @Autowired
+    private MepmEndpointCache endpointCache;
+
+    @Autowired
+    private AppRulesCache appRulesCache;
+
+    @Autowired
+    private BatchingInventoryWriter inventoryWriter;
+
+    @Autowired
+    private InventoryOutbox outbox;
+
     @Override
     public void execute(DelegateExecution delegateExecution) throws Exception {
 
         String servicePort = inventoryService + ":" + inventoryServicePort;
 
         Inventory inventory = new Inventory(delegateExecution, Boolean.parseBoolean(isSslEnabled), servicePort,
-                restTemplate);
+                restTemplate, inventoryReader, endpointCache, appRulesCache, inventoryWriter, outbox);
         inventory.execute();
     }
 }
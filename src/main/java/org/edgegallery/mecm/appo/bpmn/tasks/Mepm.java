@@ -28,6 +28,8 @@ import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.edgegallery.mecm.appo.exception.AppoException;
 import org.edgegallery.mecm.appo.model.AppInstanceInfo;
 import org.edgegallery.mecm.appo.model.AppInstantiateReq;
+import org.edgegallery.mecm.appo.service.MepmEndpointCache;
+import org.edgegallery.mecm.appo.service.MepmEndpointGuard;
 import org.edgegallery.mecm.appo.utils.Constants;
 import org.edgegallery.mecm.appo.utils.UrlUtil;
 import org.slf4j.Logger;
@@ -57,14 +59,17 @@ public class Mepm extends ProcessflowAbstractTask {
      *
      * @param delegateExecution  delegate execution
      * @param restClientTemplate restclient template
+     * @param endpointGuard      MEPM endpoint circuit breaker and bulkhead
+     * @param endpointCache      MEC host to MEPM resolution cache
      */
     public Mepm(DelegateExecution delegateExecution, boolean isSslEnabled, String appPkgsBasePath,
-                RestTemplate restClientTemplate) {
+                RestTemplate restClientTemplate, MepmEndpointGuard endpointGuard, MepmEndpointCache endpointCache) {
         execution = delegateExecution;
         if (!isSslEnabled) {
             protocol = "http://";
         }
         restTemplate = restClientTemplate;
+        setEndpointGuard(endpointGuard, endpointCache);
         appPkgBasePath = appPkgsBasePath;
         action = (String) delegateExecution.getVariable("action");
     }
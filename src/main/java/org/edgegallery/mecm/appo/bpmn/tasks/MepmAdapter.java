@@ -18,6 +18,8 @@ package org.edgegallery.mecm.appo.bpmn.tasks;
 
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.edgegallery.mecm.appo.service.MepmEndpointCache;
+import org.edgegallery.mecm.appo.service.MepmEndpointGuard;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -29,6 +31,12 @@ public class MepmAdapter implements JavaDelegate {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private MepmEndpointGuard endpointGuard;
+
+    @Autowired
+    private MepmEndpointCache endpointCache;
+
     @Value("${server.ssl.enabled:false}")
     private String isSslEnabled;
 
@@ -38,7 +46,8 @@ public class MepmAdapter implements JavaDelegate {
     @Override
     public void execute(DelegateExecution delegateExecution) throws Exception {
 
-        Mepm mepm = new Mepm(delegateExecution, Boolean.parseBoolean(isSslEnabled), appPkgsBasePath, restTemplate);
+        Mepm mepm = new Mepm(delegateExecution, Boolean.parseBoolean(isSslEnabled), appPkgsBasePath, restTemplate,
+                endpointGuard, endpointCache);
         mepm.execute();
     }
 }
@@ -17,15 +17,23 @@
 
 package org.edgegallery.mecm.appo.bpmn.tasks;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.function.Supplier;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.edgegallery.mecm.appo.exception.AppoEndpointUnavailableException;
+import org.edgegallery.mecm.appo.service.BatchingInventoryWriter;
+import org.edgegallery.mecm.appo.service.HedgedInventoryReader;
+import org.edgegallery.mecm.appo.service.MepmEndpointCache;
+import org.edgegallery.mecm.appo.service.MepmEndpointGuard;
 import org.edgegallery.mecm.appo.utils.Constants;
+import org.edgegallery.mecm.appo.utils.ResponseBodyUnwrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpEntity;
@@ -34,10 +42,13 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
 public abstract class ProcessflowAbstractTask {
@@ -49,6 +60,52 @@ public abstract class ProcessflowAbstractTask {
     public static final String ILLEGAL_ARGUMENT = "Illegal Argument...";
     private static final Logger LOGGER = LoggerFactory.getLogger(ProcessflowAbstractTask.class);
 
+    private MepmEndpointGuard endpointGuard;
+    private MepmEndpointCache endpointCache;
+    private HedgedInventoryReader inventoryReader;
+    private String readResource;
+    private boolean sharedReads;
+    private BatchingInventoryWriter inventoryWriter;
+    private String writeTenant;
+
+    /**
+     * Sets guard requests are sent through, requests are sent unguarded when not set. Cached MEPM resolution of
+     * an endpoint is invalidated when the endpoint cannot be reached or its circuit is open.
+     *
+     * @param endpointGuard endpoint circuit breaker and bulkhead
+     * @param endpointCache MEC host to MEPM resolution cache
+     */
+    protected void setEndpointGuard(MepmEndpointGuard endpointGuard, MepmEndpointCache endpointCache) {
+        this.endpointGuard = endpointGuard;
+        this.endpointCache = endpointCache;
+    }
+
+    /**
+     * Sets reader GET requests are sent through, bounding them by adaptive timeout and hedging slow ones.
+     *
+     * @param inventoryReader hedged inventory reader
+     * @param readResource    inventory resource read by this task
+     * @param sharedReads     whether concurrent reads of same url are shared and not found answers cached, only
+     *                        for resources not written by process flows
+     */
+    protected void setInventoryReader(HedgedInventoryReader inventoryReader, String readResource,
+                                      boolean sharedReads) {
+        this.inventoryReader = inventoryReader;
+        this.readResource = readResource;
+        this.sharedReads = sharedReads;
+    }
+
+    /**
+     * Sets writer non GET requests are sent through, grouping them with writes of other flows of the tenant.
+     *
+     * @param inventoryWriter batching inventory writer
+     * @param tenantId        tenant ID writes are grouped by
+     */
+    protected void setInventoryWriter(BatchingInventoryWriter inventoryWriter, String tenantId) {
+        this.inventoryWriter = inventoryWriter;
+        this.writeTenant = tenantId;
+    }
+
     /**
      * Sets process flow response attributes to delegate execution.
      *
@@ -63,7 +120,7 @@ public abstract class ProcessflowAbstractTask {
             throw new IllegalArgumentException();
         }
         LOGGER.info("\nresponse: {} response code: {}\n", response, responseCode);
-        delegateExecution.setVariable(RESPONSE, response);
+        ProcessflowVariables.setVariable(delegateExecution, RESPONSE, response);
         delegateExecution.setVariable(RESPONSE_CODE, responseCode);
     }
 
@@ -81,7 +138,7 @@ public abstract class ProcessflowAbstractTask {
             throw new IllegalArgumentException();
         }
         LOGGER.error("\nfailure response: {} response code: {}\n", response, responseCode);
-        delegateExecution.setVariable(ERROR_RESPONSE, response);
+        ProcessflowVariables.setVariable(delegateExecution, ERROR_RESPONSE, response);
         delegateExecution.setVariable(RESPONSE_CODE, responseCode);
     }
 
@@ -101,7 +158,7 @@ public abstract class ProcessflowAbstractTask {
         LOGGER.error("\nfailure response: {} response code: {}\n", response, responseCode);
         delegateExecution.setVariable(RESPONSE_CODE, responseCode);
         delegateExecution.setVariable(FLOW_EXCEPTION, response);
-        delegateExecution.setVariable(ERROR_RESPONSE, response);
+        ProcessflowVariables.setVariable(delegateExecution, ERROR_RESPONSE, response);
     }
 
     /**
@@ -209,7 +266,10 @@ public abstract class ProcessflowAbstractTask {
 
             LOGGER.info("\n\nSending Request: {}: URL: {}", method, url);
 
-            ResponseEntity<String> response = restTemplate.exchange(url, method, entity, String.class);
+            //The raw body block can be removed once appo supports V2 format.
+            boolean raw = uri.toString().contains("/kpi") || uri.toString().contains("/profile");
+            ResponseEntity<String> response = exchange(restTemplate, uri, url, entity, method,
+                    clientResponse -> readBody(clientResponse, raw));
 
             if (!HttpStatus.OK.equals(response.getStatusCode())) {
                 LOGGER.info("Response: \nmethod: {} \nURL: {} \nFailed: {}", method, url, response.getStatusCode());
@@ -217,25 +277,11 @@ public abstract class ProcessflowAbstractTask {
                 return null;
             }
 
-            //This block can be removed once appo supports V2 format.
-            if (uri.toString().contains("/kpi") || uri.toString().contains("/profile")) {
-                setProcessflowResponseAttributes(execution, response.getBody(), Constants.PROCESS_FLOW_SUCCESS);
-                return response.getBody();
-            }
-            String responseBody = "{}";
-            if (response.getBody() != null) {
-                responseBody = response.getBody();
-                if (responseBody != null && responseBody.contains("data")) {
-                    JsonObject jsonObject = new JsonParser().parse(responseBody).getAsJsonObject();
-                    if (!jsonObject.get("data").isJsonNull()) {
-                        responseBody = jsonObject.get("data").getAsString();
-                    } else if (!jsonObject.get("message").isJsonNull()) {
-                        responseBody = jsonObject.get("message").getAsString();
-                    }
-                }
-            }
-            setProcessflowResponseAttributes(execution, responseBody, Constants.PROCESS_FLOW_SUCCESS);
-            return responseBody;
+            setProcessflowResponseAttributes(execution, response.getBody(), Constants.PROCESS_FLOW_SUCCESS);
+            return response.getBody();
+        } catch (AppoEndpointUnavailableException ex) {
+            LOGGER.error(ex.getMessage());
+            setProcessflowExceptionResponseAttributes(execution, ex.getMessage(), Constants.PROCESS_FLOW_ERROR_503);
         } catch (ResourceAccessException ex) {
             LOGGER.error(Constants.FAILED_TO_CONNECT + "{}", ex.getMessage());
             setProcessflowExceptionResponseAttributes(execution,
@@ -255,6 +301,37 @@ public abstract class ProcessflowAbstractTask {
         return null;
     }
 
+    /**
+     * Unwraps data or message from V2 format response body.
+     * @param body response body
+     * @return unwrapped response body
+     */
+    public static String unwrapResponseBody(String body) {
+        return ResponseBodyUnwrapper.unwrap(body);
+    }
+
+    /**
+     * Reads response body bytes once, unwrapping V2 format body without building a JSON tree.
+     *
+     * @param response client response
+     * @param raw      whether body is returned as is
+     * @return response entity with raw or unwrapped body
+     * @throws IOException when body cannot be read
+     */
+    private static ResponseEntity<String> readBody(ClientHttpResponse response, boolean raw) throws IOException {
+        byte[] body = StreamUtils.copyToByteArray(response.getBody());
+        MediaType contentType = response.getHeaders().getContentType();
+        Charset charset = contentType != null && contentType.getCharset() != null ? contentType.getCharset()
+                : StandardCharsets.UTF_8;
+        String responseBody;
+        if (raw) {
+            responseBody = body.length == 0 ? null : new String(body, charset);
+        } else {
+            responseBody = ResponseBodyUnwrapper.unwrap(body, charset);
+        }
+        return new ResponseEntity<>(responseBody, response.getHeaders(), response.getStatusCode());
+    }
+
     /**
      * Send request to remote entity.
      * @param execution execution
@@ -279,7 +356,8 @@ public abstract class ProcessflowAbstractTask {
 
             LOGGER.info("\n\nSending Request: {}: URL: {}", method, url);
 
-            ResponseEntity<String> response = restTemplate.exchange(url, method, entity, String.class);
+            ResponseEntity<String> response = exchange(restTemplate, uri, url, entity, method,
+                    restTemplate.responseEntityExtractor(String.class));
 
             if (!HttpStatus.OK.equals(response.getStatusCode())) {
                 LOGGER.info("Response: \nmethod: {} \nURL: {} \nFailed: {}", method, url, response.getStatusCode());
@@ -293,6 +371,9 @@ public abstract class ProcessflowAbstractTask {
             }
             setProcessflowResponseAttributes(execution, responseBody, Constants.PROCESS_FLOW_SUCCESS);
             return responseBody;
+        } catch (AppoEndpointUnavailableException ex) {
+            LOGGER.error(ex.getMessage());
+            setProcessflowExceptionResponseAttributes(execution, ex.getMessage(), Constants.PROCESS_FLOW_ERROR_503);
         } catch (ResourceAccessException ex) {
             LOGGER.error(Constants.FAILED_TO_CONNECT + "{}", ex.getMessage());
             setProcessflowExceptionResponseAttributes(execution,
@@ -307,6 +388,36 @@ public abstract class ProcessflowAbstractTask {
         return null;
     }
 
+    private <T> ResponseEntity<String> exchange(RestTemplate restTemplate, URI uri, String url,
+                                               HttpEntity<T> entity, HttpMethod method,
+                                               ResponseExtractor<ResponseEntity<String>> extractor) {
+        Supplier<ResponseEntity<String>> request = () -> restTemplate.execute(url, method,
+                restTemplate.httpEntityCallback(entity, String.class), extractor);
+        if (endpointGuard != null) {
+            Supplier<ResponseEntity<String>> unguarded = request;
+            request = () -> {
+                try {
+                    return endpointGuard.execute(uri.getHost() + ":" + uri.getPort(), unguarded);
+                } catch (ResourceAccessException | AppoEndpointUnavailableException e) {
+                    endpointCache.invalidateMepm(uri.getHost());
+                    throw e;
+                }
+            };
+        }
+        if (inventoryReader != null && HttpMethod.GET.equals(method)) {
+            if (sharedReads) {
+                String key = url + "#" + entity.getHeaders().getFirst(Constants.ACCESS_TOKEN);
+                return inventoryReader.read(readResource, key, request);
+            }
+            return inventoryReader.read(readResource, request);
+        }
+        if (inventoryWriter != null && !HttpMethod.GET.equals(method)) {
+            return inventoryWriter.write(writeTenant,
+                    new BatchingInventoryWriter.ApplicationWrite(method, url, entity, request));
+        }
+        return request.get();
+    }
+
     /**
      * Returns base HTTP header.
      * @param execution execution
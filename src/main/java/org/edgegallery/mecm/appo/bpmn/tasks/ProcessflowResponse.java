@@ -16,11 +16,15 @@
 
 package org.edgegallery.mecm.appo.bpmn.tasks;
 
+import java.util.HashMap;
+import java.util.Map;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.edgegallery.mecm.appo.service.ProcessflowResultRegistry;
 import org.edgegallery.mecm.appo.utils.Constants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -28,6 +32,9 @@ public class ProcessflowResponse implements JavaDelegate {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ProcessflowResponse.class);
 
+    @Autowired
+    private ProcessflowResultRegistry resultRegistry;
+
     @Override
     public void execute(DelegateExecution delegateExecution) throws Exception {
 
@@ -35,11 +42,15 @@ public class ProcessflowResponse implements JavaDelegate {
 
         String responseCode = (String) delegateExecution.getVariable(ProcessflowAbstractTask.RESPONSE_CODE);
 
+        Map<String, Object> result = new HashMap<>();
+        result.put(Constants.PROCESS_FLOW_RESP_CODE, responseCode);
+
         if ("success".equals(responseType)) {
             String response = (String) delegateExecution.getVariable(ProcessflowAbstractTask.RESPONSE);
 
             delegateExecution.setVariable(Constants.PROCESS_FLOW_RESP_CODE, responseCode);
             delegateExecution.setVariable(Constants.PROCESS_FLOW_RESP, response);
+            result.put(Constants.PROCESS_FLOW_RESP, response);
             LOGGER.info("Return process flow response, response: {}, response code: {} ", response,
                     responseCode);
         } else if ("failure".equals(responseType)) {
@@ -47,6 +58,7 @@ public class ProcessflowResponse implements JavaDelegate {
 
             delegateExecution.setVariable(Constants.PROCESS_FLOW_RESP_CODE, responseCode);
             delegateExecution.setVariable(Constants.PROCESS_FLOW_ERR_RESP, response);
+            result.put(Constants.PROCESS_FLOW_ERR_RESP, response);
             LOGGER.info("Return process flow error response, response: {}, response code: {} ", response,
                     responseCode);
         } else {
@@ -54,7 +66,13 @@ public class ProcessflowResponse implements JavaDelegate {
 
             delegateExecution.setVariable(Constants.PROCESS_FLOW_RESP_CODE, responseCode);
             delegateExecution.setVariable(Constants.PROCESS_FLOW_EXCEPTION, response);
+            result.put(Constants.PROCESS_FLOW_EXCEPTION, response);
             LOGGER.info("Unknown, response: {}, response code: {} ", response, responseCode);
         }
+
+        String requestId = delegateExecution.getProcessBusinessKey();
+        if (requestId != null) {
+            resultRegistry.publish(requestId, result);
+        }
     }
 }
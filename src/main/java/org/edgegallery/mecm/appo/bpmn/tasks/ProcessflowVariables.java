@@ -0,0 +1,101 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.bpmn.tasks;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+import org.edgegallery.mecm.appo.utils.Constants;
+
+/**
+ * Process flow variable policy. Access token, rule/parameter payloads and remote response bodies are only
+ * needed while the flow runs, so they are kept as transient variables and never written to engine tables.
+ */
+public final class ProcessflowVariables {
+
+    private static final Set<String> TRANSIENT_VARIABLES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            Constants.ACCESS_TOKEN,
+            Constants.APP_RULES,
+            Constants.UPDATED_APP_RULES,
+            Constants.INVENTORY_APP_RULES,
+            Constants.APP_RULES_VERSION,
+            Constants.APP_REQUIRED,
+            Constants.INSTANTIATION_PARAMS,
+            Constants.BATCH_INSTANTIATION_PARAMS,
+            Constants.BATCH_CHILD,
+            Constants.APP_INSTANCE_INFO,
+            ProcessflowAbstractTask.RESPONSE,
+            ProcessflowAbstractTask.ERROR_RESPONSE)));
+
+    private ProcessflowVariables() {
+    }
+
+    /**
+     * Returns true if variable is kept transient.
+     *
+     * @param variableName variable name
+     * @return true if variable is not persisted
+     */
+    public static boolean isTransient(String variableName) {
+        return TRANSIENT_VARIABLES.contains(variableName);
+    }
+
+    /**
+     * Sets variable to delegate execution as per variable policy.
+     *
+     * @param execution    delegate execution
+     * @param variableName variable name
+     * @param value        variable value
+     */
+    public static void setVariable(DelegateExecution execution, String variableName, Object value) {
+        if (!isTransient(variableName)) {
+            execution.setVariable(variableName, value);
+            return;
+        }
+
+        // Engine does not allow switching an existing persisted variable to transient, e.g. when it is
+        // passed in by a call activity mapping.
+        TypedValue existing = execution.getVariableTyped(variableName);
+        if (existing != null && !existing.isTransient()) {
+            execution.setVariable(variableName, value);
+            return;
+        }
+        execution.setVariable(variableName, Variables.untypedValue(value, true));
+    }
+
+    /**
+     * Converts process flow start variables as per variable policy.
+     *
+     * @param variables start variables
+     * @return start variables
+     */
+    public static Map<String, Object> toStartVariables(Map<String, Object> variables) {
+        Map<String, Object> startVariables = new HashMap<>(variables);
+        for (Map.Entry<String, Object> entry : startVariables.entrySet()) {
+            if (isTransient(entry.getKey()) && !(entry.getValue() instanceof TypedValue)) {
+                entry.setValue(Variables.untypedValue(entry.getValue(), true));
+            }
+        }
+        return startVariables;
+    }
+}
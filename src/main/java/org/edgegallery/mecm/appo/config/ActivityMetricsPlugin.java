@@ -0,0 +1,130 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.ExecutionListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.AbstractBpmnParseListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParseListener;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
+import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+import org.camunda.bpm.engine.variable.Variables;
+import org.edgegallery.mecm.appo.bpmn.tasks.ProcessflowAbstractTask;
+import org.edgegallery.mecm.appo.utils.Constants;
+import org.springframework.stereotype.Component;
+
+/**
+ * Process engine plugin recording latency of every service task and call activity, tagged by process key,
+ * activity ID, outcome and tenant.
+ */
+@Component
+public class ActivityMetricsPlugin extends AbstractProcessEnginePlugin {
+
+    static final String METRIC_NAME = "appo.process.activity";
+
+    private static final String START_VARIABLE_PREFIX = "activityStart_";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Creates activity metrics plugin.
+     *
+     * @param meterRegistry meter registry
+     */
+    public ActivityMetricsPlugin(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl configuration) {
+        List<BpmnParseListener> parseListeners = configuration.getCustomPreBPMNParseListeners();
+        if (parseListeners == null) {
+            parseListeners = new ArrayList<>();
+            configuration.setCustomPreBPMNParseListeners(parseListeners);
+        }
+        parseListeners.add(new TimingParseListener());
+    }
+
+    private final class TimingParseListener extends AbstractBpmnParseListener {
+
+        @Override
+        public void parseServiceTask(Element serviceTaskElement, ScopeImpl scope, ActivityImpl activity) {
+            addTimingListeners(activity);
+        }
+
+        @Override
+        public void parseCallActivity(Element callActivityElement, ScopeImpl scope, ActivityImpl activity) {
+            addTimingListeners(activity);
+        }
+
+        private void addTimingListeners(ActivityImpl activity) {
+            TimingListener listener = new TimingListener(activity.getProcessDefinition().getKey(), activity.getId());
+            activity.addListener(ExecutionListener.EVENTNAME_START, listener);
+            activity.addListener(ExecutionListener.EVENTNAME_END, listener);
+        }
+    }
+
+    /**
+     * Keeps activity start time in a transient variable, records activity duration when it ends. Activities
+     * ending with an exception roll back the flow and are not recorded.
+     */
+    final class TimingListener implements ExecutionListener {
+
+        private final String processKey;
+        private final String activityId;
+        private final String startVariable;
+
+        TimingListener(String processKey, String activityId) {
+            this.processKey = processKey;
+            this.activityId = activityId;
+            this.startVariable = START_VARIABLE_PREFIX + activityId;
+        }
+
+        @Override
+        public void notify(DelegateExecution execution) {
+            if (ExecutionListener.EVENTNAME_START.equals(execution.getEventName())) {
+                execution.setVariableLocal(startVariable, Variables.untypedValue(System.nanoTime(), true));
+                return;
+            }
+            Object start = execution.getVariableLocal(startVariable);
+            if (!(start instanceof Long)) {
+                return;
+            }
+            execution.removeVariableLocal(startVariable);
+            Object responseCode = execution.getVariable(ProcessflowAbstractTask.RESPONSE_CODE);
+            Object tenantId = execution.getVariable(Constants.TENANT_ID);
+            Timer.builder(METRIC_NAME)
+                    .description("Process flow service task and call activity latency")
+                    .tag("process", processKey)
+                    .tag("activity", activityId)
+                    .tag("outcome", responseCode == null || Constants.PROCESS_FLOW_SUCCESS.equals(responseCode)
+                            ? "success" : "error")
+                    .tag("tenant", tenantId == null ? "none" : tenantId.toString())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - (Long) start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Records latency, status and bytes of outbound requests, tagged by downstream and endpoint template. Path segments
+ * holding identifiers are replaced by {id}, so tags do not grow with tenants or instances. Latency per host, which
+ * grows with MEPMs, is recorded by a separate timer without percentile histogram.
+ */
+public class OutboundMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    static final String METRIC_NAME = "appo.outbound.requests";
+
+    static final String HOST_METRIC_NAME = "appo.outbound.host.requests";
+
+    private static final Pattern VERSION = Pattern.compile("v\\d+");
+    private static final Pattern IDENTIFIER = Pattern.compile(".*\\d.*");
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Creates outbound metrics interceptor.
+     *
+     * @param meterRegistry meter registry
+     */
+    public OutboundMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        URI uri = request.getURI();
+        String downstream = downstream(uri.getPath());
+        Tags tags = Tags.of("downstream", downstream, "method", String.valueOf(request.getMethod()),
+                "uri", template(uri.getPath()));
+        Tags hostTags = Tags.of("downstream", downstream, "host", uri.getHost() + ":" + uri.getPort());
+        DistributionSummary.builder("appo.outbound.request.bytes")
+                .description("Outbound request body size")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(body.length);
+
+        long start = System.nanoTime();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException e) {
+            record(tags, hostTags, "IO_ERROR", "UNKNOWN", start);
+            throw e;
+        }
+        int status = response.getRawStatusCode();
+        HttpStatus.Series series = HttpStatus.Series.resolve(status);
+        String outcome = series == null ? "UNKNOWN" : series.name();
+        record(tags, hostTags, String.valueOf(status), outcome, start);
+        return new CountingResponse(response, tags.and("status", String.valueOf(status), "outcome", outcome));
+    }
+
+    private void record(Tags tags, Tags hostTags, String status, String outcome, long start) {
+        long duration = System.nanoTime() - start;
+        Timer.builder(METRIC_NAME)
+                .description("Outbound request latency")
+                .tags(tags.and("status", status, "outcome", outcome))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(duration, TimeUnit.NANOSECONDS);
+        Timer.builder(HOST_METRIC_NAME)
+                .description("Outbound request latency per host")
+                .tags(hostTags.and("outcome", outcome))
+                .register(meterRegistry)
+                .record(duration, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns downstream component served on path.
+     *
+     * @param path request path
+     * @return downstream component
+     */
+    static String downstream(String path) {
+        if (path.startsWith("/inventory/")) {
+            return "inventory";
+        }
+        if (path.startsWith("/apm/")) {
+            return "apm";
+        }
+        if (path.startsWith("/lcmcontroller/")) {
+            return "mepm";
+        }
+        if (path.startsWith("/rescontroller/")) {
+            return "resource-controller";
+        }
+        return "other";
+    }
+
+    /**
+     * Returns endpoint template of path, identifier segments replaced by {id}.
+     *
+     * @param path request path
+     * @return endpoint template
+     */
+    static String template(String path) {
+        StringBuilder template = new StringBuilder(path.length());
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            template.append('/');
+            template.append(IDENTIFIER.matcher(segment).matches() && !VERSION.matcher(segment).matches()
+                    ? "{id}" : segment);
+        }
+        return template.length() == 0 ? "/" : template.toString();
+    }
+
+    /**
+     * Response recording bytes read from its body when closed.
+     */
+    private final class CountingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse response;
+        private final Tags tags;
+        private CountingInputStream body;
+
+        private CountingResponse(ClientHttpResponse response, Tags tags) {
+            this.response = response;
+            this.tags = tags;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new CountingInputStream(response.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return response.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public void close() {
+            DistributionSummary.builder("appo.outbound.response.bytes")
+                    .description("Outbound response body size")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(body == null ? 0 : body.count);
+            response.close();
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long length) throws IOException {
+            long skipped = super.skip(length);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.apache.http.client.methods.HttpUriRequest;
+
+/**
+ * Outbound requests sent by a thread on behalf of one call, bounded by the call's deadline and aborted once the
+ * call's result is no longer needed.
+ */
+public final class OutboundRequestScope {
+
+    private static final ThreadLocal<OutboundRequestScope> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+    private final List<HttpUriRequest> requests = new ArrayList<>();
+    private boolean aborted;
+
+    /**
+     * Creates outbound request scope.
+     *
+     * @param deadlineNanos {@link System#nanoTime()} by which requests of the scope must complete
+     */
+    public OutboundRequestScope(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Runs call with outbound requests it sends on the current thread bound to this scope.
+     *
+     * @param call call sending outbound requests
+     * @param <T>  call result type
+     * @return call result
+     */
+    public <T> T call(Supplier<T> call) {
+        OutboundRequestScope previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Aborts requests of the scope in progress, requests started afterwards are aborted right away.
+     */
+    public synchronized void abort() {
+        aborted = true;
+        requests.forEach(HttpUriRequest::abort);
+        requests.clear();
+    }
+
+    /**
+     * Returns whether scope was aborted.
+     *
+     * @return true if aborted
+     */
+    public synchronized boolean isAborted() {
+        return aborted;
+    }
+
+    static OutboundRequestScope current() {
+        return CURRENT.get();
+    }
+
+    int remainingMillis() {
+        long remaining = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        return (int) Math.max(1, Math.min(remaining, Integer.MAX_VALUE));
+    }
+
+    synchronized void register(HttpUriRequest request) {
+        if (aborted) {
+            request.abort();
+        } else {
+            requests.add(request);
+        }
+    }
+}
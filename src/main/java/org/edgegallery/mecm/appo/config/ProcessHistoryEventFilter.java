@@ -0,0 +1,119 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.config;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.camunda.bpm.engine.impl.history.event.HistoricIncidentEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoricScopeInstanceEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoricVariableUpdateEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * History event handler applying per process key history level, on top of the engine history level.
+ */
+public class ProcessHistoryEventFilter implements HistoryEventHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProcessHistoryEventFilter.class);
+
+    public enum Level {
+        NONE, ACTIVITY, AUDIT, FULL
+    }
+
+    private final HistoryEventHandler delegate;
+    private final Map<String, Level> processLevels;
+    private final Runnable droppedEventListener;
+
+    /**
+     * Creates history event filter.
+     *
+     * @param delegate             history event handler writing retained events
+     * @param processLevels        history level per process key, FULL for process keys not present
+     * @param droppedEventListener invoked for each dropped event
+     */
+    public ProcessHistoryEventFilter(HistoryEventHandler delegate, Map<String, Level> processLevels,
+                                     Runnable droppedEventListener) {
+        this.delegate = delegate;
+        this.processLevels = Collections.unmodifiableMap(new HashMap<>(processLevels));
+        this.droppedEventListener = droppedEventListener;
+    }
+
+    /**
+     * Parses comma separated processKey=level entries.
+     *
+     * @param processLevels process levels configuration
+     * @return history level per process key
+     */
+    public static Map<String, Level> parseProcessLevels(String processLevels) {
+        Map<String, Level> levels = new HashMap<>();
+        if (processLevels == null) {
+            return levels;
+        }
+        for (String entry : processLevels.split(",")) {
+            String[] keyLevel = entry.split("=");
+            if (keyLevel.length != 2 || keyLevel[0].trim().isEmpty()) {
+                continue;
+            }
+            try {
+                levels.put(keyLevel[0].trim(), Level.valueOf(keyLevel[1].trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                LOGGER.error("invalid history level {} for process {}", keyLevel[1], keyLevel[0]);
+            }
+        }
+        return levels;
+    }
+
+    @Override
+    public void handleEvent(HistoryEvent historyEvent) {
+        if (isRetained(historyEvent)) {
+            delegate.handleEvent(historyEvent);
+        } else {
+            droppedEventListener.run();
+        }
+    }
+
+    @Override
+    public void handleEvents(List<HistoryEvent> historyEvents) {
+        for (HistoryEvent historyEvent : historyEvents) {
+            handleEvent(historyEvent);
+        }
+    }
+
+    boolean isRetained(HistoryEvent historyEvent) {
+        String processKey = historyEvent.getProcessDefinitionKey();
+        Level level = processKey == null ? Level.FULL : processLevels.getOrDefault(processKey, Level.FULL);
+        switch (level) {
+            case NONE:
+                return false;
+            case ACTIVITY:
+                return historyEvent instanceof HistoricScopeInstanceEvent
+                        || historyEvent instanceof HistoricIncidentEventEntity;
+            case AUDIT:
+                return historyEvent instanceof HistoricScopeInstanceEvent
+                        || historyEvent instanceof HistoricIncidentEventEntity
+                        || historyEvent instanceof HistoricVariableUpdateEventEntity;
+            default:
+                return true;
+        }
+    }
+}
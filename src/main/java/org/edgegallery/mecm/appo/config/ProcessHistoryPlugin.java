@@ -0,0 +1,88 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.history.handler.DbHistoryEventHandler;
+import org.camunda.bpm.engine.management.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Process engine plugin for per process history level and batch window history cleanup.
+ */
+@Component
+public class ProcessHistoryPlugin extends AbstractProcessEnginePlugin {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProcessHistoryPlugin.class);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${appo.history.process-levels:}")
+    private String processLevels;
+
+    @Value("${appo.history.cleanup.batch-window-start-time:}")
+    private String cleanupStartTime;
+
+    @Value("${appo.history.cleanup.batch-window-end-time:}")
+    private String cleanupEndTime;
+
+    @Value("${appo.history.cleanup.batch-size:500}")
+    private int cleanupBatchSize;
+
+    /**
+     * Creates process history plugin.
+     *
+     * @param meterRegistry meter registry
+     */
+    public ProcessHistoryPlugin(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl configuration) {
+        Counter dropped = Counter.builder("appo.history.events.dropped")
+                .description("History events not written due to process history level")
+                .register(meterRegistry);
+        configuration.setHistoryEventHandler(new ProcessHistoryEventFilter(new DbHistoryEventHandler(),
+                ProcessHistoryEventFilter.parseProcessLevels(processLevels), dropped::increment));
+
+        if (!cleanupStartTime.isEmpty()) {
+            configuration.setHistoryCleanupBatchWindowStartTime(cleanupStartTime);
+            configuration.setHistoryCleanupBatchWindowEndTime(cleanupEndTime);
+            configuration.setHistoryCleanupBatchSize(cleanupBatchSize);
+            LOGGER.info("history cleanup batch window: {} - {}", cleanupStartTime, cleanupEndTime);
+        }
+    }
+
+    @Override
+    public void postProcessEngineBuild(ProcessEngine processEngine) {
+        ManagementService managementService = processEngine.getManagementService();
+        FunctionCounter.builder("appo.history.cleanup.removed", managementService, service -> service
+                .createMetricsQuery().name(Metrics.HISTORY_CLEANUP_REMOVED_PROCESS_INSTANCES).sum())
+                .description("Process instances removed by history cleanup")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.edgegallery.mecm.appo.service.OutboundRetryPolicy;
+import org.edgegallery.mecm.appo.service.RestClientHelper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Shared rest template for inventory, APM and MEPM calls on a pooled keep-alive http client, so connections
+ * and TLS sessions are reused across requests to the same endpoint. Calls are recorded per downstream.
+ */
+@Configuration
+public class RestTemplateConfig {
+
+    @Value("${server.ssl.enabled:false}")
+    private boolean isSslEnabled;
+
+    @Value("${server.ssl.trust-store:}")
+    private String trustStorePath;
+
+    @Value("${server.ssl.trust-store-password:}")
+    private String trustStorePasswd;
+
+    @Value("${appo.http-client.max-total:200}")
+    private int maxTotal;
+
+    @Value("${appo.http-client.max-per-route:20}")
+    private int maxPerRoute;
+
+    @Value("${appo.http-client.connect-timeout-ms:5000}")
+    private int connectTimeout;
+
+    @Value("${appo.http-client.read-timeout-ms:60000}")
+    private int readTimeout;
+
+    @Value("${appo.http-client.pool-acquire-timeout-ms:5000}")
+    private int poolAcquireTimeout;
+
+    @Value("${appo.http-client.keep-alive-ms:30000}")
+    private long keepAlive;
+
+    @Value("${appo.http-client.idle-evict-ms:30000}")
+    private long idleEvict;
+
+    @Value("${appo.retry.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${appo.retry.base-delay-ms:50}")
+    private long retryBaseDelay;
+
+    @Value("${appo.retry.max-delay-ms:2000}")
+    private long retryMaxDelay;
+
+    @Value("${appo.retry.budget-ratio:0.1}")
+    private double retryBudgetRatio;
+
+    @Value("${appo.retry.budget-max-tokens:10}")
+    private double retryBudgetMaxTokens;
+
+    /**
+     * Pooled connection manager with pool statistics exposed as metrics.
+     *
+     * @param meterRegistry meter registry
+     * @return connection manager
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager outboundConnectionManager(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = restClientHelper()
+                .buildConnectionManager(maxTotal, maxPerRoute);
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "outbound").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    /**
+     * Retry policy shared by all outbound calls.
+     *
+     * @param meterRegistry meter registry
+     * @return retry policy
+     */
+    @Bean
+    public OutboundRetryPolicy outboundRetryPolicy(MeterRegistry meterRegistry) {
+        return new OutboundRetryPolicy(maxRetries, retryBaseDelay, retryMaxDelay, retryBudgetRatio,
+                retryBudgetMaxTokens, meterRegistry);
+    }
+
+    /**
+     * Pooled keep-alive http client.
+     *
+     * @param outboundConnectionManager connection manager
+     * @param outboundRetryPolicy       retry policy
+     * @param meterRegistry             meter registry
+     * @return http client
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient outboundHttpClient(PoolingHttpClientConnectionManager outboundConnectionManager,
+                                                  OutboundRetryPolicy outboundRetryPolicy,
+                                                  MeterRegistry meterRegistry) {
+        RequestConfig requestConfig = RequestConfig.custom().setConnectTimeout(connectTimeout)
+                .setSocketTimeout(readTimeout).setConnectionRequestTimeout(poolAcquireTimeout).build();
+        return restClientHelper()
+                .buildHttpClient(new PoolWaitTimingConnectionManager(outboundConnectionManager, meterRegistry),
+                        requestConfig, keepAlive, idleEvict, outboundRetryPolicy);
+    }
+
+    /**
+     * Rest template shared by process flow tasks and services.
+     *
+     * @param outboundHttpClient http client
+     * @param meterRegistry      meter registry
+     * @return rest template
+     */
+    @Bean
+    @Primary
+    public RestTemplate pooledRestTemplate(CloseableHttpClient outboundHttpClient, MeterRegistry meterRegistry) {
+        RestTemplate restTemplate = new RestTemplate(new ScopedRequestFactory(outboundHttpClient));
+        restTemplate.getInterceptors().add(new OutboundMetricsInterceptor(meterRegistry));
+        return restTemplate;
+    }
+
+    private RestClientHelper restClientHelper() {
+        return new RestClientHelper(isSslEnabled, trustStorePath, trustStorePasswd);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.config;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.Configurable;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+/**
+ * Request factory bounding the timeouts of requests sent within an {@link OutboundRequestScope} by the scope's
+ * remaining time, and registering them with the scope so they can be aborted.
+ */
+public class ScopedRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+    /**
+     * Creates scoped request factory.
+     *
+     * @param httpClient http client
+     */
+    public ScopedRequestFactory(HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    @Override
+    protected void postProcessHttpRequest(HttpUriRequest request) {
+        OutboundRequestScope scope = OutboundRequestScope.current();
+        if (scope == null) {
+            return;
+        }
+        if (request instanceof HttpRequestBase) {
+            int remaining = scope.remainingMillis();
+            RequestConfig config = defaultConfig();
+            ((HttpRequestBase) request).setConfig(RequestConfig.copy(config)
+                    .setConnectTimeout(bound(config.getConnectTimeout(), remaining))
+                    .setSocketTimeout(bound(config.getSocketTimeout(), remaining))
+                    .setConnectionRequestTimeout(bound(config.getConnectionRequestTimeout(), remaining))
+                    .build());
+        }
+        scope.register(request);
+    }
+
+    private RequestConfig defaultConfig() {
+        HttpClient client = getHttpClient();
+        if (client instanceof Configurable && ((Configurable) client).getConfig() != null) {
+            return ((Configurable) client).getConfig();
+        }
+        return RequestConfig.DEFAULT;
+    }
+
+    private static int bound(int timeout, int remaining) {
+        return timeout > 0 ? Math.min(timeout, remaining) : remaining;
+    }
+}
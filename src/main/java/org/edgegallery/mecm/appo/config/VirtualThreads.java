@@ -0,0 +1,90 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Virtual thread support, resolved at runtime so the application still builds and runs on JDKs without
+ * virtual threads.
+ */
+public final class VirtualThreads {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreads.class);
+
+    /**
+     * Async process flows in flight, appo.virtual-threads.max-concurrency when flows run on virtual threads since
+     * they are no longer bound by the async thread pool, appo.async.maxpool-size otherwise. On virtual threads it
+     * defaults to the database pool size, each flow holds a connection while it runs.
+     */
+    public static final String ASYNC_MAX_CONCURRENCY = "#{${appo.virtual-threads.enabled:false}"
+            + " && T(org.edgegallery.mecm.appo.config.VirtualThreads).isSupported()"
+            + " ? ${appo.virtual-threads.max-concurrency:${spring.datasource.hikari.maximum-pool-size:10}}"
+            + " : ${appo.async.maxpool-size}}";
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Returns whether the running JDK supports virtual threads.
+     *
+     * @return true if virtual threads are supported
+     */
+    public static boolean isSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates virtual thread factory, falls back to platform threads when virtual threads are not supported.
+     *
+     * @param prefix thread name prefix
+     * @return thread factory
+     */
+    public static ThreadFactory threadFactory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+            Method factory = builderType.getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.warn("virtual threads not supported, using platform threads for {}", prefix);
+            return new CustomizableThreadFactory(prefix);
+        }
+    }
+
+    /**
+     * Creates executor starting a new virtual thread per task.
+     *
+     * @param prefix thread name prefix
+     * @return executor
+     */
+    public static Executor newThreadPerTaskExecutor(String prefix) {
+        ThreadFactory factory = threadFactory(prefix);
+        return command -> factory.newThread(command).start();
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.exception;
+
+/**
+ * Application orchestrator exception when request is not admitted due to saturation.
+ */
+public class AppoAdmissionException extends AppoException {
+
+    private static final long serialVersionUID = -3390542722615372842L;
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructor to create AppoAdmissionException with message.
+     *
+     * @param msg               exception message
+     * @param retryAfterSeconds seconds after which request can be retried
+     */
+    public AppoAdmissionException(String msg, long retryAfterSeconds) {
+        super(msg);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.edgegallery.mecm.appo.exception;
+
+/**
+ * Application orchestrator exception when request conflicts with a request already received.
+ */
+public class AppoConflictException extends AppoException {
+
+    private static final long serialVersionUID = 5730254468023861297L;
+
+    /**
+     * Constructor to create AppoConflictException with message.
+     *
+     * @param msg exception message
+     */
+    public AppoConflictException(String msg) {
+        super(msg);
+    }
+}
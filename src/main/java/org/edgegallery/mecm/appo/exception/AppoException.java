@@ -31,4 +31,14 @@ public class AppoException extends RuntimeException {
     public AppoException(String msg) {
         super(msg);
     }
+
+    /**
+     * Constructor to create AppoException with message and cause.
+     *
+     * @param msg   exception message
+     * @param cause exception cause
+     */
+    public AppoException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
 }
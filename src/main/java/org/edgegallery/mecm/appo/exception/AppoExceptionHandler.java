@@ -26,6 +26,7 @@ import java.util.NoSuchElementException;
 import javax.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -43,6 +44,30 @@ public class AppoExceptionHandler {
         return new ResponseEntity<>(exception.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    /**
+     * Returns too many requests with retry after when request is not admitted.
+     *
+     * @param exception exception
+     * @return return response
+     */
+    @ExceptionHandler(value = AppoAdmissionException.class)
+    public ResponseEntity<String> exception(AppoAdmissionException exception) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(exception.getMessage());
+    }
+
+    /**
+     * Returns conflict when request conflicts with a request already received.
+     *
+     * @param exception exception
+     * @return return response
+     */
+    @ExceptionHandler(value = AppoConflictException.class)
+    public ResponseEntity<String> exception(AppoConflictException exception) {
+        return new ResponseEntity<>(exception.getMessage(), HttpStatus.CONFLICT);
+    }
+
     /**
      * Exception handler for DB operations.
      *
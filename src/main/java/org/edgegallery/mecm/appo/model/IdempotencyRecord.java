@@ -0,0 +1,102 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.edgegallery.mecm.appo.model;
+
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "idempotencykey")
+public final class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(name = "id")
+    private String id;
+
+    @Column(name = "tenant")
+    private String tenant;
+
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+
+    @Column(name = "operation")
+    private String operation;
+
+    @Column(name = "request_hash")
+    private String requestHash;
+
+    @Column(name = "status_code")
+    private Integer statusCode;
+
+    @Column(name = "response_body")
+    private String responseBody;
+
+    @Column(name = "create_time")
+    private LocalDateTime createTime;
+
+    // inserted rather than merged on first save, so a concurrent insert of the same key fails
+    @Transient
+    private boolean newRecord;
+
+    /**
+     * Creates idempotency record not yet stored.
+     *
+     * @param id             tenant scoped key
+     * @param tenant         tenant ID
+     * @param idempotencyKey idempotency key
+     * @param operation      operation and resource the key is bound to
+     * @param requestHash    hash of request body the key is bound to
+     * @param statusCode     response status code, null while in progress
+     * @param responseBody   response body
+     * @param createTime     create time
+     */
+    public IdempotencyRecord(String id, String tenant, String idempotencyKey, String operation, String requestHash,
+                             Integer statusCode, String responseBody, LocalDateTime createTime) {
+        this.id = id;
+        this.tenant = tenant;
+        this.idempotencyKey = idempotencyKey;
+        this.operation = operation;
+        this.requestHash = requestHash;
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+        this.createTime = createTime;
+        this.newRecord = true;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRecord;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        newRecord = false;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.model;
+
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "inventoryoutbox")
+public final class InventoryOutboxRecord {
+
+    @Id
+    @Column(name = "id")
+    private String id;
+
+    @Column(name = "tenant")
+    private String tenant;
+
+    @Column(name = "app_instance_id")
+    private String appInstanceId;
+
+    @Column(name = "mec_host")
+    private String mecHost;
+
+    @Column(name = "operation")
+    private String operation;
+
+    @Column(name = "app_data")
+    private String appData;
+
+    @Column(name = "status")
+    private String status;
+
+    @Column(name = "attempts")
+    private int attempts;
+
+    @Column(name = "claim")
+    private String claim;
+
+    @Column(name = "parked")
+    private boolean parked;
+
+    @Column(name = "next_attempt_time")
+    private LocalDateTime nextAttemptTime;
+
+    @Column(name = "create_time")
+    private LocalDateTime createTime;
+}
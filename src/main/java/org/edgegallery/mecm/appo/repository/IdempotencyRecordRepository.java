@@ -0,0 +1,41 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.edgegallery.mecm.appo.repository;
+
+import java.time.LocalDateTime;
+import org.edgegallery.mecm.appo.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface IdempotencyRecordRepository extends CrudRepository<IdempotencyRecord, String> {
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM idempotencykey m WHERE m.create_time < :create_time", nativeQuery = true)
+    int deleteCreatedBefore(@Param("create_time") LocalDateTime createTime);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE idempotencykey SET operation = :operation, request_hash = :request_hash, "
+            + "status_code = NULL, response_body = NULL, create_time = :create_time "
+            + "WHERE id = :id AND create_time = :expired_time", nativeQuery = true)
+    int takeOver(@Param("id") String id, @Param("expired_time") LocalDateTime expiredTime,
+                 @Param("operation") String operation, @Param("request_hash") String requestHash,
+                 @Param("create_time") LocalDateTime createTime);
+}
@@ -0,0 +1,88 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.edgegallery.mecm.appo.model.InventoryOutboxRecord;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface InventoryOutboxRepository extends CrudRepository<InventoryOutboxRecord, String> {
+
+    @Query(value = "SELECT * FROM inventoryoutbox m WHERE m.next_attempt_time <= :next_attempt_time "
+            + "AND m.parked = false ORDER BY m.create_time LIMIT :limit", nativeQuery = true)
+    List<InventoryOutboxRecord> findDue(@Param("next_attempt_time") LocalDateTime nextAttemptTime,
+                                        @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM inventoryoutbox m WHERE m.tenant = :tenant "
+            + "AND m.app_instance_id = :app_instance_id ORDER BY m.create_time", nativeQuery = true)
+    List<InventoryOutboxRecord> findByAppInstanceId(@Param("tenant") String tenantId,
+                                                    @Param("app_instance_id") String appInstanceId);
+
+    @Query(value = "SELECT * FROM inventoryoutbox m WHERE m.tenant = :tenant AND m.parked = true "
+            + "ORDER BY m.create_time", nativeQuery = true)
+    List<InventoryOutboxRecord> findParked(@Param("tenant") String tenantId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE inventoryoutbox m SET claim = :claim, next_attempt_time = :lease_time "
+            + "WHERE m.tenant = :tenant AND m.app_instance_id = :app_instance_id "
+            + "AND m.next_attempt_time <= :next_attempt_time AND m.parked = false", nativeQuery = true)
+    int claim(@Param("tenant") String tenantId, @Param("app_instance_id") String appInstanceId,
+              @Param("claim") String claim, @Param("next_attempt_time") LocalDateTime nextAttemptTime,
+              @Param("lease_time") LocalDateTime leaseTime);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE inventoryoutbox m SET claim = NULL, next_attempt_time = :next_attempt_time "
+            + "WHERE m.claim = :claim", nativeQuery = true)
+    int release(@Param("claim") String claim, @Param("next_attempt_time") LocalDateTime nextAttemptTime);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE inventoryoutbox m SET attempts = :attempts, next_attempt_time = :next_attempt_time, "
+            + "claim = NULL WHERE m.id IN (:ids)", nativeQuery = true)
+    int updateAttempts(@Param("ids") List<String> ids, @Param("attempts") int attempts,
+                       @Param("next_attempt_time") LocalDateTime nextAttemptTime);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE inventoryoutbox m SET attempts = :attempts, parked = true, claim = NULL "
+            + "WHERE m.id IN (:ids)", nativeQuery = true)
+    int park(@Param("ids") List<String> ids, @Param("attempts") int attempts);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE inventoryoutbox m SET attempts = 0, parked = false, next_attempt_time = :next_attempt_time "
+            + "WHERE m.tenant = :tenant AND m.parked = true", nativeQuery = true)
+    int unpark(@Param("tenant") String tenantId, @Param("next_attempt_time") LocalDateTime nextAttemptTime);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM inventoryoutbox m WHERE m.id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") List<String> ids);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM inventoryoutbox m WHERE m.tenant = :tenant "
+            + "AND m.app_instance_id = :app_instance_id", nativeQuery = true)
+    int deleteByAppInstanceId(@Param("tenant") String tenantId, @Param("app_instance_id") String appInstanceId);
+}
@@ -0,0 +1,203 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Write-through cache of app rules per application instance, as last read from or written to inventory.
+ * Each entry has a version; a write is cached only when it was merged from the version it replaces, otherwise
+ * the entry is dropped and next read goes to inventory. Entries expire after a TTL so rules changed in
+ * inventory by others are read again.
+ *
+ * <p>Versions are known to this process only, rules another replica writes meanwhile are merged against the
+ * cached rules and overwritten, so the cache is for single replica deployments only and disabled by default.
+ */
+@Component
+public class AppRulesCache {
+
+    private static final String METRIC_NAME = "appo.apprules.cache.requests";
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+    private final MeterRegistry meterRegistry;
+    private long lastVersion;
+
+    /**
+     * Creates app rules cache.
+     *
+     * @param enabled       whether app rules are cached
+     * @param ttlSeconds    seconds an entry is used before it is read again
+     * @param maxSize       max application instances cached
+     * @param meterRegistry meter registry
+     */
+    public AppRulesCache(@Value("${appo.app-rules-cache.enabled:false}") boolean enabled,
+                         @Value("${appo.app-rules-cache.ttl-seconds:600}") long ttlSeconds,
+                         @Value("${appo.app-rules-cache.max-size:10000}") int maxSize,
+                         MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.meterRegistry = meterRegistry;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = -3817645206349265519L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+        Gauge.builder("appo.apprules.cache.size", this, AppRulesCache::size)
+                .description("Application instances with cached app rules")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns cached app rules of application instance.
+     *
+     * @param tenantId      tenant ID
+     * @param appInstanceId application instance ID
+     * @return cached app rules, null when not cached
+     */
+    public synchronized Snapshot get(String tenantId, String appInstanceId) {
+        if (!enabled) {
+            return null;
+        }
+        String key = key(tenantId, appInstanceId);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+            count("hit");
+            return entry.snapshot;
+        }
+        if (entry != null) {
+            entries.remove(key);
+        }
+        count("miss");
+        return null;
+    }
+
+    /**
+     * Caches app rules read from inventory.
+     *
+     * @param tenantId      tenant ID
+     * @param appInstanceId application instance ID
+     * @param appRules      app rules, null when inventory has none
+     * @return cached app rules
+     */
+    public synchronized Snapshot load(String tenantId, String appInstanceId, String appRules) {
+        Snapshot snapshot = new Snapshot(++lastVersion, appRules);
+        if (enabled) {
+            entries.put(key(tenantId, appInstanceId), new Entry(snapshot, System.nanoTime() + ttlNanos));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Caches app rules written to inventory, when they were merged from cached version.
+     *
+     * @param tenantId      tenant ID
+     * @param appInstanceId application instance ID
+     * @param baseVersion   version app rules were merged from, null when unknown
+     * @param appRules      app rules written, null when deleted
+     * @return false when cached version changed meanwhile and entry was dropped
+     */
+    public synchronized boolean put(String tenantId, String appInstanceId, Long baseVersion, String appRules) {
+        if (!enabled) {
+            return true;
+        }
+        String key = key(tenantId, appInstanceId);
+        Entry entry = entries.get(key);
+        if (entry == null || baseVersion == null || entry.snapshot.version != baseVersion) {
+            entries.remove(key);
+            count("conflict");
+            return false;
+        }
+        entries.put(key, new Entry(new Snapshot(++lastVersion, appRules), System.nanoTime() + ttlNanos));
+        return true;
+    }
+
+    /**
+     * Drops cached app rules of application instance, e.g. when write to inventory failed.
+     *
+     * @param tenantId      tenant ID
+     * @param appInstanceId application instance ID
+     */
+    public synchronized void invalidate(String tenantId, String appInstanceId) {
+        entries.remove(key(tenantId, appInstanceId));
+    }
+
+    private synchronized int size() {
+        return entries.size();
+    }
+
+    private void count(String result) {
+        Counter.builder(METRIC_NAME)
+                .description("App rules cache lookups and writes")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String key(String tenantId, String appInstanceId) {
+        return tenantId + ":" + appInstanceId;
+    }
+
+    /**
+     * Versioned app rules of application instance.
+     */
+    public static final class Snapshot {
+
+        private final long version;
+        private final String appRules;
+
+        private Snapshot(long version, String appRules) {
+            this.version = version;
+            this.appRules = appRules;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Returns app rules.
+         *
+         * @return app rules, null when inventory has none
+         */
+        public String getAppRules() {
+            return appRules;
+        }
+    }
+
+    private static final class Entry {
+
+        private final Snapshot snapshot;
+        private final long expiresAt;
+
+        private Entry(Snapshot snapshot, long expiresAt) {
+            this.snapshot = snapshot;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package org.edgegallery.mecm.appo.service;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface AppoProcessflowService {
 
@@ -26,8 +27,9 @@ public interface AppoProcessflowService {
      *
      * @param processKey   process key
      * @param requestInput input parameters
+     * @return future completed when process flow ends
      */
-    void executeProcessAsync(String processKey, Map<String, String> requestInput);
+    CompletableFuture<Void> executeProcessAsync(String processKey, Map<String, String> requestInput);
 
     /**
      * Start processing process flow sychronously.
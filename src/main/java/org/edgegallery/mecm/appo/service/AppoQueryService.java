@@ -0,0 +1,54 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Executes read only query operations directly against MEPM, without starting a process flow.
+ */
+public interface AppoQueryService {
+
+    /**
+     * Checks whether query operation is configured to bypass process flow.
+     *
+     * @param processKey process key of query operation
+     * @return true if query is executed directly
+     */
+    boolean isDirect(String processKey);
+
+    /**
+     * Executes query operation on the calling thread, response matches the one of corresponding process flow.
+     *
+     * @param processKey   process key of query operation
+     * @param requestInput input parameters
+     * @return query response
+     */
+    AppoProcessFlowResponse executeQuery(String processKey, Map<String, String> requestInput);
+
+    /**
+     * Executes query operation, MEPM request is sent without blocking the calling thread when non-blocking queries
+     * are enabled, otherwise the query is executed on the calling thread.
+     *
+     * @param processKey   process key of query operation
+     * @param requestInput input parameters
+     * @return future of query response
+     */
+    CompletableFuture<AppoProcessFlowResponse> executeQueryAsync(String processKey,
+                                                                Map<String, String> requestInput);
+}
@@ -17,6 +17,7 @@
 
 package org.edgegallery.mecm.appo.service;
 
+import java.util.concurrent.CompletableFuture;
 import org.edgegallery.mecm.appo.apihandler.dto.AppInstantiateReqParam;
 import org.edgegallery.mecm.appo.apihandler.dto.BatchCreateParam;
 import org.edgegallery.mecm.appo.apihandler.dto.BatchInstancesReqParam;
@@ -120,10 +121,10 @@ public interface AppoService {
      * @param accessToken access token
      * @param tenantId    tenant ID
      * @param hostIp      edge host IP
-     * @return status code 200 on success, error code on failure
+     * @return future of response, status code 200 on success, error code on failure
      */
 
-    ResponseEntity<AppoV2Response> queryKpi(String accessToken, String tenantId, String hostIp);
+    CompletableFuture<ResponseEntity<AppoV2Response>> queryKpi(String accessToken, String tenantId, String hostIp);
 
     /**
      * Retrieves edge host platform capabilities.
@@ -132,11 +133,11 @@ public interface AppoService {
      * @param tenantId     tenant ID
      * @param hostIp       edge host IP
      * @param capabilityId capability ID
-     * @return status code 200 on success, error code on failure
+     * @return future of response, status code 200 on success, error code on failure
      */
 
-    ResponseEntity<String> queryEdgehostCapabilities(String accessToken, String tenantId,
-                                                           String hostIp, String capabilityId);
+    CompletableFuture<ResponseEntity<String>> queryEdgehostCapabilities(String accessToken, String tenantId,
+                                                                        String hostIp, String capabilityId);
 
     /**
      * Configures application rules.
@@ -0,0 +1,140 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import org.edgegallery.mecm.appo.config.VirtualThreads;
+import org.edgegallery.mecm.appo.exception.AppoAdmissionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admits asynchronous process flows only while the async executor has room for them, so requests are
+ * rejected before anything is persisted instead of failing on submission.
+ */
+@Component
+public class AsyncAdmissionController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncAdmissionController.class);
+
+    private final Semaphore permits;
+    private final int capacity;
+    private final long retryAfterSeconds;
+    private final Counter rejected;
+    private final TenantFairScheduler scheduler;
+
+    /**
+     * Creates async admission controller.
+     *
+     * @param maxPoolSize       async executor max pool size
+     * @param queueCapacity     async executor queue capacity
+     * @param retryAfterSeconds retry after seconds returned on rejection
+     * @param asyncExecutor     async executor
+     * @param scheduler         tenant fair scheduler
+     * @param meterRegistry     meter registry
+     */
+    public AsyncAdmissionController(@Value(VirtualThreads.ASYNC_MAX_CONCURRENCY) int maxPoolSize,
+                                    @Value("${appo.async.queue-capacity}") int queueCapacity,
+                                    @Value("${appo.async.retry-after-seconds:5}") long retryAfterSeconds,
+                                    @Qualifier("asyncExecutor") Executor asyncExecutor,
+                                    TenantFairScheduler scheduler, MeterRegistry meterRegistry) {
+        this.capacity = maxPoolSize + queueCapacity;
+        this.permits = new Semaphore(capacity);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.scheduler = scheduler;
+        this.rejected = Counter.builder("appo.async.rejected")
+                .description("Asynchronous requests rejected due to saturation")
+                .register(meterRegistry);
+        Gauge.builder("appo.async.admitted", permits, available -> (double) capacity - available.availablePermits())
+                .description("Asynchronous requests admitted and not yet completed")
+                .register(meterRegistry);
+        if (asyncExecutor instanceof ThreadPoolTaskExecutor) {
+            ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor) asyncExecutor;
+            Gauge.builder("appo.async.queue.depth", executor, pool -> pool.getThreadPoolExecutor().getQueue().size())
+                    .description("Asynchronous requests waiting for a thread")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Admits asynchronous tenant request, permit is held until the submitted process flow completes.
+     *
+     * @param tenantId   tenant ID
+     * @param operation  operation lane the process flow is scheduled in
+     * @param processKey process key
+     * @return admission ticket, to be closed when request processing ends
+     * @throws AppoAdmissionException when no capacity available
+     */
+    public Ticket admit(String tenantId, OperationLane operation, String processKey) {
+        if (!permits.tryAcquire()) {
+            rejected.increment();
+            LOGGER.error("{} rejected, async capacity {} exhausted", processKey, capacity);
+            throw new AppoAdmissionException("Too many requests in progress, retry later", retryAfterSeconds);
+        }
+        if (!scheduler.tryReserve(tenantId)) {
+            permits.release();
+            rejected.increment();
+            throw new AppoAdmissionException("Too many requests in progress for tenant, retry later",
+                    retryAfterSeconds);
+        }
+        return new Ticket(tenantId, operation);
+    }
+
+    /**
+     * Admission ticket, releases permit on close unless process flow was submitted.
+     */
+    public final class Ticket implements AutoCloseable {
+
+        private final String tenantId;
+        private final OperationLane operation;
+        private boolean submitted;
+
+        private Ticket(String tenantId, OperationLane operation) {
+            this.tenantId = tenantId;
+            this.operation = operation;
+        }
+
+        /**
+         * Schedules process flow submission, permit is released once process flow completes.
+         *
+         * @param submission process flow submission
+         */
+        public void submit(Supplier<CompletableFuture<Void>> submission) {
+            submitted = true;
+            scheduler.schedule(tenantId, operation, submission)
+                    .whenComplete((response, throwable) -> permits.release());
+        }
+
+        @Override
+        public void close() {
+            if (!submitted) {
+                scheduler.cancel(tenantId);
+                permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.edgegallery.mecm.appo.exception.AppoException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Groups application record writes of batch lifecycle operations per tenant and hands them to the inventory bulk
+ * client together, once a batch is full or has lingered for the flush interval. Each writer still waits for
+ * the response of its own record, at most twice the HTTP read timeout: once for a batch written ahead of it and
+ * once for its own. Batches are only written on the write executor, a batch it cannot take is held back until
+ * the next flush.
+ */
+@Component
+public class BatchingInventoryWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingInventoryWriter.class);
+
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long waitTimeout;
+    private final InventoryBulkClient bulkClient;
+    private final Executor executor;
+    private final DistributionSummary batchSizes;
+    private final Map<String, List<ApplicationWrite>> pending = new HashMap<>();
+
+    /**
+     * Creates batching inventory writer.
+     *
+     * @param enabled       whether batch child flows write application records in batches
+     * @param maxBatchSize  writes flushed together at most
+     * @param readTimeout   HTTP read timeout in milliseconds, bounds wait of a write for its response
+     * @param bulkClient    inventory bulk client
+     * @param executor      executor batches are written on
+     * @param meterRegistry meter registry
+     */
+    public BatchingInventoryWriter(@Value("${appo.inventory-batch.enabled:true}") boolean enabled,
+                                   @Value("${appo.inventory-batch.max-batch-size:50}") int maxBatchSize,
+                                   @Value("${appo.http-client.read-timeout-ms:60000}") long readTimeout,
+                                   InventoryBulkClient bulkClient,
+                                   @Qualifier("inventoryWriteExecutor") Executor executor,
+                                   MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.waitTimeout = 2 * readTimeout;
+        this.bulkClient = bulkClient;
+        this.executor = executor;
+        this.batchSizes = DistributionSummary.builder("appo.inventory.write.batch.size")
+                .description("Application records written to inventory together")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns true if batch child flows write application records in batches.
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues application record write and waits for its response, fails the write when no response arrives in
+     * time.
+     *
+     * @param tenantId tenant ID
+     * @param write    application record write
+     * @return response of write
+     */
+    public ResponseEntity<String> write(String tenantId, ApplicationWrite write) {
+        List<ApplicationWrite> full = null;
+        synchronized (pending) {
+            List<ApplicationWrite> batch = pending.computeIfAbsent(tenantId, key -> new ArrayList<>());
+            batch.add(write);
+            if (batch.size() >= maxBatchSize) {
+                full = pending.remove(tenantId);
+            }
+        }
+        if (full != null) {
+            dispatch(tenantId, full);
+        }
+        try {
+            return write.result.get(waitTimeout, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new AppoException("inventory write failed: " + e.getCause());
+        } catch (TimeoutException e) {
+            LOGGER.error("inventory write of {} not completed in {} ms", write.getUrl(), waitTimeout);
+            throw abandon(tenantId, write, new AppoException("inventory write of " + write.getUrl() + " timed out"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw abandon(tenantId, write, new AppoException("inventory write of " + write.getUrl()
+                    + " interrupted"));
+        }
+    }
+
+    // a write still held back is not sent anymore, a late response of a write already sent is ignored
+    private AppoException abandon(String tenantId, ApplicationWrite write, AppoException failure) {
+        synchronized (pending) {
+            List<ApplicationWrite> batch = pending.get(tenantId);
+            if (batch != null && batch.remove(write) && batch.isEmpty()) {
+                pending.remove(tenantId);
+            }
+        }
+        write.fail(failure);
+        return failure;
+    }
+
+    /**
+     * Flushes batches lingering since last flush.
+     */
+    @Scheduled(fixedDelayString = "${appo.inventory-batch.linger-ms:20}")
+    public void flush() {
+        Map<String, List<ApplicationWrite>> batches;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batches = new HashMap<>(pending);
+            pending.clear();
+        }
+        batches.forEach(this::dispatch);
+    }
+
+    private void dispatch(String tenantId, List<ApplicationWrite> writes) {
+        writes.sort(Comparator.comparing(ApplicationWrite::getUrl));
+        try {
+            executor.execute(() -> send(tenantId, writes));
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("inventory write executor saturated, holding back batch of tenant {}", tenantId);
+            synchronized (pending) {
+                pending.computeIfAbsent(tenantId, key -> new ArrayList<>()).addAll(0, writes);
+            }
+        }
+    }
+
+    private void send(String tenantId, List<ApplicationWrite> writes) {
+        batchSizes.record(writes.size());
+        try {
+            bulkClient.write(tenantId, writes);
+        } catch (RuntimeException e) {
+            LOGGER.error("inventory batch write of tenant {} failed: {}", tenantId, e.getMessage());
+            writes.forEach(write -> write.fail(e));
+        }
+        for (ApplicationWrite write : writes) {
+            write.fail(new AppoException("inventory write of " + write.getUrl() + " not completed"));
+        }
+    }
+
+    /**
+     * Application record write to inventory.
+     */
+    public static final class ApplicationWrite {
+
+        private final HttpMethod method;
+        private final String url;
+        private final HttpEntity<?> entity;
+        private final Supplier<ResponseEntity<String>> request;
+        private final CompletableFuture<ResponseEntity<String>> result = new CompletableFuture<>();
+
+        /**
+         * Creates application record write.
+         *
+         * @param method  request method
+         * @param url     application record url
+         * @param entity  request entity
+         * @param request sends this write on its own
+         */
+        public ApplicationWrite(HttpMethod method, String url, HttpEntity<?> entity,
+                                Supplier<ResponseEntity<String>> request) {
+            this.method = method;
+            this.url = url;
+            this.entity = entity;
+            this.request = request;
+        }
+
+        public HttpMethod getMethod() {
+            return method;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public HttpEntity<?> getEntity() {
+            return entity;
+        }
+
+        /**
+         * Sends this write to inventory on its own.
+         *
+         * @return response of write
+         */
+        public ResponseEntity<String> send() {
+            return request.get();
+        }
+
+        /**
+         * Completes write with its response.
+         *
+         * @param response response of write
+         */
+        public void complete(ResponseEntity<String> response) {
+            result.complete(response);
+        }
+
+        /**
+         * Completes write with its failure, when not completed yet.
+         *
+         * @param failure failure of write
+         */
+        public void fail(RuntimeException failure) {
+            result.completeExceptionally(failure);
+        }
+    }
+}
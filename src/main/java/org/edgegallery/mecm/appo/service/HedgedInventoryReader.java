@@ -0,0 +1,329 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.edgegallery.mecm.appo.config.OutboundRequestScope;
+import org.edgegallery.mecm.appo.exception.AppoException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Bounds idempotent inventory reads by a timeout derived from their recent p99 latency, and optionally sends a
+ * second identical read once the first is slower than recent p95, answering with whichever completes first.
+ * Reads timed out or outrun by the other read are aborted. Keyed reads are also shared among concurrent callers,
+ * and a key recently not found is not read again.
+ */
+@Component
+public class HedgedInventoryReader {
+
+    static final String METRIC_NAME = "appo.inventory.read";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HedgedInventoryReader.class);
+
+    private static final int MAX_NOT_FOUND_KEYS = 10000;
+
+    private final Executor executor;
+    private final boolean hedgeEnabled;
+    private final long minSamples;
+    private final double timeoutMultiplier;
+    private final long minTimeoutNanos;
+    private final long maxTimeoutNanos;
+    private final long minHedgeDelayNanos;
+    private final boolean coalesceEnabled;
+    private final long notFoundTtlNanos;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, NotFound> notFound = new ConcurrentHashMap<>();
+
+    /**
+     * Creates hedged inventory reader.
+     *
+     * @param executor            executor reads are run on
+     * @param hedgeEnabled        whether slow reads are hedged
+     * @param minSamples          reads recorded before latency percentiles are trusted
+     * @param timeoutMultiplier   multiple of p99 latency a read may take
+     * @param minTimeoutMillis    lower bound of adaptive timeout
+     * @param maxTimeoutMillis    upper bound of adaptive timeout, used until enough reads are recorded
+     * @param minHedgeDelayMillis lower bound of delay before hedged read is sent
+     * @param coalesceEnabled     whether concurrent keyed reads share one read
+     * @param notFoundTtlMillis   milliseconds a keyed read answered not found is not read again, 0 to disable
+     * @param meterRegistry       meter registry
+     */
+    public HedgedInventoryReader(@Qualifier("inventoryReadExecutor") Executor executor,
+                                 @Value("${appo.inventory-read.hedge-enabled:false}") boolean hedgeEnabled,
+                                 @Value("${appo.inventory-read.min-samples:50}") long minSamples,
+                                 @Value("${appo.inventory-read.timeout-multiplier:3}") double timeoutMultiplier,
+                                 @Value("${appo.inventory-read.min-timeout-ms:1000}") long minTimeoutMillis,
+                                 @Value("${appo.inventory-read.max-timeout-ms:30000}") long maxTimeoutMillis,
+                                 @Value("${appo.inventory-read.min-hedge-delay-ms:20}") long minHedgeDelayMillis,
+                                 @Value("${appo.inventory-read.coalesce-enabled:true}") boolean coalesceEnabled,
+                                 @Value("${appo.inventory-read.not-found-ttl-ms:5000}") long notFoundTtlMillis,
+                                 MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.hedgeEnabled = hedgeEnabled;
+        this.minSamples = minSamples;
+        this.timeoutMultiplier = timeoutMultiplier;
+        this.minTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(minTimeoutMillis);
+        this.maxTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(maxTimeoutMillis);
+        this.minHedgeDelayNanos = TimeUnit.MILLISECONDS.toNanos(minHedgeDelayMillis);
+        this.coalesceEnabled = coalesceEnabled;
+        this.notFoundTtlNanos = TimeUnit.MILLISECONDS.toNanos(notFoundTtlMillis);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Reads from inventory as {@link #read(String, Supplier)} does, sharing one read among concurrent callers
+     * of the same key and failing fast for a key inventory answered not found within not found TTL.
+     *
+     * @param resource inventory resource read, latency is tracked per resource
+     * @param key      read key, reads of equal keys must be interchangeable between their callers
+     * @param read     inventory read
+     * @param <T>      read result type
+     * @return result of shared read
+     * @throws ResourceAccessException when no read completes within timeout
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T read(String resource, String key, Supplier<T> read) {
+        NotFound cached = notFound.get(key);
+        if (cached != null) {
+            if (cached.expiresAt - System.nanoTime() > 0) {
+                count("appo.inventory.read.not-found-cached", "Inventory reads answered by cached not found",
+                        resource);
+                throw cached.exception;
+            }
+            notFound.remove(key, cached);
+        }
+        if (!coalesceEnabled) {
+            return readKey(resource, key, read);
+        }
+
+        CompletableFuture<Object> shared = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, shared);
+        if (leader != null) {
+            count("appo.inventory.read.coalesced", "Inventory reads sharing a concurrent read of same key",
+                    resource);
+            try {
+                return (T) leader.get();
+            } catch (ExecutionException e) {
+                throw failure(resource, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AppoException("inventory " + resource + " read interrupted");
+            }
+        }
+        try {
+            T result = readKey(resource, key, read);
+            shared.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            shared.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, shared);
+        }
+    }
+
+    private <T> T readKey(String resource, String key, Supplier<T> read) {
+        try {
+            return read(resource, read);
+        } catch (RuntimeException e) {
+            if (notFoundTtlNanos > 0 && isNotFound(e) && hasNotFoundCapacity()) {
+                notFound.put(key, new NotFound(e, System.nanoTime() + notFoundTtlNanos));
+            }
+            throw e;
+        }
+    }
+
+    private boolean hasNotFoundCapacity() {
+        if (notFound.size() < MAX_NOT_FOUND_KEYS) {
+            return true;
+        }
+        long now = System.nanoTime();
+        notFound.values().removeIf(entry -> entry.expiresAt - now <= 0);
+        return notFound.size() < MAX_NOT_FOUND_KEYS;
+    }
+
+    private static boolean isNotFound(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpStatusCodeException
+                    && ((HttpStatusCodeException) cause).getRawStatusCode() == 404) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void count(String name, String description, String resource) {
+        Counter.builder(name)
+                .description(description)
+                .tag("resource", resource)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Reads from inventory within adaptive timeout, hedging the read when it is slow. Read must be idempotent.
+     *
+     * @param resource inventory resource read, latency is tracked per resource
+     * @param read     inventory read
+     * @param <T>      read result type
+     * @return result of first read to complete successfully
+     * @throws ResourceAccessException when no read completes within timeout
+     */
+    public <T> T read(String resource, Supplier<T> read) {
+        Timer timer = Timer.builder(METRIC_NAME)
+                .description("Inventory read latency")
+                .tag("resource", resource)
+                .publishPercentiles(0.95, 0.99)
+                .register(meterRegistry);
+        boolean trusted = timer.count() >= minSamples;
+        long timeoutNanos = trusted ? clamp((long) (percentile(timer, 0.99) * timeoutMultiplier),
+                minTimeoutNanos, maxTimeoutNanos) : maxTimeoutNanos;
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        long start = System.nanoTime();
+        long deadline = start + timeoutNanos;
+        try {
+            executor.execute(attempt(timer, read, scope(result, deadline), result, pending));
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("inventory read executor saturated, reading {} on caller thread", resource);
+            return timer.record(() -> new OutboundRequestScope(deadline).call(read));
+        }
+        try {
+            if (hedgeEnabled && trusted) {
+                long hedgeDelayNanos = clamp((long) percentile(timer, 0.95), minHedgeDelayNanos, timeoutNanos);
+                try {
+                    return result.get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    hedge(resource, timer, read, scope(result, deadline), result, pending);
+                }
+            }
+            return result.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(false);
+            Counter.builder("appo.inventory.read.timeouts")
+                    .description("Inventory reads abandoned after adaptive timeout")
+                    .tag("resource", resource)
+                    .register(meterRegistry)
+                    .increment();
+            throw new ResourceAccessException("inventory " + resource + " read timed out after "
+                    + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms");
+        } catch (ExecutionException e) {
+            throw failure(resource, e);
+        } catch (InterruptedException e) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new AppoException("inventory " + resource + " read interrupted");
+        }
+    }
+
+    // requests of a read attempt are aborted once its result is no longer awaited
+    private static OutboundRequestScope scope(CompletableFuture<?> result, long deadline) {
+        OutboundRequestScope scope = new OutboundRequestScope(deadline);
+        result.whenComplete((value, e) -> scope.abort());
+        return scope;
+    }
+
+    private static RuntimeException failure(String resource, ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+            return (RuntimeException) e.getCause();
+        }
+        return new AppoException("inventory " + resource + " read failed: " + e.getCause());
+    }
+
+    private <T> void hedge(String resource, Timer timer, Supplier<T> read, OutboundRequestScope scope,
+                           CompletableFuture<T> result, AtomicInteger pending) {
+        pending.incrementAndGet();
+        try {
+            executor.execute(attempt(timer, read, scope, result, pending));
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            return;
+        }
+        Counter.builder("appo.inventory.read.hedged")
+                .description("Inventory reads sent again as first read was slower than p95")
+                .tag("resource", resource)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static <T> Runnable attempt(Timer timer, Supplier<T> read, OutboundRequestScope scope,
+                                        CompletableFuture<T> result, AtomicInteger pending) {
+        return () -> {
+            long start = System.nanoTime();
+            T value;
+            try {
+                value = scope.call(read);
+            } catch (RuntimeException e) {
+                // latency of aborted reads is cut short, it is not recorded
+                if (!scope.isAborted()) {
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+                if (pending.decrementAndGet() == 0) {
+                    result.completeExceptionally(e);
+                }
+                return;
+            }
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            result.complete(value);
+        };
+    }
+
+    private static double percentile(Timer timer, double percentile) {
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.NANOSECONDS);
+            }
+        }
+        return 0;
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(value, max));
+    }
+
+    private static final class NotFound {
+
+        private final RuntimeException exception;
+        private final long expiresAt;
+
+        private NotFound(RuntimeException exception, long expiresAt) {
+            this.exception = exception;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
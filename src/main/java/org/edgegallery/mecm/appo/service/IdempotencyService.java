@@ -0,0 +1,208 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import com.google.gson.Gson;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.edgegallery.mecm.appo.exception.AppoConflictException;
+import org.edgegallery.mecm.appo.model.IdempotencyRecord;
+import org.edgegallery.mecm.appo.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Suppresses duplicate lifecycle requests carrying the same idempotency key, the response of the first
+ * successful request is persisted and returned for repeats until the key expires. A key is bound to the operation
+ * and the request body of its first request, repeats with another body are rejected.
+ */
+@Component
+public class IdempotencyService {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyRecordRepository repository;
+    private final long ttlHours;
+    private final long inProgressTimeoutSeconds;
+    private final Counter replayed;
+    private final Counter conflicts;
+
+    /**
+     * Creates idempotency service.
+     *
+     * @param repository               idempotency record repository
+     * @param ttlHours                 hours a key is remembered
+     * @param inProgressTimeoutSeconds seconds after which an unfinished request is treated as abandoned
+     * @param meterRegistry            meter registry
+     */
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              @Value("${appo.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${appo.idempotency.in-progress-timeout-seconds:300}")
+                                      long inProgressTimeoutSeconds,
+                              MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.ttlHours = ttlHours;
+        this.inProgressTimeoutSeconds = inProgressTimeoutSeconds;
+        this.replayed = Counter.builder("appo.idempotency.replayed")
+                .description("Requests answered with the response of an earlier request with same key")
+                .register(meterRegistry);
+        this.conflicts = Counter.builder("appo.idempotency.conflicts")
+                .description("Requests rejected as key is in use by another request")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executes request once per idempotency key, repeats get the response of the first successful request.
+     *
+     * @param tenantId       tenant ID
+     * @param idempotencyKey idempotency key, request is executed unconditionally when empty
+     * @param operation      operation and resource the key is bound to
+     * @param requestBody    request body the key is bound to, null when request has none
+     * @param responseType   response body type
+     * @param request        request execution
+     * @param <T>            response body type
+     * @return response of request
+     * @throws AppoConflictException when key is in progress or was used for another operation or request body
+     */
+    public <T> ResponseEntity<T> execute(String tenantId, String idempotencyKey, String operation, Object requestBody,
+                                         Class<T> responseType, Supplier<ResponseEntity<T>> request) {
+        if (idempotencyKey == null || idempotencyKey.isEmpty()) {
+            return request.get();
+        }
+        String id = tenantId + ":" + idempotencyKey;
+        String requestHash = hash(requestBody);
+        Optional<IdempotencyRecord> existing = repository.findById(id);
+        if (existing.filter(this::isActive).isPresent()) {
+            return replay(existing.get(), operation, requestHash, responseType);
+        }
+
+        IdempotencyRecord record = existing.isPresent()
+                ? takeOver(existing.get(), operation, requestHash)
+                : insert(id, tenantId, idempotencyKey, operation, requestHash);
+
+        ResponseEntity<T> response;
+        try {
+            response = request.get();
+        } catch (RuntimeException e) {
+            repository.deleteById(id);
+            throw e;
+        }
+        if (response.getStatusCode().is2xxSuccessful()) {
+            record.setStatusCode(response.getStatusCodeValue());
+            record.setResponseBody(new Gson().toJson(response.getBody()));
+            repository.save(record);
+        } else {
+            repository.deleteById(id);
+        }
+        return response;
+    }
+
+    private IdempotencyRecord insert(String id, String tenantId, String idempotencyKey, String operation,
+                                     String requestHash) {
+        IdempotencyRecord record = new IdempotencyRecord(id, tenantId, idempotencyKey, operation, requestHash, null,
+                null, LocalDateTime.now());
+        try {
+            repository.save(record);
+        } catch (DataIntegrityViolationException e) {
+            conflicts.increment();
+            throw new AppoConflictException("Request with same idempotency key is in progress");
+        }
+        return record;
+    }
+
+    private IdempotencyRecord takeOver(IdempotencyRecord expired, String operation, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        if (repository.takeOver(expired.getId(), expired.getCreateTime(), operation, requestHash, now) == 0) {
+            conflicts.increment();
+            throw new AppoConflictException("Request with same idempotency key is in progress");
+        }
+        expired.setOperation(operation);
+        expired.setRequestHash(requestHash);
+        expired.setStatusCode(null);
+        expired.setResponseBody(null);
+        expired.setCreateTime(now);
+        return expired;
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotencyRecord record, String operation, String requestHash,
+                                         Class<T> responseType) {
+        if (!record.getOperation().equals(operation)) {
+            conflicts.increment();
+            throw new AppoConflictException("Idempotency key already used for another request");
+        }
+        if (!requestHash.equals(record.getRequestHash())) {
+            conflicts.increment();
+            throw new AppoConflictException("Idempotency key already used with another request body");
+        }
+        if (record.getStatusCode() == null) {
+            conflicts.increment();
+            throw new AppoConflictException("Request with same idempotency key is in progress");
+        }
+        replayed.increment();
+        LOGGER.info("replaying response of {} for idempotency key {}", operation, record.getIdempotencyKey());
+        return ResponseEntity.status(HttpStatus.valueOf(record.getStatusCode()))
+                .header(REPLAYED_HEADER, "true")
+                .body(new Gson().fromJson(record.getResponseBody(), responseType));
+    }
+
+    private static String hash(Object requestBody) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(new Gson().toJson(requestBody).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hash = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not supported", e);
+        }
+    }
+
+    private boolean isActive(IdempotencyRecord record) {
+        LocalDateTime now = LocalDateTime.now();
+        if (record.getStatusCode() == null) {
+            return record.getCreateTime().isAfter(now.minusSeconds(inProgressTimeoutSeconds));
+        }
+        return record.getCreateTime().isAfter(now.minusHours(ttlHours));
+    }
+
+    /**
+     * Removes expired idempotency keys.
+     */
+    @Scheduled(fixedDelayString = "${appo.idempotency.cleanup-interval-ms:600000}")
+    public void removeExpired() {
+        int removed = repository.deleteCreatedBefore(LocalDateTime.now().minusHours(ttlHours));
+        if (removed > 0) {
+            LOGGER.info("removed {} expired idempotency keys", removed);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import java.util.List;
+
+/**
+ * Inventory client writing a batch of application records of a tenant.
+ */
+public interface InventoryBulkClient {
+
+    /**
+     * Writes application records to inventory, completing each write with its own response or failure.
+     *
+     * @param tenantId tenant ID
+     * @param writes   application record writes, ordered by record URL
+     */
+    void write(String tenantId, List<BatchingInventoryWriter.ApplicationWrite> writes);
+}
@@ -0,0 +1,373 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.edgegallery.mecm.appo.exception.AppoException;
+import org.edgegallery.mecm.appo.model.InventoryOutboxRecord;
+import org.edgegallery.mecm.appo.repository.InventoryOutboxRepository;
+import org.edgegallery.mecm.appo.utils.Constants;
+import org.edgegallery.mecm.appo.utils.UrlUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+
+/**
+ * Write-behind outbox of application records, lifecycle flows append records to the outbox table and a
+ * background dispatcher writes them to inventory. Successive records of an instance are coalesced into one
+ * inventory write carrying the latest status, failed writes are retried with exponential backoff. Records of an
+ * instance are claimed for a lease before being written, so that each is written by one replica only. Records
+ * still failing after max attempts are parked, later records of the instance wait until they are retried.
+ *
+ * <p>Records are written with the access token the latest flow of their tenant supplied to this replica, the
+ * token is kept in memory only. Records of a tenant without a flow since a restart wait for its next flow.
+ */
+@Component
+public class InventoryOutbox {
+
+    public static final String ADD = "ADD";
+    public static final String UPDATE = "UPDATE";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InventoryOutbox.class);
+    private static final String STATUS = "status";
+
+    private final InventoryOutboxRepository repository;
+    private final RestService restService;
+    private final boolean enabled;
+    private final String inventoryEndpoint;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long maxBackoffMillis;
+    private final int dispatchBatchSize;
+    private final long claimLeaseMillis;
+    // access tokens are never written to the outbox table, records wait for the next flow of their tenant
+    // when the service restarted meanwhile or inventory rejected the token
+    private final Map<String, String> accessTokens = new ConcurrentHashMap<>();
+    private final Counter written;
+    private final Counter failed;
+    private final Counter parked;
+    private final Counter unauthorized;
+    private final Counter coalesced;
+
+    /**
+     * Creates inventory outbox.
+     *
+     * @param repository         inventory outbox repository
+     * @param restService        rest service inventory is written through
+     * @param enabled            whether application records are written behind
+     * @param inventoryEndpoint  inventory end point
+     * @param inventoryPort      inventory port
+     * @param maxAttempts        attempts after which records of an instance are parked
+     * @param retryBackoffMillis backoff after first failed attempt, doubled on each further attempt
+     * @param maxBackoffMillis   backoff between attempts at most
+     * @param dispatchBatchSize  records read per dispatch at most
+     * @param claimLeaseMillis   time records of an instance stay claimed by the dispatcher writing them
+     * @param meterRegistry      meter registry
+     */
+    public InventoryOutbox(InventoryOutboxRepository repository, RestService restService,
+                           @Value("${appo.inventory-outbox.enabled:false}") boolean enabled,
+                           @Value("${appo.endpoints.inventory.end-point}") String inventoryEndpoint,
+                           @Value("${appo.endpoints.inventory.port}") String inventoryPort,
+                           @Value("${appo.inventory-outbox.max-attempts:10}") int maxAttempts,
+                           @Value("${appo.inventory-outbox.retry-backoff-ms:1000}") long retryBackoffMillis,
+                           @Value("${appo.inventory-outbox.max-backoff-ms:60000}") long maxBackoffMillis,
+                           @Value("${appo.inventory-outbox.dispatch-batch-size:100}") int dispatchBatchSize,
+                           @Value("${appo.inventory-outbox.claim-lease-ms:120000}") long claimLeaseMillis,
+                           MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.restService = restService;
+        this.enabled = enabled;
+        this.inventoryEndpoint = inventoryEndpoint + ":" + inventoryPort;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.dispatchBatchSize = Math.max(1, dispatchBatchSize);
+        this.claimLeaseMillis = claimLeaseMillis;
+        this.written = dispatchCounter(meterRegistry, "written");
+        this.failed = dispatchCounter(meterRegistry, "failed");
+        this.parked = dispatchCounter(meterRegistry, "parked");
+        this.unauthorized = dispatchCounter(meterRegistry, "unauthorized");
+        this.coalesced = Counter.builder("appo.inventory.outbox.coalesced")
+                .description("Outbox records merged into an inventory write of a later record")
+                .register(meterRegistry);
+    }
+
+    private static Counter dispatchCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("appo.inventory.outbox.dispatched")
+                .description("Inventory writes of outbox records")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns true if application records are written behind.
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Appends new application record.
+     *
+     * @param tenantId      tenant ID
+     * @param accessToken   access token
+     * @param mecHost       MEC host
+     * @param appInstanceId application instance ID
+     * @param appData       application record without status
+     * @param status        application instance status
+     */
+    public void appendAdd(String tenantId, String accessToken, String mecHost, String appInstanceId,
+                          String appData, String status) {
+        append(tenantId, accessToken, mecHost, appInstanceId, ADD, appData, status);
+    }
+
+    /**
+     * Appends status update of application record.
+     *
+     * @param tenantId      tenant ID
+     * @param accessToken   access token
+     * @param mecHost       MEC host
+     * @param appInstanceId application instance ID
+     * @param status        application instance status
+     */
+    public void appendStatus(String tenantId, String accessToken, String mecHost, String appInstanceId,
+                             String status) {
+        append(tenantId, accessToken, mecHost, appInstanceId, UPDATE, null, status);
+    }
+
+    private void append(String tenantId, String accessToken, String mecHost, String appInstanceId,
+                        String operation, String appData, String status) {
+        if (accessToken != null) {
+            accessTokens.put(tenantId, accessToken);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        repository.save(new InventoryOutboxRecord(UUID.randomUUID().toString(), tenantId, appInstanceId, mecHost,
+                operation, appData, status, 0, null, false, now, now));
+    }
+
+    /**
+     * Returns parked records of tenant, records whose inventory write failed max attempts.
+     *
+     * @param tenantId tenant ID
+     * @return parked records in the order they were appended
+     */
+    public List<InventoryOutboxRecord> getParked(String tenantId) {
+        return repository.findParked(tenantId);
+    }
+
+    /**
+     * Retries parked records of tenant, they are written with the next dispatch together with records of their
+     * instance appended meanwhile.
+     *
+     * @param tenantId tenant ID
+     * @return number of records retried
+     */
+    public int retryParked(String tenantId) {
+        int retried = repository.unpark(tenantId, LocalDateTime.now());
+        LOGGER.info("retrying {} parked outbox records of tenant {}", retried, tenantId);
+        return retried;
+    }
+
+    /**
+     * Discards records of application instance not written yet, used when its record is deleted from inventory.
+     * A dispatcher writing discarded records meanwhile deletes the application record again once written.
+     *
+     * @param tenantId      tenant ID
+     * @param appInstanceId application instance ID
+     */
+    public void discard(String tenantId, String appInstanceId) {
+        int discarded = repository.deleteByAppInstanceId(tenantId, appInstanceId);
+        if (discarded > 0) {
+            LOGGER.info("discarded {} outbox records of app instance {}", discarded, appInstanceId);
+        }
+    }
+
+    /**
+     * Writes due records to inventory, one write per application instance.
+     */
+    @Scheduled(fixedDelayString = "${appo.inventory-outbox.dispatch-interval-ms:1000}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> instances = new HashSet<>();
+        for (InventoryOutboxRecord record : repository.findDue(now, dispatchBatchSize)) {
+            if (instances.add(record.getTenant() + ":" + record.getAppInstanceId())) {
+                dispatch(record.getTenant(), record.getAppInstanceId(), now);
+            }
+        }
+    }
+
+    private void dispatch(String tenantId, String appInstanceId, LocalDateTime now) {
+        String accessToken = accessTokens.get(tenantId);
+        if (accessToken == null) {
+            LOGGER.debug("no access token of tenant {}, outbox records of app instance {} wait", tenantId,
+                    appInstanceId);
+            return;
+        }
+        // due records are claimed atomically, other dispatchers skip them until written or the lease expires
+        String claim = UUID.randomUUID().toString();
+        if (repository.claim(tenantId, appInstanceId, claim, now, now.plus(claimLeaseMillis, ChronoUnit.MILLIS))
+                == 0) {
+            return;
+        }
+        List<InventoryOutboxRecord> records = repository.findByAppInstanceId(tenantId, appInstanceId);
+        // records appended while an earlier write of the instance backs off, is in flight or is parked wait for
+        // it, keeping them in order
+        if (records.isEmpty() || records.stream().anyMatch(record -> !claim.equals(record.getClaim()))) {
+            repository.release(claim, now);
+            return;
+        }
+
+        InventoryOutboxRecord latest = records.get(records.size() - 1);
+        InventoryOutboxRecord added = null;
+        String mecHost = null;
+        for (InventoryOutboxRecord record : records) {
+            if (ADD.equals(record.getOperation())) {
+                added = record;
+            }
+            if (record.getMecHost() != null) {
+                mecHost = record.getMecHost();
+            }
+        }
+
+        List<String> ids = records.stream().map(InventoryOutboxRecord::getId).collect(Collectors.toList());
+        try {
+            if (added != null) {
+                addApplication(accessToken, tenantId, mecHost, added.getAppData(), latest.getStatus());
+            } else {
+                updateApplication(accessToken, tenantId, mecHost, appInstanceId, latest.getStatus());
+            }
+        } catch (AppoException | NoSuchElementException | IllegalArgumentException | IllegalStateException
+                | JsonParseException e) {
+            if (isUnauthorized(e)) {
+                waitForToken(tenantId, accessToken, appInstanceId, claim, now);
+            } else {
+                retry(appInstanceId, ids, records, now, e.getMessage());
+            }
+            return;
+        }
+        if (repository.deleteByIds(ids) < ids.size()) {
+            // records discarded while being written, the application record may have been recreated
+            LOGGER.info("outbox records of app instance {} discarded while written, deleting it again",
+                    appInstanceId);
+            deleteApplication(accessToken, tenantId, mecHost, appInstanceId);
+        }
+        written.increment();
+        coalesced.increment(records.size() - 1.0);
+    }
+
+    private static boolean isUnauthorized(Exception e) {
+        if (!(e.getCause() instanceof HttpStatusCodeException)) {
+            return false;
+        }
+        HttpStatus status = ((HttpStatusCodeException) e.getCause()).getStatusCode();
+        return status == HttpStatus.UNAUTHORIZED || status == HttpStatus.FORBIDDEN;
+    }
+
+    // a rejected token is no attempt of the write, records of the tenant wait for the token of its next flow
+    private void waitForToken(String tenantId, String accessToken, String appInstanceId, String claim,
+                              LocalDateTime now) {
+        LOGGER.warn("inventory rejected access token of tenant {}, outbox records of app instance {} wait for "
+                + "a new token", tenantId, appInstanceId);
+        accessTokens.remove(tenantId, accessToken);
+        repository.release(claim, now);
+        unauthorized.increment();
+    }
+
+    private void retry(String appInstanceId, List<String> ids, List<InventoryOutboxRecord> records,
+                       LocalDateTime now, String error) {
+        int attempts = records.stream().mapToInt(InventoryOutboxRecord::getAttempts).max().orElse(0) + 1;
+        if (attempts >= maxAttempts) {
+            LOGGER.error("parking outbox records of app instance {} after {} attempts: {}", appInstanceId,
+                    attempts, error);
+            repository.park(ids, attempts);
+            parked.increment();
+            return;
+        }
+        long backoff = Math.min(maxBackoffMillis, retryBackoffMillis << Math.min(attempts - 1, 20));
+        LOGGER.warn("inventory write of app instance {} failed, attempt {}, retry in {} ms: {}", appInstanceId,
+                attempts, backoff, error);
+        repository.updateAttempts(ids, attempts, now.plus(backoff, ChronoUnit.MILLIS));
+        failed.increment();
+    }
+
+    private void addApplication(String accessToken, String tenantId, String mecHost, String appData,
+                                String status) {
+        UrlUtil urlUtil = new UrlUtil();
+        urlUtil.addParams(Constants.TENANT_ID, tenantId);
+        urlUtil.addParams(Constants.MEC_HOST, mecHost);
+
+        JsonObject application = new JsonParser().parse(appData).getAsJsonObject();
+        application.addProperty(STATUS, status);
+        restService.sendRequest(inventoryEndpoint + urlUtil.getUrl(Constants.INVENTORY_APPLICATIONS_URI),
+                HttpMethod.POST, accessToken, application.toString());
+    }
+
+    private void updateApplication(String accessToken, String tenantId, String mecHost, String appInstanceId,
+                                   String status) {
+        UrlUtil urlUtil = new UrlUtil();
+        urlUtil.addParams(Constants.TENANT_ID, tenantId);
+        urlUtil.addParams(Constants.MEC_HOST, mecHost);
+        urlUtil.addParams(Constants.APP_INSTANCE_ID, appInstanceId);
+        String url = inventoryEndpoint + urlUtil.getUrl(Constants.INVENTORY_APPLICATION_URI);
+
+        String body = restService.sendRequest(url, HttpMethod.GET, accessToken, null).getBody();
+        if (body == null) {
+            throw new AppoException("application record of " + appInstanceId + " is empty");
+        }
+        JsonObject application = new JsonParser().parse(body).getAsJsonObject();
+        application.addProperty(STATUS, status);
+        restService.sendRequest(url, HttpMethod.PUT, accessToken, application.toString());
+    }
+
+    private void deleteApplication(String accessToken, String tenantId, String mecHost, String appInstanceId) {
+        UrlUtil urlUtil = new UrlUtil();
+        urlUtil.addParams(Constants.TENANT_ID, tenantId);
+        urlUtil.addParams(Constants.MEC_HOST, mecHost);
+        urlUtil.addParams(Constants.APP_INSTANCE_ID, appInstanceId);
+        try {
+            restService.sendRequest(inventoryEndpoint + urlUtil.getUrl(Constants.INVENTORY_APPLICATION_URI),
+                    HttpMethod.DELETE, accessToken, null);
+        } catch (AppoException | NoSuchElementException | IllegalArgumentException e) {
+            LOGGER.warn("failed to delete application record of discarded app instance {}: {}", appInstanceId,
+                    e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches MEC host to MEPM resolution read from inventory, MEC host to MEPM IP and hardware capabilities per
+ * tenant, and MEPM IP to port. Entries expire after a TTL and least recently used entries are evicted beyond
+ * max size; failed lookups are not cached.
+ */
+@Component
+public class MepmEndpointCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MepmEndpointCache.class);
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Cache<HostRecord> hosts;
+    private final Cache<String> mepmPorts;
+
+    /**
+     * Creates MEPM endpoint cache.
+     *
+     * @param enabled       whether resolution is cached
+     * @param ttlSeconds    seconds an entry is used before it is read again
+     * @param maxSize       max entries per cache
+     * @param meterRegistry meter registry
+     */
+    public MepmEndpointCache(@Value("${appo.endpoint-cache.enabled:true}") boolean enabled,
+                             @Value("${appo.endpoint-cache.ttl-seconds:300}") long ttlSeconds,
+                             @Value("${appo.endpoint-cache.max-size:10000}") int maxSize,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.hosts = new Cache<>("host", maxSize, meterRegistry);
+        this.mepmPorts = new Cache<>("mepm", maxSize, meterRegistry);
+    }
+
+    /**
+     * Returns MEC host record, read from inventory when not cached.
+     *
+     * @param tenantId tenant ID
+     * @param mecHost  MEC host IP
+     * @param loader   inventory read, returns null on failure
+     * @return MEC host record, null when it could not be read
+     */
+    public HostRecord getHost(String tenantId, String mecHost, Supplier<HostRecord> loader) {
+        return get(hosts, tenantId + ":" + mecHost, loader);
+    }
+
+    /**
+     * Caches MEC host record read from inventory by other means.
+     *
+     * @param tenantId tenant ID
+     * @param mecHost  MEC host IP
+     * @param record   MEC host record
+     */
+    public void putHost(String tenantId, String mecHost, HostRecord record) {
+        if (enabled) {
+            hosts.put(tenantId + ":" + mecHost, record, System.nanoTime() + ttlNanos);
+        }
+    }
+
+    /**
+     * Returns MEPM port, read from inventory when not cached.
+     *
+     * @param mepmIp MEPM IP
+     * @param loader inventory read, returns null on failure
+     * @return MEPM port, null when it could not be read
+     */
+    public String getMepmPort(String mepmIp, Supplier<String> loader) {
+        return get(mepmPorts, mepmIp, loader);
+    }
+
+    /**
+     * Invalidates MEC host record, e.g. when host is updated or removed in inventory.
+     *
+     * @param tenantId tenant ID
+     * @param mecHost  MEC host IP
+     */
+    public void invalidateHost(String tenantId, String mecHost) {
+        hosts.remove(tenantId + ":" + mecHost);
+    }
+
+    /**
+     * Invalidates MEC host records of tenant not in given hosts, e.g. when hosts of tenant are listed in full.
+     *
+     * @param tenantId tenant ID
+     * @param mecHosts MEC host IPs of tenant in inventory
+     */
+    public void retainHosts(String tenantId, Set<String> mecHosts) {
+        String prefix = tenantId + ":";
+        hosts.removeIf(key -> key.startsWith(prefix) && !mecHosts.contains(key.substring(prefix.length())));
+    }
+
+    /**
+     * Invalidates MEPM port, e.g. when MEPM cannot be reached on it.
+     *
+     * @param mepmIp MEPM IP
+     */
+    public void invalidateMepm(String mepmIp) {
+        mepmPorts.remove(mepmIp);
+    }
+
+    /**
+     * Invalidates all cached resolution.
+     */
+    public void invalidateAll() {
+        hosts.clear();
+        mepmPorts.clear();
+        LOGGER.info("MEPM endpoint cache invalidated");
+    }
+
+    private <V> V get(Cache<V> cache, String key, Supplier<V> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        V value = cache.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = loader.get();
+        if (value != null) {
+            cache.put(key, value, System.nanoTime() + ttlNanos);
+        }
+        return value;
+    }
+
+    /**
+     * MEC host resolution.
+     */
+    public static final class HostRecord {
+
+        private final String mepmIp;
+        private final String hwCapabilities;
+
+        /**
+         * Creates MEC host record.
+         *
+         * @param mepmIp         MEPM IP managing host
+         * @param hwCapabilities comma separated hardware capability types, null when host has none
+         */
+        public HostRecord(String mepmIp, String hwCapabilities) {
+            this.mepmIp = mepmIp;
+            this.hwCapabilities = hwCapabilities;
+        }
+
+        /**
+         * Creates MEC host record from inventory MEC host.
+         *
+         * @param mecHost inventory MEC host
+         * @return MEC host record, null when MEPM IP is not configured in host
+         */
+        public static HostRecord fromInventory(JsonObject mecHost) {
+            JsonElement mepmIp = mecHost.get("mepmIp");
+            if (mepmIp == null || mepmIp.isJsonNull()) {
+                return null;
+            }
+            JsonArray hwCapabilities = mecHost.getAsJsonArray("hwcapabilities");
+            if (hwCapabilities == null) {
+                return new HostRecord(mepmIp.getAsString(), null);
+            }
+            StringBuilder hwTypes = new StringBuilder();
+            for (JsonElement hwCapability : hwCapabilities) {
+                if (hwTypes.length() > 0) {
+                    hwTypes.append(',');
+                }
+                hwTypes.append(hwCapability.getAsJsonObject().get("hwType").getAsString());
+            }
+            return new HostRecord(mepmIp.getAsString(), hwTypes.toString());
+        }
+
+        public String getMepmIp() {
+            return mepmIp;
+        }
+
+        public String getHwCapabilities() {
+            return hwCapabilities;
+        }
+    }
+
+    private static final class Cache<V> {
+
+        private final Map<String, Entry<V>> entries;
+        private final Counter hits;
+        private final Counter misses;
+
+        private Cache(String name, int maxSize, MeterRegistry meterRegistry) {
+            this.entries = new LinkedHashMap<String, Entry<V>>(16, 0.75f, true) {
+                private static final long serialVersionUID = 2981733214327658301L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                    return size() > maxSize;
+                }
+            };
+            this.hits = Counter.builder("appo.endpoint.cache.requests")
+                    .description("MEPM endpoint resolution cache lookups")
+                    .tag("cache", name)
+                    .tag("result", "hit")
+                    .register(meterRegistry);
+            this.misses = Counter.builder("appo.endpoint.cache.requests")
+                    .description("MEPM endpoint resolution cache lookups")
+                    .tag("cache", name)
+                    .tag("result", "miss")
+                    .register(meterRegistry);
+            Gauge.builder("appo.endpoint.cache.size", this, Cache::size)
+                    .description("MEPM endpoint resolution cache entries")
+                    .tag("cache", name)
+                    .register(meterRegistry);
+        }
+
+        private synchronized V get(String key) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+                hits.increment();
+                return entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+            misses.increment();
+            return null;
+        }
+
+        private synchronized void put(String key, V value, long expiresAt) {
+            entries.put(key, new Entry<>(value, expiresAt));
+        }
+
+        private synchronized void remove(String key) {
+            entries.remove(key);
+        }
+
+        private synchronized void removeIf(Predicate<String> filter) {
+            entries.keySet().removeIf(filter);
+        }
+
+        private synchronized void clear() {
+            entries.clear();
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.edgegallery.mecm.appo.exception.AppoEndpointUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Circuit breaker and concurrency bulkhead per MEPM endpoint, so a hanging edge site fails fast instead of
+ * holding process flow threads needed by flows targeting other sites.
+ */
+@Component
+public class MepmEndpointGuard {
+
+    /**
+     * Circuit state, ordinal is reported as breaker state metric.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MepmEndpointGuard.class);
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final int failureRateThreshold;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+    private final int maxConcurrentCalls;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Creates MEPM endpoint guard.
+     *
+     * @param failureRateThreshold failure percentage in window which opens circuit
+     * @param windowSize           number of latest calls failure rate is computed on
+     * @param minimumCalls         calls needed in window before circuit can open
+     * @param openDurationMillis   time circuit stays open before trial calls are let through
+     * @param halfOpenCalls        trial calls which must succeed to close circuit
+     * @param maxConcurrentCalls   concurrent calls allowed per endpoint
+     * @param meterRegistry        meter registry
+     */
+    public MepmEndpointGuard(@Value("${appo.mepm-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+                             @Value("${appo.mepm-breaker.window-size:20}") int windowSize,
+                             @Value("${appo.mepm-breaker.minimum-calls:10}") int minimumCalls,
+                             @Value("${appo.mepm-breaker.open-duration-ms:30000}") long openDurationMillis,
+                             @Value("${appo.mepm-breaker.half-open-calls:2}") int halfOpenCalls,
+                             @Value("${appo.mepm-breaker.max-concurrent-calls:20}") int maxConcurrentCalls,
+                             MeterRegistry meterRegistry) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.windowSize));
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Calls endpoint unless its circuit is open or its concurrent call limit is reached. Connection failures
+     * and server errors count as endpoint failures.
+     *
+     * @param endpoint endpoint as ip:port
+     * @param call     remote call
+     * @param <T>      call result type
+     * @return call result
+     * @throws AppoEndpointUnavailableException when endpoint is not called
+     */
+    public <T> T execute(String endpoint, Supplier<T> call) {
+        Endpoint guard = endpoints.computeIfAbsent(endpoint, Endpoint::new);
+        State acquiredIn = permit(guard);
+        boolean failed = true;
+        try {
+            T result = call.get();
+            failed = false;
+            return result;
+        } catch (RuntimeException e) {
+            failed = isFailure(e);
+            throw e;
+        } finally {
+            guard.record(acquiredIn, failed);
+            guard.bulkhead.release();
+        }
+    }
+
+    /**
+     * Starts non-blocking call of endpoint unless its circuit is open or its concurrent call limit is reached.
+     * The call holds its bulkhead permit until it completes, completing exceptionally counts as endpoint failure.
+     *
+     * @param endpoint endpoint as ip:port
+     * @param call     remote call
+     * @param failure  whether call result is an endpoint failure
+     * @param <T>      call result type
+     * @return call result
+     * @throws AppoEndpointUnavailableException when endpoint is not called
+     */
+    public <T> CompletableFuture<T> executeAsync(String endpoint, Supplier<CompletableFuture<T>> call,
+                                                 Predicate<T> failure) {
+        Endpoint guard = endpoints.computeIfAbsent(endpoint, Endpoint::new);
+        State acquiredIn = permit(guard);
+        CompletableFuture<T> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            guard.record(acquiredIn, isFailure(e));
+            guard.bulkhead.release();
+            throw e;
+        }
+        return result.whenComplete((value, e) -> {
+            guard.record(acquiredIn, e != null || failure.test(value));
+            guard.bulkhead.release();
+        });
+    }
+
+    private State permit(Endpoint guard) {
+        if (!guard.bulkhead.tryAcquire()) {
+            guard.reject("bulkhead");
+            throw new AppoEndpointUnavailableException("MEPM " + guard.name + " has too many requests in progress");
+        }
+        State acquiredIn = guard.tryAcquirePermission();
+        if (acquiredIn == null) {
+            guard.bulkhead.release();
+            guard.reject("open");
+            throw new AppoEndpointUnavailableException("MEPM " + guard.name
+                    + " is unavailable, circuit open after repeated failures");
+        }
+        return acquiredIn;
+    }
+
+    private static boolean isFailure(RuntimeException e) {
+        return e instanceof ResourceAccessException || e instanceof HttpServerErrorException;
+    }
+
+    /**
+     * Returns circuit state of endpoint.
+     *
+     * @param endpoint endpoint as ip:port
+     * @return circuit state, closed for endpoints not called yet
+     */
+    public State getState(String endpoint) {
+        Endpoint guard = endpoints.get(endpoint);
+        return guard == null ? State.CLOSED : guard.getState();
+    }
+
+    private final class Endpoint {
+
+        private final String name;
+        private final Semaphore bulkhead;
+        private final boolean[] outcomes = new boolean[windowSize];
+        private int next;
+        private int calls;
+        private int failures;
+        private State state = State.CLOSED;
+        private long openedAt;
+        private int trialsInFlight;
+        private int trialSuccesses;
+
+        private Endpoint(String name) {
+            this.name = name;
+            this.bulkhead = new Semaphore(maxConcurrentCalls);
+            Gauge.builder("appo.mepm.breaker.state", this, endpoint -> endpoint.getState().ordinal())
+                    .description("MEPM circuit state, 0 closed, 1 open, 2 half open")
+                    .tag("endpoint", name)
+                    .register(meterRegistry);
+            Gauge.builder("appo.mepm.bulkhead.active", bulkhead,
+                    permits -> (double) maxConcurrentCalls - permits.availablePermits())
+                    .description("MEPM calls in progress")
+                    .tag("endpoint", name)
+                    .register(meterRegistry);
+        }
+
+        private synchronized State getState() {
+            return state;
+        }
+
+        /**
+         * Returns state in which call is permitted, null when it is not.
+         */
+        private synchronized State tryAcquirePermission() {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < openDurationNanos) {
+                    return null;
+                }
+                transition(State.HALF_OPEN);
+                trialsInFlight = 0;
+                trialSuccesses = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialsInFlight + trialSuccesses >= halfOpenCalls) {
+                    return null;
+                }
+                trialsInFlight++;
+            }
+            return state;
+        }
+
+        private synchronized void record(State acquiredIn, boolean failed) {
+            if (acquiredIn == State.HALF_OPEN) {
+                if (state != State.HALF_OPEN) {
+                    return;
+                }
+                trialsInFlight--;
+                if (failed) {
+                    open();
+                } else if (++trialSuccesses >= halfOpenCalls) {
+                    resetWindow();
+                    transition(State.CLOSED);
+                }
+                return;
+            }
+            if (state != State.CLOSED) {
+                return;
+            }
+            if (calls == windowSize && outcomes[next]) {
+                failures--;
+            }
+            outcomes[next] = failed;
+            next = (next + 1) % windowSize;
+            calls = Math.min(calls + 1, windowSize);
+            if (failed) {
+                failures++;
+            }
+            if (calls >= minimumCalls && failures * 100 >= failureRateThreshold * calls) {
+                open();
+            }
+        }
+
+        private void open() {
+            openedAt = System.nanoTime();
+            resetWindow();
+            transition(State.OPEN);
+        }
+
+        private void resetWindow() {
+            next = 0;
+            calls = 0;
+            failures = 0;
+        }
+
+        private void transition(State target) {
+            if (state != target) {
+                LOGGER.warn("MEPM {} circuit {} -> {}", name, state, target);
+                state = target;
+            }
+        }
+
+        private void reject(String reason) {
+            Counter.builder("appo.mepm.breaker.rejected")
+                    .description("MEPM calls rejected without being sent")
+                    .tag("endpoint", name)
+                    .tag("reason", reason)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+}
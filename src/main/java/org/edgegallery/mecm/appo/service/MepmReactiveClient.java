@@ -0,0 +1,146 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import javax.net.ssl.SSLException;
+import org.edgegallery.mecm.appo.exception.AppoEndpointUnavailableException;
+import org.edgegallery.mecm.appo.exception.AppoException;
+import org.edgegallery.mecm.appo.utils.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Non-blocking MEPM client on Reactor Netty, in-flight requests are bounded by its connection pool instead of
+ * by threads waiting for responses. Requests pass the MEPM endpoint guard like blocking process flow requests.
+ */
+@Component
+public class MepmReactiveClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MepmReactiveClient.class);
+
+    private final WebClient webClient;
+    private final MepmEndpointGuard endpointGuard;
+
+    /**
+     * Creates MEPM reactive client.
+     *
+     * @param isSslEnabled      whether MEPM is reached over https
+     * @param maxConnections    max connections in pool
+     * @param pendingAcquireMax max requests waiting for a connection
+     * @param readTimeoutMillis response timeout
+     * @param poolAcquireMillis connection acquire timeout
+     * @param endpointGuard     MEPM endpoint circuit breaker and bulkhead
+     */
+    public MepmReactiveClient(@Value("${server.ssl.enabled:false}") boolean isSslEnabled,
+                              @Value("${appo.mepm-client.max-connections:500}") int maxConnections,
+                              @Value("${appo.mepm-client.pending-acquire-max:5000}") int pendingAcquireMax,
+                              @Value("${appo.http-client.read-timeout-ms:60000}") long readTimeoutMillis,
+                              @Value("${appo.http-client.pool-acquire-timeout-ms:5000}") long poolAcquireMillis,
+                              MepmEndpointGuard endpointGuard) {
+        this.endpointGuard = endpointGuard;
+        ConnectionProvider provider = ConnectionProvider.builder("mepm").maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofMillis(poolAcquireMillis)).build();
+        HttpClient httpClient = HttpClient.create(provider).responseTimeout(Duration.ofMillis(readTimeoutMillis));
+        if (isSslEnabled) {
+            // same trust as the blocking client, MEPM certificates are not verified
+            SslContext sslContext = buildSslContext();
+            httpClient = httpClient.secure(spec -> spec.sslContext(sslContext));
+        }
+        this.webClient = WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+    }
+
+    private static SslContext buildSslContext() {
+        try {
+            return SslContextBuilder.forClient().trustManager(InsecureTrustManagerFactory.INSTANCE)
+                    .protocols(Constants.TLS_VER).build();
+        } catch (SSLException e) {
+            throw new AppoException("failed to build MEPM client ssl context: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sends request to MEPM without blocking the calling thread, fails fast when MEPM circuit is open or its
+     * concurrent request limit is reached.
+     *
+     * @param url              request url
+     * @param method           http method
+     * @param accessToken      access token
+     * @param onConnectFailure run when MEPM cannot be reached
+     * @return response, body on success, error body or reason on failure
+     */
+    public CompletableFuture<AppoProcessFlowResponse> send(String url, HttpMethod method, String accessToken,
+                                                           Runnable onConnectFailure) {
+        URI uri = URI.create(url);
+        try {
+            return endpointGuard.executeAsync(uri.getHost() + ":" + uri.getPort(),
+                    () -> exchange(url, method, accessToken, onConnectFailure),
+                    response -> response.getResponseCode() >= HttpStatus.INTERNAL_SERVER_ERROR.value());
+        } catch (AppoEndpointUnavailableException e) {
+            LOGGER.error(e.getMessage());
+            onConnectFailure.run();
+            return CompletableFuture.completedFuture(new AppoProcessFlowResponse(e.getMessage(), null,
+                    HttpStatus.SERVICE_UNAVAILABLE.value()));
+        }
+    }
+
+    private CompletableFuture<AppoProcessFlowResponse> exchange(String url, HttpMethod method, String accessToken,
+                                                                Runnable onConnectFailure) {
+        LOGGER.info("{}: {}", method, url);
+        return webClient.method(method).uri(url)
+                .header(Constants.ACCESS_TOKEN, accessToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .exchangeToMono(response -> response.bodyToMono(String.class).defaultIfEmpty("")
+                        .map(body -> {
+                            if (response.statusCode().is2xxSuccessful()
+                                    && !HttpStatus.OK.equals(response.statusCode())) {
+                                LOGGER.info("Response: method: {} URL: {} Failed: {}", method, url,
+                                        response.statusCode());
+                                return new AppoProcessFlowResponse(url, null, response.rawStatusCode());
+                            }
+                            if (!HttpStatus.OK.equals(response.statusCode())) {
+                                LOGGER.error("failure response from remote entity: {}", body);
+                                return new AppoProcessFlowResponse(body, null, response.rawStatusCode());
+                            }
+                            return new AppoProcessFlowResponse(body, null, HttpStatus.OK.value());
+                        }))
+                .onErrorResume(ex -> {
+                    LOGGER.error(Constants.FAILED_TO_CONNECT + "{}", ex.getMessage());
+                    onConnectFailure.run();
+                    return Mono.just(new AppoProcessFlowResponse(
+                            url + Constants.FAILED_TO_CONNECT + ex.getMessage(), null,
+                            HttpStatus.INTERNAL_SERVER_ERROR.value()));
+                })
+                .toFuture();
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLException;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpRequestRetryHandler;
+import org.apache.http.client.ServiceUnavailableRetryStrategy;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.HttpHostConnectException;
+import org.apache.http.protocol.HttpContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Retry policy of the shared outbound http client. Retries back off exponentially with full jitter, so clients
+ * failing together do not retry together, and each downstream host has a retry budget refilled by a fraction of
+ * its traffic, so retries cannot multiply load on an already overloaded host. Requests which may have been
+ * processed are retried only when their method is idempotent.
+ */
+public class OutboundRetryPolicy implements HttpRequestRetryHandler, ServiceUnavailableRetryStrategy {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboundRetryPolicy.class);
+
+    private static final Set<String> IDEMPOTENT_METHODS = new HashSet<>(
+            Arrays.asList("GET", "HEAD", "OPTIONS", "PUT", "DELETE"));
+
+    private final int maxRetries;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final double budgetRatio;
+    private final double budgetMaxTokens;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Budget> budgets = new ConcurrentHashMap<>();
+    private final ThreadLocal<Long> nextInterval = ThreadLocal.withInitial(() -> 0L);
+
+    /**
+     * Creates outbound retry policy.
+     *
+     * @param maxRetries      max retries of a request
+     * @param baseDelayMillis backoff cap of first retry, doubled on each further retry
+     * @param maxDelayMillis  max backoff of a retry
+     * @param budgetRatio     retries allowed per request sent to a host
+     * @param budgetMaxTokens max retries a host budget can accumulate
+     * @param meterRegistry   meter registry
+     */
+    public OutboundRetryPolicy(int maxRetries, long baseDelayMillis, long maxDelayMillis, double budgetRatio,
+                               double budgetMaxTokens, MeterRegistry meterRegistry) {
+        this.maxRetries = maxRetries;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.budgetRatio = budgetRatio;
+        this.budgetMaxTokens = budgetMaxTokens;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns interceptor refilling retry budget of target host on every request sent.
+     *
+     * @return request interceptor
+     */
+    public HttpRequestInterceptor budgetInterceptor() {
+        return (HttpRequest request, HttpContext context) -> budget(target(context)).deposit();
+    }
+
+    @Override
+    public boolean retryRequest(IOException exception, int executionCount, HttpContext context) {
+        if (executionCount > maxRetries || exception instanceof UnknownHostException
+                || exception instanceof SSLException) {
+            return false;
+        }
+        // request is known not to have reached the host only when connection was refused
+        boolean notSent = exception instanceof HttpHostConnectException;
+        if (!notSent && (exception instanceof InterruptedIOException || !isIdempotent(context))) {
+            return false;
+        }
+        if (!acquire(context, exception.getClass().getSimpleName())) {
+            return false;
+        }
+        long delay = backoff(executionCount);
+        LOGGER.info("retrying {} after {} ms: {}", target(context), delay, exception.getMessage());
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean retryRequest(HttpResponse response, int executionCount, HttpContext context) {
+        int status = response.getStatusLine().getStatusCode();
+        if (executionCount > maxRetries) {
+            return false;
+        }
+        // 429 and 503 are returned before the request is processed, gateway errors may follow processing
+        boolean notProcessed = status == HttpStatus.SC_SERVICE_UNAVAILABLE || status == 429;
+        boolean gatewayError = status == HttpStatus.SC_BAD_GATEWAY || status == HttpStatus.SC_GATEWAY_TIMEOUT;
+        if (!notProcessed && !(gatewayError && isIdempotent(context))) {
+            return false;
+        }
+        if (!acquire(context, String.valueOf(status))) {
+            return false;
+        }
+        long delay = Math.max(backoff(executionCount), retryAfter(response));
+        nextInterval.set(delay);
+        LOGGER.info("retrying {} after {} ms: status {}", target(context), delay, status);
+        return true;
+    }
+
+    @Override
+    public long getRetryInterval() {
+        return nextInterval.get();
+    }
+
+    /**
+     * Returns backoff before retry, drawn uniformly up to exponentially growing cap.
+     *
+     * @param executionCount executions of request so far
+     * @return backoff in milliseconds
+     */
+    long backoff(int executionCount) {
+        long cap = Math.min(maxDelayMillis, baseDelayMillis << Math.min(executionCount - 1, 30));
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private long retryAfter(HttpResponse response) {
+        Header header = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+        if (header == null) {
+            return 0;
+        }
+        try {
+            return Math.min(maxDelayMillis, TimeUnit.SECONDS.toMillis(Long.parseLong(header.getValue().trim())));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private boolean acquire(HttpContext context, String reason) {
+        String target = target(context);
+        if (!budget(target).withdraw()) {
+            Counter.builder("appo.http.retry.budget.exhausted")
+                    .description("Outbound retries not sent as host retry budget was exhausted")
+                    .tag("host", target)
+                    .register(meterRegistry)
+                    .increment();
+            return false;
+        }
+        Counter.builder("appo.http.retries")
+                .description("Outbound requests retried")
+                .tag("host", target)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        return true;
+    }
+
+    private static boolean isIdempotent(HttpContext context) {
+        HttpRequest request = HttpClientContext.adapt(context).getRequest();
+        return request != null && IDEMPOTENT_METHODS.contains(request.getRequestLine().getMethod());
+    }
+
+    private static String target(HttpContext context) {
+        HttpHost host = HttpClientContext.adapt(context).getTargetHost();
+        return host == null ? "unknown" : host.toHostString();
+    }
+
+    private Budget budget(String target) {
+        return budgets.computeIfAbsent(target, key -> new Budget());
+    }
+
+    private final class Budget {
+
+        private double tokens = budgetMaxTokens;
+
+        private synchronized void deposit() {
+            tokens = Math.min(budgetMaxTokens, tokens + budgetRatio);
+        }
+
+        private synchronized boolean withdraw() {
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands process flow response variables over to synchronous callers, keyed by request ID (business key).
+ * Only requests registered by a synchronous caller are captured.
+ */
+@Component
+public class ProcessflowResultRegistry {
+
+    private final ConcurrentMap<String, CompletableFuture<Map<String, Object>>> results = new ConcurrentHashMap<>();
+
+    /**
+     * Registers request awaiting process flow response.
+     *
+     * @param requestId request ID
+     * @return future completed with process flow response variables
+     */
+    public CompletableFuture<Map<String, Object>> register(String requestId) {
+        CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+        results.put(requestId, result);
+        return result;
+    }
+
+    /**
+     * Publishes process flow response variables, ignored when request is not registered.
+     *
+     * @param requestId request ID
+     * @param variables process flow response variables
+     */
+    public void publish(String requestId, Map<String, Object> variables) {
+        if (requestId == null) {
+            return;
+        }
+        CompletableFuture<Map<String, Object>> result = results.get(requestId);
+        if (result != null) {
+            result.complete(variables);
+        }
+    }
+
+    /**
+     * Removes registered request.
+     *
+     * @param requestId request ID
+     */
+    public void unregister(String requestId) {
+        results.remove(requestId);
+    }
+}
@@ -27,6 +27,8 @@ import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLException;
 import lombok.AllArgsConstructor;
@@ -35,13 +37,22 @@ import lombok.Setter;
 import org.apache.http.HttpEntityEnclosingRequest;
 import org.apache.http.HttpRequest;
 import org.apache.http.client.HttpRequestRetryHandler;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.HttpClientConnectionManager;
 import org.apache.http.conn.HttpHostConnectException;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.DefaultServiceUnavailableRetryStrategy;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.ssl.SSLContexts;
 import org.edgegallery.mecm.appo.exception.AppoException;
@@ -130,4 +141,69 @@ public class RestClientHelper {
         }
         return httpClient;
     }
+
+    /**
+     * Builds pooled connection manager, https connections trust the store when SSL is enabled, otherwise
+     * they use the default https socket factory set up at startup.
+     *
+     * @param maxTotal    max connections in pool
+     * @param maxPerRoute max connections per route
+     * @return pooling connection manager
+     */
+    public PoolingHttpClientConnectionManager buildConnectionManager(int maxTotal, int maxPerRoute) {
+        SSLConnectionSocketFactory sslFactory;
+        if (isSslEnabled) {
+            try {
+                KeyStore ks = getKeyStore(trustStorePath, trustStorePasswd);
+                SSLContext sslctx = SSLContexts.custom().loadTrustMaterial(ks, new TrustSelfSignedStrategy())
+                        .setProtocol(TLS_VER).build();
+                sslFactory = new SSLConnectionSocketFactory(sslctx, (s, sslSession) -> true);
+            } catch (NoSuchAlgorithmException | KeyStoreException | KeyManagementException e) {
+                LOGGER.info("Failed to build connection manager...{}", e.getMessage());
+                throw new AppoException(e.getMessage());
+            }
+        } else {
+            sslFactory = new SSLConnectionSocketFactory(HttpsURLConnection.getDefaultSSLSocketFactory(),
+                    NoopHostnameVerifier.INSTANCE);
+        }
+        Registry<ConnectionSocketFactory> socketFactories = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", sslFactory).build();
+        PoolingHttpClientConnectionManager connectionManager =
+                new PoolingHttpClientConnectionManager(socketFactories);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        return connectionManager;
+    }
+
+    /**
+     * Builds http client on pooled connections kept alive between requests.
+     *
+     * @param connectionManager connection manager
+     * @param requestConfig     connect, read and pool acquire timeouts
+     * @param keepAliveMillis   keep alive when server does not specify one
+     * @param idleEvictMillis   idle time after which pooled connections are closed
+     * @param retryPolicy       retry policy
+     * @return http client
+     */
+    public CloseableHttpClient buildHttpClient(HttpClientConnectionManager connectionManager,
+                                               RequestConfig requestConfig, long keepAliveMillis,
+                                               long idleEvictMillis, OutboundRetryPolicy retryPolicy) {
+        LOGGER.info("Build pooled Http client...");
+        return HttpClients.custom().setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response,
+                            context);
+                    return keepAlive > 0 ? keepAlive : keepAliveMillis;
+                })
+                // connections authenticated with client certificate are reused regardless of user state
+                .disableConnectionState()
+                .evictExpiredConnections()
+                .evictIdleConnections(idleEvictMillis, TimeUnit.MILLISECONDS)
+                .addInterceptorFirst(retryPolicy.budgetInterceptor())
+                .setRetryHandler(retryPolicy)
+                .setServiceUnavailableRetryStrategy(retryPolicy)
+                .build();
+    }
 }
@@ -0,0 +1,326 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.edgegallery.mecm.appo.config.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dispatches asynchronous process flows to the async executor. Operation lanes are served in priority order,
+ * each lane limited to its own concurrency, and within a lane tenants are served round robin so one tenant's
+ * backlog does not delay other tenants' operations. A lane may reserve slots no other lane dispatches into, so
+ * its flows start without waiting for long running flows of other lanes. Each tenant has caps on queued and
+ * running flows, a tenant without admitted flows is forgotten together with its metrics.
+ */
+@Component
+public class TenantFairScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TenantFairScheduler.class);
+
+    private final int maxConcurrency;
+    private final int tenantMaxConcurrency;
+    private final int tenantQueueCapacity;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, TenantState> tenants = new HashMap<>();
+    private final List<Lane> lanes = new ArrayList<>();
+    private final Map<OperationLane, Lane> laneByOperation = new EnumMap<>(OperationLane.class);
+    private int running;
+
+    /**
+     * Creates tenant fair scheduler.
+     *
+     * @param maxConcurrency       process flows dispatched at a time, async executor pool size or virtual
+     *                             thread limit
+     * @param tenantMaxConcurrency process flows dispatched at a time per tenant
+     * @param tenantQueueCapacity  process flows admitted, queued or running, per tenant
+     * @param laneSettings         comma separated lane=priority:maxConcurrency[:reserved], lower priority served
+     *                             first
+     * @param meterRegistry        meter registry
+     */
+    public TenantFairScheduler(@Value(VirtualThreads.ASYNC_MAX_CONCURRENCY) int maxConcurrency,
+                               @Value("${appo.scheduler.tenant-max-concurrency:10}") int tenantMaxConcurrency,
+                               @Value("${appo.scheduler.tenant-queue-capacity:200}") int tenantQueueCapacity,
+                               @Value("${appo.scheduler.lanes:}") String laneSettings,
+                               MeterRegistry meterRegistry) {
+        this.maxConcurrency = maxConcurrency;
+        this.tenantMaxConcurrency = tenantMaxConcurrency;
+        this.tenantQueueCapacity = tenantQueueCapacity;
+        this.meterRegistry = meterRegistry;
+
+        Map<OperationLane, int[]> settings = parseLaneSettings(laneSettings);
+        for (OperationLane operation : OperationLane.values()) {
+            int[] setting = settings.getOrDefault(operation, new int[] {operation.ordinal(), maxConcurrency, 0});
+            Lane lane = new Lane(setting[0], setting[1], setting[2]);
+            lanes.add(lane);
+            laneByOperation.put(operation, lane);
+            Gauge.builder("appo.scheduler.lane.queued", lane, value -> value.queued)
+                    .tag("lane", operation.name()).description("Process flows waiting for dispatch")
+                    .register(meterRegistry);
+            Gauge.builder("appo.scheduler.lane.running", lane, value -> value.running)
+                    .tag("lane", operation.name()).description("Process flows dispatched").register(meterRegistry);
+        }
+        lanes.sort(Comparator.comparingInt(lane -> lane.priority));
+        if (lanes.stream().mapToInt(lane -> lane.reserved).sum() >= maxConcurrency) {
+            LOGGER.warn("scheduler lanes reserve all of {} slots", maxConcurrency);
+        }
+    }
+
+    private static Map<OperationLane, int[]> parseLaneSettings(String laneSettings) {
+        Map<OperationLane, int[]> settings = new EnumMap<>(OperationLane.class);
+        for (String entry : laneSettings.split(",")) {
+            String[] laneSetting = entry.split("[=:]");
+            if (laneSetting.length != 3 && laneSetting.length != 4) {
+                continue;
+            }
+            try {
+                int reserved = laneSetting.length == 4 ? Integer.parseInt(laneSetting[3].trim()) : 0;
+                settings.put(OperationLane.valueOf(laneSetting[0].trim().toUpperCase(Locale.ROOT)),
+                        new int[] {Integer.parseInt(laneSetting[1].trim()), Integer.parseInt(laneSetting[2].trim()),
+                            reserved});
+            } catch (IllegalArgumentException e) {
+                LOGGER.error("invalid scheduler lane setting {}", entry);
+            }
+        }
+        return settings;
+    }
+
+    /**
+     * Reserves a place for tenant process flow.
+     *
+     * @param tenantId tenant ID
+     * @return true if reserved, false if tenant reached its queue capacity
+     */
+    public synchronized boolean tryReserve(String tenantId) {
+        TenantState tenant = tenant(tenantId);
+        if (tenant.admitted >= tenantQueueCapacity) {
+            LOGGER.error("tenant {} reached queue capacity {}", tenantId, tenantQueueCapacity);
+            return false;
+        }
+        tenant.admitted++;
+        return true;
+    }
+
+    /**
+     * Cancels reservation not used for a process flow.
+     *
+     * @param tenantId tenant ID
+     */
+    public synchronized void cancel(String tenantId) {
+        TenantState tenant = tenants.get(tenantId);
+        if (tenant != null) {
+            tenant.admitted--;
+            removeIfIdle(tenantId, tenant);
+        }
+    }
+
+    /**
+     * Schedules reserved tenant process flow.
+     *
+     * @param tenantId   tenant ID
+     * @param operation  operation lane
+     * @param submission process flow submission to async executor
+     * @return future completed when process flow ends
+     */
+    public CompletableFuture<Void> schedule(String tenantId, OperationLane operation,
+                                            Supplier<CompletableFuture<Void>> submission) {
+        Task task = new Task(submission);
+        synchronized (this) {
+            Lane lane = laneByOperation.get(operation);
+            TenantQueue queue = lane.tenants.computeIfAbsent(tenantId,
+                    id -> new TenantQueue(id, lane, tenant(id)));
+            queue.pending.add(task);
+            queue.state.queued++;
+            lane.queued++;
+            if (!lane.ready.contains(queue)) {
+                lane.ready.addLast(queue);
+            }
+        }
+        dispatch();
+        return task.result;
+    }
+
+    private void dispatch() {
+        List<Task> dispatched = new ArrayList<>();
+        synchronized (this) {
+            while (running < maxConcurrency) {
+                TenantQueue queue = nextReady();
+                if (queue == null) {
+                    break;
+                }
+                Task task = queue.pending.poll();
+                task.queue = queue;
+                queue.state.queued--;
+                queue.lane.queued--;
+                queue.state.running++;
+                queue.lane.running++;
+                running++;
+                if (!queue.pending.isEmpty()) {
+                    queue.lane.ready.addLast(queue);
+                }
+                dispatched.add(task);
+            }
+        }
+        dispatched.forEach(this::run);
+    }
+
+    private TenantQueue nextReady() {
+        for (Lane lane : lanes) {
+            if (lane.running >= lane.maxConcurrency || running + reservedByOthers(lane) >= maxConcurrency) {
+                continue;
+            }
+            for (int i = lane.ready.size(); i > 0; i--) {
+                TenantQueue queue = lane.ready.pollFirst();
+                if (queue.pending.isEmpty()) {
+                    continue;
+                }
+                if (queue.state.running < tenantMaxConcurrency) {
+                    return queue;
+                }
+                lane.ready.addLast(queue);
+            }
+        }
+        return null;
+    }
+
+    private int reservedByOthers(Lane lane) {
+        int reserved = 0;
+        for (Lane other : lanes) {
+            if (other != lane) {
+                reserved += Math.max(0, other.reserved - other.running);
+            }
+        }
+        return reserved;
+    }
+
+    private void run(Task task) {
+        CompletableFuture<Void> result;
+        try {
+            result = task.submission.get();
+        } catch (RuntimeException e) {
+            result = new CompletableFuture<>();
+            result.completeExceptionally(e);
+        }
+        if (result == null) {
+            result = CompletableFuture.completedFuture(null);
+        }
+        result.whenComplete((response, throwable) -> {
+            complete(task.queue);
+            if (throwable != null) {
+                task.result.completeExceptionally(throwable);
+            } else {
+                task.result.complete(response);
+            }
+        });
+    }
+
+    private void complete(TenantQueue queue) {
+        synchronized (this) {
+            running--;
+            queue.lane.running--;
+            queue.state.running--;
+            queue.state.admitted--;
+            removeIfIdle(queue.tenantId, queue.state);
+        }
+        dispatch();
+    }
+
+    private TenantState tenant(String tenantId) {
+        return tenants.computeIfAbsent(tenantId, id -> {
+            TenantState tenant = new TenantState();
+            tenant.gauges.add(Gauge.builder("appo.scheduler.tenant.queued", tenant, state -> state.queued)
+                    .tag("tenant", id).description("Process flows waiting for dispatch").register(meterRegistry));
+            tenant.gauges.add(Gauge.builder("appo.scheduler.tenant.running", tenant, state -> state.running)
+                    .tag("tenant", id).description("Process flows dispatched").register(meterRegistry));
+            return tenant;
+        });
+    }
+
+    // a tenant without admitted flows has nothing queued or running, its queues and gauges are dropped
+    private void removeIfIdle(String tenantId, TenantState tenant) {
+        if (tenant.admitted > 0 || tenants.get(tenantId) != tenant) {
+            return;
+        }
+        tenants.remove(tenantId);
+        for (Lane lane : lanes) {
+            lane.tenants.remove(tenantId);
+        }
+        tenant.gauges.forEach(meterRegistry::remove);
+    }
+
+    private static final class Lane {
+        private final int priority;
+        private final int maxConcurrency;
+        private final int reserved;
+        private final Map<String, TenantQueue> tenants = new HashMap<>();
+        private final Deque<TenantQueue> ready = new ArrayDeque<>();
+        private int queued;
+        private int running;
+
+        private Lane(int priority, int maxConcurrency, int reserved) {
+            this.priority = priority;
+            this.maxConcurrency = maxConcurrency;
+            this.reserved = reserved;
+        }
+    }
+
+    private static final class TenantState {
+        private final List<Gauge> gauges = new ArrayList<>();
+        private int admitted;
+        private int queued;
+        private int running;
+    }
+
+    private static final class TenantQueue {
+        private final String tenantId;
+        private final Lane lane;
+        private final TenantState state;
+        private final Deque<Task> pending = new ArrayDeque<>();
+
+        private TenantQueue(String tenantId, Lane lane, TenantState state) {
+            this.tenantId = tenantId;
+            this.lane = lane;
+            this.state = state;
+        }
+    }
+
+    private static final class Task {
+        private final Supplier<CompletableFuture<Void>> submission;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        private TenantQueue queue;
+
+        private Task(Supplier<CompletableFuture<Void>> submission) {
+            this.submission = submission;
+        }
+    }
+}
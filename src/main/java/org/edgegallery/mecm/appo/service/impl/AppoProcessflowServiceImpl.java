@@ -22,17 +22,22 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import org.camunda.bpm.engine.HistoryService;
 import org.camunda.bpm.engine.RuntimeService;
 import org.camunda.bpm.engine.history.HistoricVariableInstance;
 import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.edgegallery.mecm.appo.bpmn.tasks.ProcessflowVariables;
 import org.edgegallery.mecm.appo.exception.AppoException;
 import org.edgegallery.mecm.appo.exception.AppoProcessflowException;
 import org.edgegallery.mecm.appo.service.AppoProcessEngineService;
 import org.edgegallery.mecm.appo.service.AppoProcessFlowResponse;
 import org.edgegallery.mecm.appo.service.AppoProcessflowService;
+import org.edgegallery.mecm.appo.service.ProcessflowResultRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
@@ -45,6 +50,9 @@ public class AppoProcessflowServiceImpl extends AppoProcessEngineService impleme
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AppoProcessflowServiceImpl.class);
 
+    @Autowired
+    private ProcessflowResultRegistry resultRegistry;
+
     /**
      * Generate request ID.
      *
@@ -82,16 +90,18 @@ public class AppoProcessflowServiceImpl extends AppoProcessEngineService impleme
      *
      * @param processKey   process key
      * @param requestInput input parameters
+     * @return future completed when process flow ends
      */
     @Override
     @Async
-    public void executeProcessAsync(String processKey, Map<String, String> requestInput) {
+    public CompletableFuture<Void> executeProcessAsync(String processKey, Map<String, String> requestInput) {
         LOGGER.debug("Received Application orchestration request: processKey: {}", processKey);
 
         String processInstanceId = null;
         try {
 
-            ProcessInstance processInstance = executeProcessDefinition(requestInput, processKey);
+            ProcessInstance processInstance = executeProcessDefinition(convertInputToObjectMap(requestInput),
+                    processKey);
             processInstanceId = processInstance.getId();
             LOGGER.debug("processInstanceId: {}", processInstanceId);
         } catch (Exception e) {
@@ -101,6 +111,7 @@ public class AppoProcessflowServiceImpl extends AppoProcessEngineService impleme
             appoProcessFlowResponse.setResponseCode(HttpStatus.INTERNAL_SERVER_ERROR.value());
             throw new AppoException(appoProcessFlowResponse.toString());
         }
+        return CompletableFuture.completedFuture(null);
     }
 
     /**
@@ -117,11 +128,20 @@ public class AppoProcessflowServiceImpl extends AppoProcessEngineService impleme
 
         String processInstanceId = null;
         AppoProcessFlowResponse appoProcessFlowResponse = null;
+
+        Map<String, Object> wfInputParmas = convertInputToObjectMap(requestInput);
+        String requestID = getRequestID(wfInputParmas);
+        CompletableFuture<Map<String, Object>> result = resultRegistry.register(requestID);
         try {
-            ProcessInstance processInstance = executeProcessDefinition(requestInput, processKey);
+            ProcessInstance processInstance = executeProcessDefinition(wfInputParmas, processKey);
             processInstanceId = processInstance.getId();
 
-            appoProcessFlowResponse = getProcessInstanceData(processInstance);
+            Map<String, Object> resultVariables = result.getNow(null);
+            if (resultVariables != null) {
+                appoProcessFlowResponse = getProcessInstanceData(resultVariables::get);
+            } else {
+                appoProcessFlowResponse = getProcessInstanceData(processInstance);
+            }
             if (appoProcessFlowResponse != null) {
                 appoProcessFlowResponse.setProcessInstanceID(processInstanceId);
             }
@@ -132,21 +152,21 @@ public class AppoProcessflowServiceImpl extends AppoProcessEngineService impleme
             appoProcessFlowResponse.setProcessInstanceID(processInstanceId);
             appoProcessFlowResponse.setResponseCode(HttpStatus.INTERNAL_SERVER_ERROR.value());
             throw new AppoProcessflowException(appoProcessFlowResponse.toString());
+        } finally {
+            resultRegistry.unregister(requestID);
         }
         return appoProcessFlowResponse;
     }
 
-    private ProcessInstance executeProcessDefinition(Map<String, String> requestInput, String processKey) {
+    private ProcessInstance executeProcessDefinition(Map<String, Object> wfInputParmas, String processKey) {
         String processInstanceId = null;
 
-        Map<String, Object> wfInputParmas;
-        wfInputParmas = convertInputToObjectMap(requestInput);
-
         String requestID = getRequestID(wfInputParmas);
 
         RuntimeService runtimeService = getEngineServices().getRuntimeService();
         ProcessInstance processInstance = runtimeService
-                .startProcessInstanceByKey(processKey, requestID, wfInputParmas);
+                .startProcessInstanceByKey(processKey, requestID,
+                        ProcessflowVariables.toStartVariables(wfInputParmas));
         processInstanceId = processInstance.getId();
 
         String processInstanceState = "RUNNING";
@@ -169,36 +189,46 @@ public class AppoProcessflowServiceImpl extends AppoProcessEngineService impleme
 
         // Retrieve response variables from history service.
         String processInstanceId = processInstance.getId();
+        return getProcessInstanceData(variableName -> getProcessInstanceVariable(processInstanceId, variableName));
+    }
+
+    /**
+     * Retrieves process instance data for response processing.
+     *
+     * @param variables process flow response variable lookup
+     * @return processflow response
+     */
+    private AppoProcessFlowResponse getProcessInstanceData(Function<String, Object> variables) {
 
         // Retrieve process instance data. processflowResponse and processflowResponseCode
-        String responseCode = getProcessflowResponse(processInstanceId, "ProcessflowResponseCode");
+        String responseCode = getProcessflowResponse(variables, "ProcessflowResponseCode");
 
-        AppoProcessFlowResponse appoProcessFlowResponse = processflowResponse(processInstanceId, responseCode);
+        AppoProcessFlowResponse appoProcessFlowResponse = processflowResponse(variables, responseCode);
         if (appoProcessFlowResponse != null) {
             return appoProcessFlowResponse;
         }
 
-        AppoProcessFlowResponse appoProcessExceptionResponse = processflowException(processInstanceId, responseCode);
+        AppoProcessFlowResponse appoProcessExceptionResponse = processflowException(variables, responseCode);
         if (appoProcessExceptionResponse != null) {
             LOGGER.error("process flow exception: {}", appoProcessExceptionResponse);
             return appoProcessExceptionResponse;
         }
 
-        return processflowErrorResponse(processInstanceId, responseCode);
+        return processflowErrorResponse(variables, responseCode);
     }
 
     /**
-     * Retrieves process response from history service.
+     * Retrieves process response.
      *
-     * @param processInstanceId process instance ID
-     * @param responseCode      response code
+     * @param variables    process flow response variable lookup
+     * @param responseCode response code
      * @return process flow response on success, null if response not available
      */
-    private AppoProcessFlowResponse processflowResponse(String processInstanceId,
+    private AppoProcessFlowResponse processflowResponse(Function<String, Object> variables,
                                                         String responseCode) {
         AppoProcessFlowResponse appoProcessFlowResponse = new AppoProcessFlowResponse();
 
-        String response = getProcessflowResponse(processInstanceId, "ProcessflowResponse");
+        String response = getProcessflowResponse(variables, "ProcessflowResponse");
         if (response != null) {
             appoProcessFlowResponse.setResponse(response);
             appoProcessFlowResponse.setResponseCode(Integer.parseInt(responseCode));
@@ -208,17 +238,17 @@ public class AppoProcessflowServiceImpl extends AppoProcessEngineService impleme
     }
 
     /**
-     * Retrieves process exception response from history service.
+     * Retrieves process exception response.
      *
-     * @param processInstanceId process instance ID
-     * @param responseCode      response code
+     * @param variables    process flow response variable lookup
+     * @param responseCode response code
      * @return process flow response on success, null if response not available
      */
-    private AppoProcessFlowResponse processflowException(String processInstanceId,
+    private AppoProcessFlowResponse processflowException(Function<String, Object> variables,
                                                          String responseCode) {
         AppoProcessFlowResponse appoProcessFlowResponse = new AppoProcessFlowResponse();
 
-        Object exceptionObject = getWorkflowResponseObject(processInstanceId, "ProcessflowException");
+        Object exceptionObject = getWorkflowResponseObject(variables, "ProcessflowException");
         if (exceptionObject == null) {
             return null;
         }
@@ -241,18 +271,18 @@ public class AppoProcessflowServiceImpl extends AppoProcessEngineService impleme
     }
 
     /**
-     * Retrieves process error response from history service.
+     * Retrieves process error response.
      *
-     * @param processInstanceId process instance ID
-     * @param responseCode      response code
+     * @param variables    process flow response variable lookup
+     * @param responseCode response code
      * @return process flow response on success, null if response not available
      */
-    private AppoProcessFlowResponse processflowErrorResponse(String processInstanceId,
+    private AppoProcessFlowResponse processflowErrorResponse(Function<String, Object> variables,
                                                              String responseCode) {
 
         AppoProcessFlowResponse appoProcessFlowResponse = new AppoProcessFlowResponse();
 
-        String errResponse = getProcessflowResponse(processInstanceId, "ProcessflowErrResponse");
+        String errResponse = getProcessflowResponse(variables, "ProcessflowErrResponse");
         if (errResponse != null) {
             appoProcessFlowResponse.setResponse(errResponse);
             appoProcessFlowResponse.setResponseCode(Integer.parseInt(responseCode));
@@ -267,41 +297,39 @@ public class AppoProcessflowServiceImpl extends AppoProcessEngineService impleme
     }
 
     /**
-     * Retrieve process instance variable from history.
+     * Retrieve process instance variable.
      *
-     * @param processInstanceId process instance ID
-     * @param variableName      variable name to obtain for process instance history
+     * @param variables    process flow response variable lookup
+     * @param variableName variable name to obtain
      * @return variable value, null if not available
      */
-    private String getProcessflowResponse(String processInstanceId, String variableName) {
+    private String getProcessflowResponse(Function<String, Object> variables, String variableName) {
 
-        Object responseData = getProcessInstanceVariable(processInstanceId, variableName);
+        Object responseData = variables.apply(variableName);
         String response;
         if (responseData == null) {
             response = null;
         } else {
             response = String.valueOf(responseData);
         }
-        LOGGER.debug("processInstId: {} %p processInstanceData: %p           {} : {}",
-                processInstanceId, variableName, response);
+        LOGGER.debug("processInstanceData: {} : {}", variableName, response);
         return response;
     }
 
     /**
-     * Retrieve process instance variable object from history.
+     * Retrieve process instance variable object.
      *
-     * @param processInstanceId process instance ID
-     * @param variableName      variable name to obtain for process instance history
+     * @param variables    process flow response variable lookup
+     * @param variableName variable name to obtain
      * @return variable value, null if not available
      */
-    private Object getWorkflowResponseObject(String processInstanceId, String variableName) {
+    private Object getWorkflowResponseObject(Function<String, Object> variables, String variableName) {
 
-        Object responseData = getProcessInstanceVariable(processInstanceId, variableName);
+        Object responseData = variables.apply(variableName);
         if (responseData != null) {
             String response = String.valueOf(responseData);
 
-            LOGGER.debug("processInstId: {} %p processInstanceData: %p           {} : {}",
-                    processInstanceId, variableName, response);
+            LOGGER.debug("processInstanceData: {} : {}", variableName, response);
         }
         return responseData;
     }
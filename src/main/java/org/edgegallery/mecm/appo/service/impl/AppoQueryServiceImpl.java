@@ -0,0 +1,340 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service.impl;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.edgegallery.mecm.appo.bpmn.tasks.ProcessflowAbstractTask;
+import org.edgegallery.mecm.appo.exception.AppoEndpointUnavailableException;
+import org.edgegallery.mecm.appo.exception.AppoException;
+import org.edgegallery.mecm.appo.service.AppInstanceInfoService;
+import org.edgegallery.mecm.appo.service.AppoProcessFlowResponse;
+import org.edgegallery.mecm.appo.service.AppoQueryService;
+import org.edgegallery.mecm.appo.service.MepmEndpointCache;
+import org.edgegallery.mecm.appo.service.MepmEndpointGuard;
+import org.edgegallery.mecm.appo.service.MepmReactiveClient;
+import org.edgegallery.mecm.appo.utils.Constants;
+import org.edgegallery.mecm.appo.utils.UrlUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Query service resolving MEC host to MEPM and sending query to MEPM on the caller thread, through the MEPM
+ * endpoint guard.
+ */
+@Service
+public class AppoQueryServiceImpl implements AppoQueryService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AppoQueryServiceImpl.class);
+    private static final String HTTPS_PROTO = "https://";
+    private static final String HTTP_PROTO = "http://";
+
+    private final Set<String> directOperations;
+    private final RestTemplate restTemplate;
+    private final AppInstanceInfoService appInstanceInfoService;
+    private final MepmReactiveClient mepmClient;
+    private final MepmEndpointCache endpointCache;
+    private final MepmEndpointGuard endpointGuard;
+
+    @Value("${appo.query.non-blocking:false}")
+    private boolean nonBlocking;
+
+    @Value("${appo.endpoints.inventory.end-point}")
+    private String inventoryService;
+
+    @Value("${appo.endpoints.inventory.port}")
+    private String inventoryServicePort;
+
+    @Value("${server.ssl.enabled:false}")
+    private String isSslEnabled;
+
+    /**
+     * Creates query service.
+     *
+     * @param directOperations       comma separated process keys of queries executed directly
+     * @param restTemplate           rest template
+     * @param appInstanceInfoService application instance info service
+     * @param mepmClient             non-blocking MEPM client
+     * @param endpointCache          MEC host to MEPM resolution cache
+     * @param endpointGuard          MEPM endpoint circuit breaker and bulkhead
+     */
+    @Autowired
+    public AppoQueryServiceImpl(@Value("${appo.query.direct-operations:}") String directOperations,
+                                RestTemplate restTemplate, AppInstanceInfoService appInstanceInfoService,
+                                MepmReactiveClient mepmClient, MepmEndpointCache endpointCache,
+                                MepmEndpointGuard endpointGuard) {
+        this.directOperations = Arrays.stream(directOperations.split(",")).map(String::trim)
+                .filter(operation -> !operation.isEmpty()).collect(Collectors.toCollection(HashSet::new));
+        this.restTemplate = restTemplate;
+        this.appInstanceInfoService = appInstanceInfoService;
+        this.mepmClient = mepmClient;
+        this.endpointCache = endpointCache;
+        this.endpointGuard = endpointGuard;
+    }
+
+    @Override
+    public boolean isDirect(String processKey) {
+        return directOperations.contains(processKey);
+    }
+
+    @Override
+    public AppoProcessFlowResponse executeQuery(String processKey, Map<String, String> requestInput) {
+        MepmQuery query = resolveQuery(processKey, requestInput);
+        if (query.failure != null) {
+            return query.failure;
+        }
+        URI uri = URI.create(query.url);
+        return unwrap(query, send(query.url, query.method, query.accessToken,
+                () -> endpointCache.invalidateMepm(query.mepmIp), uri.getHost() + ":" + uri.getPort()));
+    }
+
+    @Override
+    public CompletableFuture<AppoProcessFlowResponse> executeQueryAsync(String processKey,
+                                                                       Map<String, String> requestInput) {
+        if (!nonBlocking) {
+            return CompletableFuture.completedFuture(executeQuery(processKey, requestInput));
+        }
+        MepmQuery query = resolveQuery(processKey, requestInput);
+        if (query.failure != null) {
+            return CompletableFuture.completedFuture(query.failure);
+        }
+        return mepmClient.send(query.url, query.method, query.accessToken,
+                () -> endpointCache.invalidateMepm(query.mepmIp))
+                .thenApply(response -> unwrap(query, response));
+    }
+
+    /**
+     * Resolves MEPM query url, MEC host to MEPM resolution is done on the caller thread.
+     *
+     * @param processKey   process key
+     * @param requestInput input parameters
+     * @return MEPM query, holding failure response when it cannot be resolved
+     */
+    private MepmQuery resolveQuery(String processKey, Map<String, String> requestInput) {
+        LOGGER.debug("Execute query directly: processKey: {}", processKey);
+
+        String tenantId = requestInput.get(Constants.TENANT_ID);
+        String accessToken = requestInput.get(Constants.ACCESS_TOKEN);
+        String appInstanceId = requestInput.get(Constants.APP_INSTANCE_ID);
+        String capabilityId = requestInput.get(Constants.MEP_CAPABILITY_ID);
+
+        String uri;
+        HttpMethod method = HttpMethod.GET;
+        switch (processKey) {
+            case "queryKpi":
+                uri = Constants.APPLCM_QUERY_KPI_URI;
+                break;
+            case "queryEdgeCapabilities":
+                uri = capabilityId == null ? Constants.APPLCM_QUERY_CAPABILITIES_URI
+                        : Constants.APPLCM_QUERY_CAPABILITY_URI;
+                break;
+            case "queryApplicationInstance":
+                uri = Constants.APPLCM_QUERY_URI;
+                break;
+            case "appInstanceProfile":
+                uri = Constants.APPLCM_PROFILE_URI;
+                method = HttpMethod.POST;
+                break;
+            default:
+                throw new AppoException("query not supported without process flow: " + processKey);
+        }
+
+        String protocol = Boolean.parseBoolean(isSslEnabled) ? HTTPS_PROTO : HTTP_PROTO;
+        UrlUtil urlUtil = new UrlUtil();
+        String mecHost = requestInput.get(Constants.MEC_HOST);
+        try {
+            if (mecHost == null) {
+                mecHost = appInstanceInfoService.getAppInstanceInfo(tenantId, appInstanceId).getMecHost();
+            }
+            urlUtil.addParams(Constants.TENANT_ID, tenantId);
+            urlUtil.addParams(Constants.MEC_HOST, mecHost);
+            if (appInstanceId != null) {
+                urlUtil.addParams(Constants.APP_INSTANCE_ID, appInstanceId);
+            }
+            if (capabilityId != null) {
+                urlUtil.addParams(Constants.MEP_CAPABILITY_ID, capabilityId);
+            }
+        } catch (IllegalArgumentException | NoSuchElementException e) {
+            LOGGER.error("Failed to resolve url path parameters: {}", e.getMessage());
+            return new MepmQuery(null, null, method, accessToken, new AppoProcessFlowResponse(
+                    "Failed to resolve url path parameters", null, HttpStatus.INTERNAL_SERVER_ERROR.value()));
+        }
+
+        String inventory = protocol + inventoryService + ":" + inventoryServicePort;
+        AppoProcessFlowResponse[] failure = new AppoProcessFlowResponse[1];
+        MepmEndpointCache.HostRecord host = endpointCache.getHost(tenantId, mecHost,
+                () -> readMecHost(inventory, urlUtil, accessToken, failure));
+        if (host == null) {
+            return new MepmQuery(null, null, method, accessToken, failure[0]);
+        }
+        String mepmPort = endpointCache.getMepmPort(host.getMepmIp(),
+                () -> readMepmPort(inventory, host.getMepmIp(), accessToken, failure));
+        if (mepmPort == null) {
+            return new MepmQuery(null, null, method, accessToken, failure[0]);
+        }
+        return new MepmQuery(protocol + host.getMepmIp() + ":" + mepmPort + urlUtil.getUrl(uri), host.getMepmIp(),
+                method, accessToken, null);
+    }
+
+    private AppoProcessFlowResponse unwrap(MepmQuery query, AppoProcessFlowResponse response) {
+        if (response.getResponseCode() == HttpStatus.OK.value()
+                && !query.url.contains("/kpi") && !query.url.contains("/profile")) {
+            response.setResponse(ProcessflowAbstractTask.unwrapResponseBody(response.getResponse()));
+        }
+        return response;
+    }
+
+    /**
+     * Reads MEPM IP of MEC host from inventory.
+     *
+     * @param inventory   inventory base url
+     * @param urlUtil     url parameters holding tenant and MEC host
+     * @param accessToken access token
+     * @param failure     holds failure response when host cannot be read
+     * @return MEC host record, null on failure
+     */
+    private MepmEndpointCache.HostRecord readMecHost(String inventory, UrlUtil urlUtil, String accessToken,
+                                                     AppoProcessFlowResponse[] failure) {
+        AppoProcessFlowResponse response = send(inventory + urlUtil.getUrl(Constants.INVENTORY_MEC_HOST_URI),
+                HttpMethod.GET, accessToken);
+        if (response.getResponseCode() != HttpStatus.OK.value()) {
+            failure[0] = response;
+            return null;
+        }
+        MepmEndpointCache.HostRecord host = response.getResponse() == null ? null
+                : MepmEndpointCache.HostRecord.fromInventory(
+                        new JsonParser().parse(response.getResponse()).getAsJsonObject());
+        if (host == null) {
+            LOGGER.error("MEPM IP not configured in host");
+            failure[0] = new AppoProcessFlowResponse("MEPM IP not configured in host", null,
+                    HttpStatus.INTERNAL_SERVER_ERROR.value());
+        }
+        return host;
+    }
+
+    /**
+     * Reads MEPM port from inventory.
+     *
+     * @param inventory   inventory base url
+     * @param mepmIp      MEPM IP
+     * @param accessToken access token
+     * @param failure     holds failure response when port cannot be read
+     * @return MEPM port, null on failure
+     */
+    private String readMepmPort(String inventory, String mepmIp, String accessToken,
+                                AppoProcessFlowResponse[] failure) {
+        UrlUtil mepmUrlUtil = new UrlUtil();
+        mepmUrlUtil.addParams(Constants.MEPM_IP, mepmIp);
+        AppoProcessFlowResponse response = send(inventory + mepmUrlUtil.getUrl(Constants.INVENTORY_MEPM_URI),
+                HttpMethod.GET, accessToken);
+        if (response.getResponseCode() != HttpStatus.OK.value()) {
+            failure[0] = response;
+            return null;
+        }
+        JsonElement mepmPort = getField(response.getResponse(), "mepmPort");
+        if (mepmPort == null) {
+            LOGGER.error("MEPM port not found in response");
+            failure[0] = new AppoProcessFlowResponse("MEPM port not found", null,
+                    HttpStatus.INTERNAL_SERVER_ERROR.value());
+            return null;
+        }
+        return mepmPort.getAsString();
+    }
+
+    private JsonElement getField(String body, String name) {
+        if (body == null) {
+            return null;
+        }
+        JsonObject jsonObject = new JsonParser().parse(body).getAsJsonObject();
+        return jsonObject.get(name);
+    }
+
+    private AppoProcessFlowResponse send(String url, HttpMethod method, String accessToken) {
+        return send(url, method, accessToken, () -> { }, null);
+    }
+
+    private AppoProcessFlowResponse send(String url, HttpMethod method, String accessToken,
+                                         Runnable onConnectFailure, String guardedEndpoint) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(Constants.ACCESS_TOKEN, accessToken);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        try {
+            LOGGER.info("{}: {}", method, url);
+            Supplier<ResponseEntity<String>> request = () -> restTemplate.exchange(url, method,
+                    new HttpEntity<>(headers), String.class);
+            ResponseEntity<String> response = guardedEndpoint == null ? request.get()
+                    : endpointGuard.execute(guardedEndpoint, request);
+            if (!HttpStatus.OK.equals(response.getStatusCode())) {
+                LOGGER.info("Response: method: {} URL: {} Failed: {}", method, url, response.getStatusCode());
+                return new AppoProcessFlowResponse(url, null, response.getStatusCodeValue());
+            }
+            return new AppoProcessFlowResponse(response.getBody(), null, HttpStatus.OK.value());
+        } catch (AppoEndpointUnavailableException ex) {
+            LOGGER.error(ex.getMessage());
+            onConnectFailure.run();
+            return new AppoProcessFlowResponse(ex.getMessage(), null, HttpStatus.SERVICE_UNAVAILABLE.value());
+        } catch (ResourceAccessException ex) {
+            LOGGER.error(Constants.FAILED_TO_CONNECT + "{}", ex.getMessage());
+            onConnectFailure.run();
+            return new AppoProcessFlowResponse(url + Constants.FAILED_TO_CONNECT + ex.getMessage(), null,
+                    HttpStatus.INTERNAL_SERVER_ERROR.value());
+        } catch (HttpStatusCodeException ex) {
+            LOGGER.error("failure response from remote entity: {}", ex.getResponseBodyAsString());
+            return new AppoProcessFlowResponse(ex.getResponseBodyAsString(), null, ex.getRawStatusCode());
+        }
+    }
+
+    private static final class MepmQuery {
+        private final String url;
+        private final String mepmIp;
+        private final HttpMethod method;
+        private final String accessToken;
+        private final AppoProcessFlowResponse failure;
+
+        private MepmQuery(String url, String mepmIp, HttpMethod method, String accessToken,
+                          AppoProcessFlowResponse failure) {
+            this.url = url;
+            this.mepmIp = mepmIp;
+            this.method = method;
+            this.accessToken = accessToken;
+            this.failure = failure;
+        }
+    }
+}
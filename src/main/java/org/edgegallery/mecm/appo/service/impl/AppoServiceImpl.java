@@ -16,11 +16,13 @@ package org.edgegallery.mecm.appo.service.impl;
 import com.google.gson.Gson;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import org.edgegallery.mecm.appo.apihandler.dto.AppInstantiateReqParam;
 import org.edgegallery.mecm.appo.apihandler.dto.BatchCreateParam;
@@ -37,7 +39,11 @@ import org.edgegallery.mecm.appo.model.AppRuleTask;
 import org.edgegallery.mecm.appo.service.AppInstanceInfoService;
 import org.edgegallery.mecm.appo.service.AppoProcessFlowResponse;
 import org.edgegallery.mecm.appo.service.AppoProcessflowService;
+import org.edgegallery.mecm.appo.service.AppoQueryService;
 import org.edgegallery.mecm.appo.service.AppoService;
+import org.edgegallery.mecm.appo.service.AsyncAdmissionController;
+import org.edgegallery.mecm.appo.service.OperationLane;
+import org.edgegallery.mecm.appo.utils.AppInstanceDependencyGraph;
 import org.edgegallery.mecm.appo.utils.AppoResponse;
 import org.edgegallery.mecm.appo.utils.AppoV2Response;
 import org.edgegallery.mecm.appo.utils.Constants;
@@ -57,11 +63,24 @@ public class AppoServiceImpl implements AppoService {
     private static final String REQUEST_ACCEPTED = "Accepted";
     private AppoProcessflowService processflowService;
     private AppInstanceInfoService appInstanceInfoService;
-
+    private AppoQueryService queryService;
+    private AsyncAdmissionController admissionController;
+
+    /**
+     * Creates application orchestrator service.
+     *
+     * @param processflowService     process flow service
+     * @param appInstanceInfoService application instance info service
+     * @param queryService           direct query service
+     * @param admissionController    async admission controller
+     */
     @Autowired
-    public AppoServiceImpl(AppoProcessflowService processflowService, AppInstanceInfoService appInstanceInfoService) {
+    public AppoServiceImpl(AppoProcessflowService processflowService, AppInstanceInfoService appInstanceInfoService,
+                           AppoQueryService queryService, AsyncAdmissionController admissionController) {
         this.processflowService = processflowService;
         this.appInstanceInfoService = appInstanceInfoService;
+        this.queryService = queryService;
+        this.admissionController = admissionController;
     }
 
     @Override
@@ -98,26 +117,29 @@ public class AppoServiceImpl implements AppoService {
         requestBodyParam.put(Constants.APP_INSTANCE_ID, appInstanceID);
         requestBodyParam.put(Constants.ACCESS_TOKEN, accessToken);
 
-        AppInstanceInfo appInstInfo = new AppInstanceInfo();
-        appInstInfo.setAppInstanceId(appInstanceID);
-        appInstInfo.setAppPackageId(createParam.getAppPackageId());
-        appInstInfo.setTenant(tenantId);
-        appInstInfo.setAppId(createParam.getAppId());
-        appInstInfo.setAppName(createParam.getAppName());
-        appInstInfo.setAppDescriptor(createParam.getAppInstanceDescription());
-        appInstInfo.setMecHost(createParam.getMecHost());
-        appInstInfo.setOperationalStatus(Constants.OPER_STATUS_CREATING);
-        appInstanceInfoService.createAppInstanceInfo(tenantId, appInstInfo);
-
-        requestBodyParam.put(Constants.APPRULE_TASK_ID, appInstanceID);
-        AppRuleTask appRuleTaskInfo = new AppRuleTask();
-        appRuleTaskInfo.setAppRuleTaskId(appInstanceID);
-        appRuleTaskInfo.setTenant(tenantId);
-        appRuleTaskInfo.setAppInstanceId(appInstanceID);
-        appRuleTaskInfo.setConfigResult(APP_RULE_PROCESSING);
-        appInstanceInfoService.createAppRuleTaskInfo(tenantId, appRuleTaskInfo);
-
-        processflowService.executeProcessAsync("createApplicationInstance", requestBodyParam);
+        try (AsyncAdmissionController.Ticket ticket = admissionController.admit(tenantId,
+                OperationLane.CREATE, "createApplicationInstance")) {
+            AppInstanceInfo appInstInfo = new AppInstanceInfo();
+            appInstInfo.setAppInstanceId(appInstanceID);
+            appInstInfo.setAppPackageId(createParam.getAppPackageId());
+            appInstInfo.setTenant(tenantId);
+            appInstInfo.setAppId(createParam.getAppId());
+            appInstInfo.setAppName(createParam.getAppName());
+            appInstInfo.setAppDescriptor(createParam.getAppInstanceDescription());
+            appInstInfo.setMecHost(createParam.getMecHost());
+            appInstInfo.setOperationalStatus(Constants.OPER_STATUS_CREATING);
+            appInstanceInfoService.createAppInstanceInfo(tenantId, appInstInfo);
+
+            requestBodyParam.put(Constants.APPRULE_TASK_ID, appInstanceID);
+            AppRuleTask appRuleTaskInfo = new AppRuleTask();
+            appRuleTaskInfo.setAppRuleTaskId(appInstanceID);
+            appRuleTaskInfo.setTenant(tenantId);
+            appRuleTaskInfo.setAppInstanceId(appInstanceID);
+            appRuleTaskInfo.setConfigResult(APP_RULE_PROCESSING);
+            appInstanceInfoService.createAppRuleTaskInfo(tenantId, appRuleTaskInfo);
+
+            ticket.submit(() -> processflowService.executeProcessAsync("createApplicationInstance", requestBodyParam));
+        }
 
         Map<String, String> response = new HashMap<>();
         response.put(Constants.APP_INSTANCE_ID, appInstanceID);
@@ -137,9 +159,6 @@ public class AppoServiceImpl implements AppoService {
         batchCreateParam.put(Constants.APP_NAME, createParam.getAppName());
         batchCreateParam.put(Constants.APP_DESCR, createParam.getAppInstanceDescription());
 
-        String hosts = createParam.getMecHost().stream().map(Object::toString).collect(Collectors.joining(","));
-        batchCreateParam.put(Constants.MEC_HOSTS, hosts);
-
         String hwCapabilities = createParam.getHwCapabilities().stream().map(Object::toString)
                 .collect(Collectors.joining(","));
         batchCreateParam.put(Constants.HW_CAPABILITIES, hwCapabilities);
@@ -147,59 +166,69 @@ public class AppoServiceImpl implements AppoService {
         LOGGER.debug("Batch create instance input parameters: {}", batchCreateParam);
 
         List<String> createAppInstanceIds = new LinkedList<>();
+        List<String> createHosts = new LinkedList<>();
         List<BatchResponseDto> response = new LinkedList<>();
-        List<AppInstanceInfo> dbAppInstanceInfos = appInstanceInfoService.getAllAppInstanceInfo(tenantId);
-        for (String host : createParam.getMecHost()) {
-            String appInstanceID = UUID.randomUUID().toString();
-            boolean isAppNameReused = false;
-            for (AppInstanceInfo instInfo : dbAppInstanceInfos) {
-                if (Constants.OPER_STATUS_INSTANTIATED.equals(instInfo.getOperationalStatus())
-                        && host.equals(instInfo.getMecHost())
-                        && instInfo.getAppName().equals(createParam.getAppName())) {
-                    LOGGER.error("cannot re-use app name... {}", createParam.getAppName());
-                    BatchResponseDto batchResp = new BatchResponseDto(appInstanceID, host,
-                            "cannot re-use app name: " + createParam.getAppName());
-                    response.add(batchResp);
-                    isAppNameReused = true;
-                    break;
+        try (AsyncAdmissionController.Ticket ticket = admissionController.admit(tenantId,
+                OperationLane.CREATE, "batchCreateApplicationInstance")) {
+            List<AppInstanceInfo> dbAppInstanceInfos = appInstanceInfoService.getAllAppInstanceInfo(tenantId);
+            for (String host : createParam.getMecHost()) {
+                String appInstanceID = UUID.randomUUID().toString();
+                boolean isAppNameReused = false;
+                for (AppInstanceInfo instInfo : dbAppInstanceInfos) {
+                    if (Constants.OPER_STATUS_INSTANTIATED.equals(instInfo.getOperationalStatus())
+                            && host.equals(instInfo.getMecHost())
+                            && instInfo.getAppName().equals(createParam.getAppName())) {
+                        LOGGER.error("cannot re-use app name... {}", createParam.getAppName());
+                        BatchResponseDto batchResp = new BatchResponseDto(appInstanceID, host,
+                                "cannot re-use app name: " + createParam.getAppName());
+                        response.add(batchResp);
+                        isAppNameReused = true;
+                        break;
+                    }
+                }
+                if (isAppNameReused) {
+                    LOGGER.debug("application name reused, skip create app instance");
+                    continue;
                 }
+
+                createAppInstanceIds.add(appInstanceID);
+                createHosts.add(host);
+
+                BatchResponseDto batchResp = new BatchResponseDto(appInstanceID, host, REQUEST_ACCEPTED);
+                response.add(batchResp);
+
+                AppInstanceInfo createAppInstInfo = new AppInstanceInfo();
+                createAppInstInfo.setAppInstanceId(appInstanceID);
+                createAppInstInfo.setAppPackageId(createParam.getAppPackageId());
+                createAppInstInfo.setTenant(tenantId);
+                createAppInstInfo.setAppId(createParam.getAppId());
+                createAppInstInfo.setAppName(createParam.getAppName());
+                createAppInstInfo.setAppDescriptor(createParam.getAppInstanceDescription());
+                createAppInstInfo.setMecHost(host);
+                createAppInstInfo.setOperationalStatus(Constants.OPER_STATUS_CREATING);
+                appInstanceInfoService.createAppInstanceInfo(tenantId, createAppInstInfo);
+
+                batchCreateParam.put(Constants.APPRULE_TASK_ID, appInstanceID);
+                AppRuleTask appRuleTask = new AppRuleTask();
+                appRuleTask.setAppRuleTaskId(appInstanceID);
+                appRuleTask.setTenant(tenantId);
+                appRuleTask.setAppInstanceId(appInstanceID);
+                appRuleTask.setConfigResult(APP_RULE_PROCESSING);
+                appInstanceInfoService.createAppRuleTaskInfo(tenantId, appRuleTask);
             }
-            if (isAppNameReused) {
-                LOGGER.debug("application name reused, skip create app instance");
-                continue;
+            if (createAppInstanceIds.isEmpty()) {
+                LOGGER.debug("no app instance accepted, skip batch create");
+                return new ResponseEntity<>(new AppoResponse(response), HttpStatus.ACCEPTED);
             }
 
-            createAppInstanceIds.add(appInstanceID);
-
-            BatchResponseDto batchResp = new BatchResponseDto(appInstanceID, host, REQUEST_ACCEPTED);
-            response.add(batchResp);
-
-            AppInstanceInfo createAppInstInfo = new AppInstanceInfo();
-            createAppInstInfo.setAppInstanceId(appInstanceID);
-            createAppInstInfo.setAppPackageId(createParam.getAppPackageId());
-            createAppInstInfo.setTenant(tenantId);
-            createAppInstInfo.setAppId(createParam.getAppId());
-            createAppInstInfo.setAppName(createParam.getAppName());
-            createAppInstInfo.setAppDescriptor(createParam.getAppInstanceDescription());
-            createAppInstInfo.setMecHost(host);
-            createAppInstInfo.setOperationalStatus(Constants.OPER_STATUS_CREATING);
-            appInstanceInfoService.createAppInstanceInfo(tenantId, createAppInstInfo);
-
-            batchCreateParam.put(Constants.APPRULE_TASK_ID, appInstanceID);
-            AppRuleTask appRuleTask = new AppRuleTask();
-            appRuleTask.setAppRuleTaskId(appInstanceID);
-            appRuleTask.setTenant(tenantId);
-            appRuleTask.setAppInstanceId(appInstanceID);
-            appRuleTask.setConfigResult(APP_RULE_PROCESSING);
-            appInstanceInfoService.createAppRuleTaskInfo(tenantId, appRuleTask);
-        }
-        String appInstancesStr = createAppInstanceIds.stream().map(Object::toString)
-                .collect(Collectors.joining(","));
-        batchCreateParam.put(Constants.APP_INSTANCE_IDS, appInstancesStr);
+            batchCreateParam.put(Constants.MEC_HOSTS, String.join(",", createHosts));
+            batchCreateParam.put(Constants.APP_INSTANCE_IDS, String.join(",", createAppInstanceIds));
 
-        batchCreateParam.put(Constants.ACCESS_TOKEN, accessToken);
+            batchCreateParam.put(Constants.ACCESS_TOKEN, accessToken);
 
-        processflowService.executeProcessAsync("batchCreateApplicationInstance", batchCreateParam);
+            ticket.submit(() -> processflowService.executeProcessAsync("batchCreateApplicationInstance",
+                    batchCreateParam));
+        }
 
         return new ResponseEntity<>(new AppoResponse(response), HttpStatus.ACCEPTED);
     }
@@ -235,7 +264,7 @@ public class AppoServiceImpl implements AppoService {
                     new Gson().toJson(instantiationParams.getParameters()));
         }
 
-        processflowService.executeProcessAsync("instantiateApplicationInstance", requestBodyParam);
+        executeProcessAsync(tenantId, OperationLane.INSTANTIATE, "instantiateApplicationInstance", requestBodyParam);
 
         return new ResponseEntity<>(new AppoResponse(HttpStatus.ACCEPTED), HttpStatus.ACCEPTED);
     }
@@ -283,10 +312,10 @@ public class AppoServiceImpl implements AppoService {
 
             LOGGER.debug("Batch instantiate input params: {}", batchAppInstsParam);
 
-            batchAppInstsParam.put(Constants.BATCH_INSTANTIATION_PARAMS, new Gson().toJson(batchInstsParam));
             batchAppInstsParam.put(Constants.ACCESS_TOKEN, accessToken);
 
-            processflowService.executeProcessAsync("batchInstantiateApplicationInstance", batchAppInstsParam);
+            executeProcessAsync(tenantId, OperationLane.INSTANTIATE, "batchInstantiateApplicationInstance",
+                    batchAppInstsParam);
         }
         return new ResponseEntity<>(new AppoResponse(response), HttpStatus.ACCEPTED);
     }
@@ -314,7 +343,7 @@ public class AppoServiceImpl implements AppoService {
         requestBodyParam.put(Constants.ACCESS_TOKEN, accessToken);
 
         AppoProcessFlowResponse response =
-                processflowService.executeProcessSync("queryApplicationInstance", requestBodyParam);
+                executeQuery("queryApplicationInstance", requestBodyParam);
         LOGGER.debug("Query application info response : {} ", response.getResponse());
 
         return new ResponseEntity<>(new AppoResponse(response.getResponse()),
@@ -326,43 +355,51 @@ public class AppoServiceImpl implements AppoService {
                                                              BatchTerminateReqParam appInstanceParam) {
         LOGGER.debug("Batch application terminate request received...");
 
-        List<String> terminateAppInstIds = new LinkedList<>();
-        List<BatchResponseDto> response = new LinkedList<>();
+        Map<String, String> hosts = new LinkedHashMap<>();
+        Map<String, String> notFound = new HashMap<>();
         for (String appInstanceId : appInstanceParam.getAppInstanceIds()) {
             try {
                 AppInstanceInfo instanceInfo = appInstanceInfoService.getAppInstanceInfo(tenantId, appInstanceId);
-                List<AppInstanceDependency> dependencies = appInstanceInfoService
-                        .getDependenciesByDependencyAppInstanceId(tenantId, appInstanceId);
-                BatchResponseDto resp;
-                if (!dependencies.isEmpty()) {
-                    LOGGER.error("terminate failed, application instance depended by others");
-                    resp = new BatchResponseDto(appInstanceId, instanceInfo.getMecHost(),
-                            "application instance depended by others");
-                    response.add(resp);
-                } else {
-                    resp = new BatchResponseDto(appInstanceId, instanceInfo.getMecHost(),
-                            REQUEST_ACCEPTED);
-                    response.add(resp);
-                    terminateAppInstIds.add(appInstanceId);
-                }
+                hosts.put(appInstanceId, instanceInfo.getMecHost());
             } catch (NoSuchElementException ex) {
-                BatchResponseDto batchResp = new BatchResponseDto(appInstanceId, null, ex.getMessage());
-                response.add(batchResp);
+                notFound.put(appInstanceId, ex.getMessage());
+            }
+        }
+
+        AppInstanceDependencyGraph graph = AppInstanceDependencyGraph.build(hosts.keySet(),
+            appInstanceId -> appInstanceInfoService.getDependenciesByDependencyAppInstanceId(tenantId, appInstanceId)
+                    .stream().map(AppInstanceDependency::getAppInstanceId).collect(Collectors.toList()));
+
+        List<BatchResponseDto> response = new LinkedList<>();
+        for (String appInstanceId : appInstanceParam.getAppInstanceIds()) {
+            if (notFound.containsKey(appInstanceId)) {
+                response.add(new BatchResponseDto(appInstanceId, null, notFound.get(appInstanceId)));
+            } else if (graph.getRejected().containsKey(appInstanceId)) {
+                LOGGER.error("terminate failed, app instance {}: {}", appInstanceId,
+                        graph.getRejected().get(appInstanceId));
+                response.add(new BatchResponseDto(appInstanceId, hosts.get(appInstanceId),
+                        graph.getRejected().get(appInstanceId)));
+            } else {
+                response.add(new BatchResponseDto(appInstanceId, hosts.get(appInstanceId), REQUEST_ACCEPTED));
             }
         }
 
+        List<String> terminateAppInstIds = graph.getAccepted();
+        if (terminateAppInstIds.isEmpty()) {
+            LOGGER.debug("no app instance accepted, skip batch terminate");
+            return new ResponseEntity<>(new AppoResponse(response), HttpStatus.ACCEPTED);
+        }
+
         Map<String, String> terminateReqParam = new HashMap<>();
         terminateReqParam.put(Constants.TENANT_ID, tenantId);
-
-        String terminateAppInstsStr = terminateAppInstIds.stream().map(Object::toString)
-                .collect(Collectors.joining(","));
-        terminateReqParam.put(Constants.APP_INSTANCE_IDS, terminateAppInstsStr);
+        terminateReqParam.put(Constants.APP_INSTANCE_IDS, String.join(",", terminateAppInstIds));
+        terminateReqParam.put(Constants.TERMINATE_PLAN, graph.toJson());
 
         LOGGER.debug("Batch terminate input params: {}", terminateReqParam);
 
         terminateReqParam.put(Constants.ACCESS_TOKEN, accessToken);
 
-        processflowService.executeProcessAsync("batchTerminateApplicationInstance", terminateReqParam);
+        executeProcessAsync(tenantId, OperationLane.TERMINATE, "batchTerminateApplicationInstance", terminateReqParam);
 
         return new ResponseEntity<>(new AppoResponse(response), HttpStatus.ACCEPTED);
     }
@@ -393,28 +430,30 @@ public class AppoServiceImpl implements AppoService {
         requestBodyParam.put(Constants.ACCESS_TOKEN, accessToken);
         requestBodyParam.put(Constants.APPRULE_TASK_ID, appInstanceId);
 
-        processflowService.executeProcessAsync("terminateApplicationInstance", requestBodyParam);
+        executeProcessAsync(tenantId, OperationLane.TERMINATE, "terminateApplicationInstance", requestBodyParam);
 
         return new ResponseEntity<>(new AppoResponse(HttpStatus.ACCEPTED), HttpStatus.ACCEPTED);
     }
 
     @Override
-    public ResponseEntity<AppoV2Response> queryKpi(String accessToken, String tenantId, String hostIp) {
+    public CompletableFuture<ResponseEntity<AppoV2Response>> queryKpi(String accessToken, String tenantId,
+                                                                      String hostIp) {
         LOGGER.debug("Query KPI request received...");
 
         return platformInfoKpiQuery("queryKpi", accessToken, tenantId, hostIp, null);
     }
 
     @Override
-    public ResponseEntity<String> queryEdgehostCapabilities(String accessToken, String tenantId, String hostIp,
-                                                                  String capabilityId) {
+    public CompletableFuture<ResponseEntity<String>> queryEdgehostCapabilities(String accessToken, String tenantId,
+                                                                               String hostIp, String capabilityId) {
         LOGGER.debug("Query MEP capabilities request received...");
 
         return platformInfoQuery("queryEdgeCapabilities", accessToken, tenantId, hostIp, capabilityId);
     }
 
-    private ResponseEntity<String> platformInfoQuery(String process, String accessToken, String tenantId,
-                                                           String hostIp, String capabilityId) {
+    private CompletableFuture<ResponseEntity<String>> platformInfoQuery(String process, String accessToken,
+                                                                        String tenantId, String hostIp,
+                                                                        String capabilityId) {
 
         Map<String, String> requestBodyParam = new HashMap<>();
         requestBodyParam.put(Constants.TENANT_ID, tenantId);
@@ -427,19 +466,22 @@ public class AppoServiceImpl implements AppoService {
 
         requestBodyParam.put(Constants.ACCESS_TOKEN, accessToken);
 
-        AppoProcessFlowResponse response = processflowService.executeProcessSync(process, requestBodyParam);
-        LOGGER.debug("Query response : {} ", response.getResponse());
+        return executeQueryAsync(process, requestBodyParam).thenApply(response -> {
+            LOGGER.debug("Query response : {} ", response.getResponse());
 
-        if (response.getResponseCode() == HttpStatus.OK.value()) {
-            return new ResponseEntity<>(response.getResponse(), HttpStatus.OK);
-        }
+            if (response.getResponseCode() == HttpStatus.OK.value()) {
+                return new ResponseEntity<>(response.getResponse(), HttpStatus.OK);
+            }
 
-        return new ResponseEntity<>(response.getResponse(),
-                HttpStatus.valueOf(response.getResponseCode()));
+            return new ResponseEntity<>(response.getResponse(),
+                    HttpStatus.valueOf(response.getResponseCode()));
+        });
     }
 
-    private ResponseEntity<AppoV2Response> platformInfoKpiQuery(String process, String accessToken, String tenantId,
-                                                        String hostIp, String capabilityId) {
+    private CompletableFuture<ResponseEntity<AppoV2Response>> platformInfoKpiQuery(String process,
+                                                                                   String accessToken,
+                                                                                   String tenantId, String hostIp,
+                                                                                   String capabilityId) {
 
         Map<String, String> requestBodyParam = new HashMap<>();
         requestBodyParam.put(Constants.TENANT_ID, tenantId);
@@ -452,18 +494,19 @@ public class AppoServiceImpl implements AppoService {
 
         requestBodyParam.put(Constants.ACCESS_TOKEN, accessToken);
 
-        AppoProcessFlowResponse response = processflowService.executeProcessSync(process, requestBodyParam);
-        LOGGER.debug("Query response : {} ", response.getResponse());
+        return executeQueryAsync(process, requestBodyParam).thenApply(response -> {
+            LOGGER.debug("Query response : {} ", response.getResponse());
 
-        AppoV2Response appoV2Response = new Gson().fromJson(response.getResponse(), AppoV2Response.class);
+            AppoV2Response appoV2Response = new Gson().fromJson(response.getResponse(), AppoV2Response.class);
 
-        if (response.getResponseCode() == HttpStatus.OK.value()) {
+            if (response.getResponseCode() == HttpStatus.OK.value()) {
 
-            return new ResponseEntity<>(appoV2Response, HttpStatus.OK);
-        }
+                return new ResponseEntity<>(appoV2Response, HttpStatus.OK);
+            }
 
-        return new ResponseEntity<>(appoV2Response,
-                HttpStatus.valueOf(response.getResponseCode()));
+            return new ResponseEntity<>(appoV2Response,
+                    HttpStatus.valueOf(response.getResponseCode()));
+        });
     }
 
     @Override
@@ -496,14 +539,17 @@ public class AppoServiceImpl implements AppoService {
         String appRuleTaskId = UUID.randomUUID().toString();
         requestBodyParam.put(Constants.APPRULE_TASK_ID, appRuleTaskId);
 
-        AppRuleTask appRuleTaskInfo = new AppRuleTask();
-        appRuleTaskInfo.setAppRuleTaskId(appRuleTaskId);
-        appRuleTaskInfo.setTenant(tenantId);
-        appRuleTaskInfo.setAppInstanceId(appInstanceId);
-        appRuleTaskInfo.setConfigResult(APP_RULE_PROCESSING);
-        appInstanceInfoService.createAppRuleTaskInfo(tenantId, appRuleTaskInfo);
+        try (AsyncAdmissionController.Ticket ticket = admissionController.admit(tenantId,
+                OperationLane.APP_RULE, "configureAppRules")) {
+            AppRuleTask appRuleTaskInfo = new AppRuleTask();
+            appRuleTaskInfo.setAppRuleTaskId(appRuleTaskId);
+            appRuleTaskInfo.setTenant(tenantId);
+            appRuleTaskInfo.setAppInstanceId(appInstanceId);
+            appRuleTaskInfo.setConfigResult(APP_RULE_PROCESSING);
+            appInstanceInfoService.createAppRuleTaskInfo(tenantId, appRuleTaskInfo);
 
-        processflowService.executeProcessAsync("configureAppRules", requestBodyParam);
+            ticket.submit(() -> processflowService.executeProcessAsync("configureAppRules", requestBodyParam));
+        }
         Map<String, String> response = new HashMap<>();
         response.put(Constants.APPRULE_TASK_ID, appRuleTaskId);
         return new ResponseEntity<>(new AppoResponse(response), HttpStatus.ACCEPTED);
@@ -533,7 +579,7 @@ public class AppoServiceImpl implements AppoService {
         requestBodyParam.put(Constants.ACCESS_TOKEN, accessToken);
 
         AppoProcessFlowResponse response =
-                processflowService.executeProcessSync("appInstanceProfile", requestBodyParam);
+                executeQuery("appInstanceProfile", requestBodyParam);
         LOGGER.debug("application instance profile response : {} ", response.getResponse());
 
         AppoV2Response appoV2Response = new Gson().fromJson(response.getResponse(), AppoV2Response.class);
@@ -544,4 +590,49 @@ public class AppoServiceImpl implements AppoService {
 
         return new ResponseEntity<>(appoV2Response, HttpStatus.valueOf(response.getResponseCode()));
     }
+
+    /**
+     * Executes process flow asynchronously once admitted.
+     *
+     * @param tenantId     tenant ID
+     * @param operation    operation lane
+     * @param processKey   process key
+     * @param requestInput input parameters
+     */
+    private void executeProcessAsync(String tenantId, OperationLane operation, String processKey,
+                                     Map<String, String> requestInput) {
+        try (AsyncAdmissionController.Ticket ticket = admissionController.admit(tenantId, operation, processKey)) {
+            ticket.submit(() -> processflowService.executeProcessAsync(processKey, requestInput));
+        }
+    }
+
+    /**
+     * Executes read only query, directly when configured for the query, otherwise through process flow.
+     *
+     * @param processKey   process key
+     * @param requestInput input parameters
+     * @return query response
+     */
+    private AppoProcessFlowResponse executeQuery(String processKey, Map<String, String> requestInput) {
+        if (queryService.isDirect(processKey)) {
+            return queryService.executeQuery(processKey, requestInput);
+        }
+        return processflowService.executeProcessSync(processKey, requestInput);
+    }
+
+    /**
+     * Executes read only query, direct queries wait on MEPM without holding the calling thread when non-blocking
+     * queries are enabled, process flow queries complete on the calling thread.
+     *
+     * @param processKey   process key
+     * @param requestInput input parameters
+     * @return future of query response
+     */
+    private CompletableFuture<AppoProcessFlowResponse> executeQueryAsync(String processKey,
+                                                                        Map<String, String> requestInput) {
+        if (queryService.isDirect(processKey)) {
+            return queryService.executeQueryAsync(processKey, requestInput);
+        }
+        return CompletableFuture.completedFuture(processflowService.executeProcessSync(processKey, requestInput));
+    }
 }
@@ -0,0 +1,65 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service.impl;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.edgegallery.mecm.appo.service.BatchingInventoryWriter;
+import org.edgegallery.mecm.appo.service.InventoryBulkClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Inventory bulk client for inventories without a bulk API, sends each record of a batch as its own request,
+ * records of a batch concurrently.
+ */
+@Component
+public class PerRecordInventoryBulkClient implements InventoryBulkClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PerRecordInventoryBulkClient.class);
+
+    private final Executor executor;
+
+    /**
+     * Creates per record inventory bulk client.
+     *
+     * @param executor executor records are sent on
+     */
+    public PerRecordInventoryBulkClient(@Qualifier("inventoryRecordWriteExecutor") Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void write(String tenantId, List<BatchingInventoryWriter.ApplicationWrite> writes) {
+        LOGGER.debug("writing {} application records of tenant {} concurrently", writes.size(), tenantId);
+        CompletableFuture<?>[] sent = new CompletableFuture<?>[writes.size()];
+        for (int i = 0; i < sent.length; i++) {
+            BatchingInventoryWriter.ApplicationWrite write = writes.get(i);
+            sent[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    write.complete(write.send());
+                } catch (RuntimeException e) {
+                    write.fail(e);
+                }
+            }, executor);
+        }
+        CompletableFuture.allOf(sent).join();
+    }
+}
@@ -116,7 +116,7 @@ public class RestServiceImpl implements RestService {
             responseEntity = restTemplate.exchange(url, method, httpEntity, String.class);
         } catch (RestClientException e) {
             throw new AppoException("Failure while sending request with error message: "
-                    + e.getLocalizedMessage());
+                    + e.getLocalizedMessage(), e);
         }
         LOGGER.info("Send request status code {}, value {} ", responseEntity.getStatusCodeValue(),
                 responseEntity.getBody());
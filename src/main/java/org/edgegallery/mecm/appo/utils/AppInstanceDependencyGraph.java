@@ -0,0 +1,172 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.utils;
+
+import com.google.gson.Gson;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Termination plan for a set of application instances, ordered by their dependencies.
+ * An instance is terminated only after every requested instance depending on it, instances
+ * within one level do not depend on each other.
+ */
+public final class AppInstanceDependencyGraph {
+
+    public static final String DEPENDED_BY_OTHERS = "application instance depended by others";
+    public static final String DEPENDENCY_CYCLE = "application instance in dependency cycle";
+
+    private final List<List<String>> levels = new ArrayList<>();
+    private final Map<String, Set<String>> dependents = new HashMap<>();
+    private final Map<String, String> rejected = new LinkedHashMap<>();
+
+    private AppInstanceDependencyGraph() {
+    }
+
+    /**
+     * Builds termination plan for requested application instances.
+     *
+     * @param appInstanceIds requested application instance IDs
+     * @param dependentsOf   retrieves IDs of application instances depending on given instance
+     * @return dependency graph
+     */
+    public static AppInstanceDependencyGraph build(Collection<String> appInstanceIds,
+                                                   Function<String, Collection<String>> dependentsOf) {
+        AppInstanceDependencyGraph graph = new AppInstanceDependencyGraph();
+        Set<String> requested = new LinkedHashSet<>(appInstanceIds);
+
+        for (String appInstanceId : requested) {
+            Set<String> instanceDependents = new LinkedHashSet<>(dependentsOf.apply(appInstanceId));
+            instanceDependents.remove(appInstanceId);
+            graph.dependents.put(appInstanceId, instanceDependents);
+            if (!requested.containsAll(instanceDependents)) {
+                graph.rejected.put(appInstanceId, DEPENDED_BY_OTHERS);
+            }
+        }
+
+        // Instances required by a rejected instance must stay as well
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (String appInstanceId : requested) {
+                if (!graph.rejected.containsKey(appInstanceId) && graph.hasRejectedDependent(appInstanceId)) {
+                    graph.rejected.put(appInstanceId, DEPENDED_BY_OTHERS);
+                    changed = true;
+                }
+            }
+        }
+
+        Set<String> remaining = new LinkedHashSet<>(requested);
+        remaining.removeAll(graph.rejected.keySet());
+        while (!remaining.isEmpty()) {
+            List<String> level = new ArrayList<>();
+            for (String appInstanceId : remaining) {
+                if (Collections.disjoint(graph.dependents.get(appInstanceId), remaining)) {
+                    level.add(appInstanceId);
+                }
+            }
+            if (level.isEmpty()) {
+                for (String appInstanceId : remaining) {
+                    graph.rejected.put(appInstanceId, DEPENDENCY_CYCLE);
+                }
+                break;
+            }
+            remaining.removeAll(level);
+            graph.levels.add(level);
+        }
+        graph.dependents.keySet().retainAll(graph.getAccepted());
+        return graph;
+    }
+
+    /**
+     * Restores dependency graph from JSON.
+     *
+     * @param json JSON representation
+     * @return dependency graph
+     */
+    public static AppInstanceDependencyGraph fromJson(String json) {
+        return new Gson().fromJson(json, AppInstanceDependencyGraph.class);
+    }
+
+    /**
+     * Converts dependency graph to JSON.
+     *
+     * @return JSON representation
+     */
+    public String toJson() {
+        return new Gson().toJson(this);
+    }
+
+    /**
+     * Retrieves termination levels, first level holds instances no other requested instance depends on.
+     *
+     * @return termination levels
+     */
+    public List<List<String>> getLevels() {
+        return levels;
+    }
+
+    /**
+     * Retrieves accepted application instances in termination order.
+     *
+     * @return application instance IDs
+     */
+    public List<String> getAccepted() {
+        List<String> accepted = new ArrayList<>();
+        for (List<String> level : levels) {
+            accepted.addAll(level);
+        }
+        return accepted;
+    }
+
+    /**
+     * Retrieves rejected application instances with rejection reason.
+     *
+     * @return rejected application instances
+     */
+    public Map<String, String> getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Retrieves requested application instances depending on given instance.
+     *
+     * @param appInstanceId application instance ID
+     * @return dependent application instance IDs
+     */
+    public Set<String> getDependents(String appInstanceId) {
+        Set<String> instanceDependents = dependents.get(appInstanceId);
+        return instanceDependents == null ? Collections.emptySet() : instanceDependents;
+    }
+
+    private boolean hasRejectedDependent(String appInstanceId) {
+        for (String dependent : dependents.get(appInstanceId)) {
+            if (rejected.containsKey(dependent)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
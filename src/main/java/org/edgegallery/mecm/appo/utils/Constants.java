@@ -49,8 +49,10 @@ public final class Constants {
     public static final String APP_INSTANCE_IDS = "app_instance_ids";
     public static final String APP_ID = "app_id";
     public static final String ACCESS_TOKEN = "access_token";
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
     public static final String INSTANTIATION_PARAMS = "instantiation_params";
     public static final String BATCH_INSTANTIATION_PARAMS = "batch_instantiation_params";
+    public static final String TERMINATE_PLAN = "terminate_plan";
     public static final String MEC_HOST_IP = "host_ip";
     public static final String MEPM_IP = "mepm_ip";
     public static final String MEPM_PORT = "mepm_port";
@@ -63,7 +65,9 @@ public final class Constants {
     public static final String INVENTORY_APP_RULES = "inventory_app_rules";
     public static final String UPDATED_APP_RULES = "updated_app_rules";
     public static final String APP_RULE_ACTION = "app_rule_action";
+    public static final String APP_RULES_VERSION = "app_rules_version";
     public static final String APPRULE_TASK_ID = "apprule_task_id";
+    public static final String BATCH_CHILD = "batch_child";
 
     public static final String APM_DOWNLOAD_URI = "/apm/v1/tenants/{tenant_id}/packages/{app_package_id}/download";
     public static final String INVENTORY_MEC_HOST_URI = "/inventory/v1/tenants/{tenant_id}/mechosts/{mec_host}";
@@ -100,6 +104,7 @@ public final class Constants {
     public static final String PROCESS_FLOW_SUCCESS = "200";
     public static final String PROCESS_FLOW_ERROR = "500";
     public static final String PROCESS_FLOW_ERROR_400 = "400";
+    public static final String PROCESS_FLOW_ERROR_503 = "503";
     public static final String PROCESS_RECORD_NOT_FOUND = "404";
     public static final String PROCESS_FLOW_RESP_CODE = "ProcessflowResponseCode";
     public static final String PROCESS_FLOW_RESP = "ProcessflowResponse";
@@ -19,9 +19,11 @@ package org.edgegallery.mecm.appo.utils;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import org.edgegallery.mecm.appo.exception.AppoException;
 import org.edgegallery.mecm.appo.exception.ResourceMgrException;
+import org.edgegallery.mecm.appo.service.HedgedInventoryReader;
+import org.edgegallery.mecm.appo.service.MepmEndpointCache;
 import org.edgegallery.mecm.appo.service.impl.RestServiceImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,6 +32,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
 
 @Component
 public final class ResourceMgrServiceHelper {
@@ -45,6 +48,12 @@ public final class ResourceMgrServiceHelper {
     @Autowired
     private RestServiceImpl restService;
 
+    @Autowired
+    private HedgedInventoryReader inventoryReader;
+
+    @Autowired
+    private MepmEndpointCache endpointCache;
+
     /**
      * Gets MEPM configurations from inventory.
      *
@@ -59,16 +68,18 @@ public final class ResourceMgrServiceHelper {
                 .append(inventoryServicePort).append("/inventory/v1").append("/tenants/").append(tenantId)
             .append("/mechosts/").append(hostIp).toString();
 
-        ResponseEntity<String> response = restService.sendRequest(url, HttpMethod.GET, accessToken, null);
-
-        LOGGER.info("response: {}", response);
-        JsonObject jsonObject = new JsonParser().parse(response.getBody()).getAsJsonObject();
-        JsonElement mepmIp = jsonObject.get("mepmIp");
-        if (mepmIp == null) {
-            throw new ResourceMgrException("MEPM mepmIp is null for host " + hostIp);
-        }
-
-        return getInventoryMepmCfg(mepmIp.getAsString(), accessToken);
+        MepmEndpointCache.HostRecord host = endpointCache.getHost(tenantId, hostIp, () -> {
+            ResponseEntity<String> response = readInventory("mecHost", url, accessToken);
+            LOGGER.info("response: {}", response);
+            MepmEndpointCache.HostRecord mecHost = MepmEndpointCache.HostRecord.fromInventory(
+                    new JsonParser().parse(response.getBody()).getAsJsonObject());
+            if (mecHost == null) {
+                throw new ResourceMgrException("MEPM mepmIp is null for host " + hostIp);
+            }
+            return mecHost;
+        });
+
+        return getInventoryMepmCfg(host.getMepmIp(), accessToken);
     }
 
     /**
@@ -84,20 +95,28 @@ public final class ResourceMgrServiceHelper {
         String url = new StringBuilder(inventoryService).append(":")
                 .append(inventoryServicePort).append("/inventory/v1").append("/mepms/").append(hostIp).toString();
 
-        ResponseEntity<String> response = restService.sendRequest(url, HttpMethod.GET, accessToken, null);
-
-        LOGGER.info("response: {}", response);
+        String mepmPort = endpointCache.getMepmPort(hostIp, () -> {
+            ResponseEntity<String> response = readInventory("mepm", url, accessToken);
+            LOGGER.info("response: {}", response);
+            JsonElement port = new JsonParser().parse(response.getBody()).getAsJsonObject().get("mepmPort");
+            if (port == null) {
+                throw new ResourceMgrException("MEPM port is null for host " + hostIp);
+            }
+            return port.getAsString();
+        });
+
+        return hostIp + ":" + mepmPort;
+    }
 
-        JsonObject jsonObject = new JsonParser().parse(response.getBody()).getAsJsonObject();
-        JsonElement mepmPort = jsonObject.get("mepmPort");
-        if (mepmPort == null) {
-            throw new ResourceMgrException("MEPM port is null for host " + hostIp);
+    private ResponseEntity<String> readInventory(String resource, String url, String accessToken) {
+        try {
+            return inventoryReader.read(resource, url + "#" + accessToken,
+                    () -> restService.sendRequest(url, HttpMethod.GET, accessToken, null));
+        } catch (ResourceAccessException e) {
+            throw new AppoException("Failure while sending request with error message: " + e.getMessage());
         }
-
-        return hostIp + ":" + mepmPort.getAsString();
     }
 
-
     /**
      * Convert Object to JSON.
      * @throws ResourceMgrException exception if failed to get MEPM config details
@@ -0,0 +1,119 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.utils;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Unwraps data or message from V2 format response body by streaming over its top level fields, without
+ * building a JSON tree of the body.
+ */
+public final class ResponseBodyUnwrapper {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResponseBodyUnwrapper.class);
+
+    private static final String EMPTY_BODY = "{}";
+
+    private ResponseBodyUnwrapper() {
+    }
+
+    /**
+     * Unwraps data or message from V2 format response body.
+     *
+     * @param body response body
+     * @return data, message when data is null, body itself when it has no data field
+     */
+    public static String unwrap(String body) {
+        if (body == null || body.isEmpty()) {
+            return EMPTY_BODY;
+        }
+        String unwrapped = unwrap(new StringReader(body));
+        return unwrapped == null ? body : unwrapped;
+    }
+
+    /**
+     * Unwraps data or message from V2 format response body, decoding body only once.
+     *
+     * @param body    response body bytes
+     * @param charset body charset
+     * @return data, message when data is null, body itself when it has no data field
+     */
+    public static String unwrap(byte[] body, Charset charset) {
+        if (body == null || body.length == 0) {
+            return EMPTY_BODY;
+        }
+        String unwrapped = unwrap(new InputStreamReader(new ByteArrayInputStream(body), charset));
+        return unwrapped == null ? new String(body, charset) : unwrapped;
+    }
+
+    private static String unwrap(Reader body) {
+        try (JsonReader reader = new JsonReader(body)) {
+            reader.setLenient(true);
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                return null;
+            }
+            boolean hasData = false;
+            String data = null;
+            String message = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("data".equals(name)) {
+                    hasData = true;
+                    data = readValue(reader);
+                } else if ("message".equals(name)) {
+                    message = readValue(reader);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            if (!hasData) {
+                return null;
+            }
+            return data != null ? data : message;
+        } catch (IOException | IllegalStateException | JsonParseException e) {
+            LOGGER.debug("response body not in V2 format: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String readValue(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case NULL:
+                reader.nextNull();
+                return null;
+            case STRING:
+            case NUMBER:
+                return reader.nextString();
+            case BOOLEAN:
+                return String.valueOf(reader.nextBoolean());
+            default:
+                return new JsonParser().parse(reader).toString();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+create table if not exists idempotencykey (
+        id varchar(160) not null,
+        tenant varchar(64) not null,
+        idempotency_key varchar(64) not null,
+        operation varchar(256) not null,
+        request_hash varchar(64),
+        status_code integer,
+        response_body varchar(2097154),
+        create_time timestamp default current_timestamp,
+        primary key (id)
+    );
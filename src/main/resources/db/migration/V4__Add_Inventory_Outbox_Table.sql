@@ -0,0 +1,17 @@
+create table if not exists inventoryoutbox (
+        id varchar(64) not null,
+        tenant varchar(64) not null,
+        app_instance_id varchar(64) not null,
+        mec_host varchar(64),
+        operation varchar(16) not null,
+        app_data varchar(4096),
+        status varchar(128),
+        attempts integer default 0,
+        claim varchar(64),
+        parked boolean default false,
+        next_attempt_time timestamp default current_timestamp,
+        create_time timestamp default current_timestamp,
+        primary key (id)
+    );
+
+create index if not exists inventoryoutbox_instance on inventoryoutbox (tenant, app_instance_id);
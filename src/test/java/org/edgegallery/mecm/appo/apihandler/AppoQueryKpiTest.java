@@ -123,7 +123,8 @@ public class AppoQueryKpiTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON)
                         .header(ACCESS_TOKEN, SAMPLE_TOKEN));
-        MvcResult getMvcResult = getResult.andDo(MockMvcResultHandlers.print())
+        MvcResult getMvcResult = mvc.perform(MockMvcRequestBuilders.asyncDispatch(getResult.andReturn()))
+                .andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.status().is2xxSuccessful())
                 .andReturn();
         String postResponse = getMvcResult.getResponse().getContentAsString();
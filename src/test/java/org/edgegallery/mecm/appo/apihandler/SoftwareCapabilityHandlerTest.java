@@ -117,7 +117,8 @@ public class SoftwareCapabilityHandlerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON_VALUE)
                         .header(ACCESS_TOKEN, SAMPLE_TOKEN));
-        MvcResult getEdgeHost = edgehostCapabilities.andDo(MockMvcResultHandlers.print())
+        MvcResult getEdgeHost = mvc.perform(MockMvcRequestBuilders.asyncDispatch(edgehostCapabilities.andReturn()))
+                .andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.status().is2xxSuccessful())
                 .andReturn();
         String edgeResponse = getEdgeHost.getResponse().getContentAsString();
@@ -149,7 +150,9 @@ public class SoftwareCapabilityHandlerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON_VALUE)
                         .header(ACCESS_TOKEN, SAMPLE_TOKEN));
-        MvcResult getEdgeHostResult = queryEdgehostCapabilities.andDo(MockMvcResultHandlers.print())
+        MvcResult getEdgeHostResult = mvc
+                .perform(MockMvcRequestBuilders.asyncDispatch(queryEdgehostCapabilities.andReturn()))
+                .andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.status().is2xxSuccessful())
                 .andReturn();
         String getEdgeResponse = getEdgeHostResult.getResponse().getContentAsString();
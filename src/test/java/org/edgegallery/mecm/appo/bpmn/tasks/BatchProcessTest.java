@@ -0,0 +1,198 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.bpmn.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.camunda.bpm.engine.ProcessEngineServices;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.runtime.ProcessInstanceWithVariables;
+import org.camunda.bpm.engine.runtime.ProcessInstantiationBuilder;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+import org.edgegallery.mecm.appo.apihandler.dto.BatchResponseDto;
+import org.edgegallery.mecm.appo.utils.AppInstanceDependencyGraph;
+import org.edgegallery.mecm.appo.utils.Constants;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BatchProcessTest {
+
+    private static final String CREATE_KEY = "createApplicationInstance";
+    private static final String INSTANTIATE_KEY = "instantiateApplicationInstance";
+    private static final String TERMINATE_KEY = "terminateApplicationInstance";
+
+    @Mock
+    DelegateExecution execution;
+
+    @Mock
+    ProcessEngineServices engineServices;
+
+    @Mock
+    RuntimeService runtimeService;
+
+    @Mock
+    ProcessInstantiationBuilder instantiationBuilder;
+
+    @Mock
+    ProcessInstanceWithVariables processInstance;
+
+    @Before
+    public void setUp() {
+        Mockito.when(execution.getProcessEngineServices()).thenReturn(engineServices);
+        Mockito.when(engineServices.getRuntimeService()).thenReturn(runtimeService);
+        Mockito.lenient().when(runtimeService.createProcessInstanceByKey(CREATE_KEY))
+                .thenReturn(instantiationBuilder);
+        Mockito.lenient().when(runtimeService.createProcessInstanceByKey(INSTANTIATE_KEY))
+                .thenReturn(instantiationBuilder);
+        Mockito.lenient().when(runtimeService.createProcessInstanceByKey(TERMINATE_KEY))
+                .thenReturn(instantiationBuilder);
+        Mockito.when(instantiationBuilder.setVariables(anyMap())).thenReturn(instantiationBuilder);
+        Mockito.when(instantiationBuilder.executeWithVariablesInReturn()).thenReturn(processInstance);
+    }
+
+    @Test
+    public void testCreateCollectsPerHostResults() {
+        Mockito.when(execution.getVariable("action")).thenReturn("create");
+        Mockito.when(execution.getVariable(Constants.MEC_HOSTS)).thenReturn("1.1.1.1,2.2.2.2");
+        Mockito.when(execution.getVariable(Constants.APP_INSTANCE_IDS)).thenReturn("inst-1,inst-2");
+        Mockito.when(processInstance.getVariables())
+                .thenReturn(Variables.createVariables().putValue(Constants.PROCESS_FLOW_RESP_CODE, "200"))
+                .thenReturn(Variables.createVariables().putValue(Constants.PROCESS_FLOW_RESP_CODE, "500")
+                        .putValue(Constants.PROCESS_FLOW_ERR_RESP, "failed to connect"));
+
+        new BatchProcess(execution, Runnable::run, 1).execute();
+
+        ArgumentCaptor<TypedValue> response = ArgumentCaptor.forClass(TypedValue.class);
+        Mockito.verify(execution).setVariable(eq(ProcessflowAbstractTask.RESPONSE), response.capture());
+        Mockito.verify(execution).setVariable(ProcessflowAbstractTask.RESPONSE_CODE, Constants.PROCESS_FLOW_SUCCESS);
+
+        List<BatchResponseDto> results = new Gson().fromJson((String) response.getValue().getValue(),
+                new TypeToken<List<BatchResponseDto>>() { }.getType());
+        assertEquals(2, results.size());
+        assertEquals("inst-1", results.get(0).getAppInstanceId());
+        assertEquals("1.1.1.1", results.get(0).getHost());
+        assertEquals(BatchProcess.STATUS_SUCCESS, results.get(0).getStatus());
+        assertEquals("inst-2", results.get(1).getAppInstanceId());
+        assertEquals("failed to connect", results.get(1).getStatus());
+    }
+
+    @Test
+    public void testChildFlowsBoundedByWindow() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        Mockito.when(instantiationBuilder.executeWithVariablesInReturn()).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return processInstance;
+        });
+        Mockito.when(processInstance.getVariables())
+                .thenReturn(Variables.createVariables().putValue(Constants.PROCESS_FLOW_RESP_CODE, "200"));
+
+        List<BatchProcess.ChildFlow> childFlows = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Map<String, Object> variables = new HashMap<>();
+            childFlows.add(new BatchProcess.ChildFlow("inst-" + i, "host-" + i, variables));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<BatchResponseDto> results = new BatchProcess(execution, executor, 3)
+                    .executeChildFlows(CREATE_KEY, childFlows);
+            assertEquals(10, results.size());
+            assertEquals("inst-9", results.get(9).getAppInstanceId());
+            assertTrue(maxInFlight.get() <= 3);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testInstantiatePassesOwnParametersToEachChild() {
+        Mockito.when(execution.getVariable("action")).thenReturn("instantiate");
+        Mockito.when(execution.getVariable(Constants.BATCH_INSTANTIATION_PARAMS)).thenReturn(
+                "{\"instantiationParameters\":[{\"appInstanceId\":\"inst-1\",\"parameters\":{\"ak\":\"a1\"}},"
+                        + "{\"appInstanceId\":\"inst-2\"}]}");
+        Mockito.when(processInstance.getVariables()).thenReturn(Variables.createVariables()
+                .putValue(Constants.PROCESS_FLOW_RESP_CODE, "200").putValue(Constants.MEC_HOST, "1.1.1.1"));
+
+        new BatchProcess(execution, Runnable::run, 2).execute();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> variables = ArgumentCaptor.forClass(Map.class);
+        Mockito.verify(instantiationBuilder, Mockito.times(2)).setVariables(variables.capture());
+        assertEquals("inst-1", variables.getAllValues().get(0).get(Constants.APP_INSTANCE_ID));
+        assertEquals("{\"ak\":\"a1\"}",
+                ((TypedValue) variables.getAllValues().get(0).get(Constants.INSTANTIATION_PARAMS)).getValue());
+        assertEquals("inst-2", variables.getAllValues().get(1).get(Constants.APP_INSTANCE_ID));
+        assertTrue(!variables.getAllValues().get(1).containsKey(Constants.INSTANTIATION_PARAMS));
+
+        ArgumentCaptor<TypedValue> response = ArgumentCaptor.forClass(TypedValue.class);
+        Mockito.verify(execution).setVariable(eq(ProcessflowAbstractTask.RESPONSE), response.capture());
+        assertTrue(((String) response.getValue().getValue()).contains("\"host\":\"1.1.1.1\""));
+    }
+
+    @Test
+    public void testTerminateSkipsDependencyOfFailedInstance() {
+        // inst-1 depends on inst-2, inst-3 is independent
+        Map<String, List<String>> dependents = new HashMap<>();
+        dependents.put("inst-2", Collections.singletonList("inst-1"));
+        AppInstanceDependencyGraph graph = AppInstanceDependencyGraph.build(Arrays.asList("inst-1", "inst-2", "inst-3"),
+                id -> dependents.getOrDefault(id, Collections.emptyList()));
+
+        Mockito.when(execution.getVariable("action")).thenReturn("terminate");
+        Mockito.when(execution.getVariable(Constants.TERMINATE_PLAN)).thenReturn(graph.toJson());
+        Mockito.when(processInstance.getVariables())
+                .thenReturn(Variables.createVariables().putValue(Constants.PROCESS_FLOW_RESP_CODE, "500"))
+                .thenReturn(Variables.createVariables().putValue(Constants.PROCESS_FLOW_RESP_CODE, "200"));
+
+        new BatchProcess(execution, Runnable::run, 2).execute();
+
+        Mockito.verify(instantiationBuilder, Mockito.times(2)).executeWithVariablesInReturn();
+        ArgumentCaptor<TypedValue> response = ArgumentCaptor.forClass(TypedValue.class);
+        Mockito.verify(execution).setVariable(eq(ProcessflowAbstractTask.RESPONSE), response.capture());
+        List<BatchResponseDto> results = new Gson().fromJson((String) response.getValue().getValue(),
+                new TypeToken<List<BatchResponseDto>>() { }.getType());
+        assertEquals(3, results.size());
+        assertEquals("inst-3", results.get(1).getAppInstanceId());
+        assertEquals(BatchProcess.STATUS_SUCCESS, results.get(1).getStatus());
+        assertEquals("inst-2", results.get(2).getAppInstanceId());
+        assertTrue(results.get(2).getStatus().startsWith("skipped"));
+    }
+}
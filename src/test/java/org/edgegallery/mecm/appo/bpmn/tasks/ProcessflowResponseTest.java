@@ -19,8 +19,12 @@ package org.edgegallery.mecm.appo.bpmn.tasks;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.util.HashMap;
+import java.util.Map;
 import org.camunda.bpm.engine.impl.pvm.runtime.ExecutionImpl;
 import org.edgegallery.mecm.appo.common.AppoConstantsTest;
+import org.edgegallery.mecm.appo.service.ProcessflowResultRegistry;
+import org.edgegallery.mecm.appo.utils.Constants;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
@@ -43,6 +47,9 @@ public class ProcessflowResponseTest {
     @Mock
     ExecutionImpl execution;
 
+    @Mock
+    ProcessflowResultRegistry resultRegistry;
+
     @Autowired
     private RestTemplate restTemplate;
 
@@ -54,6 +61,21 @@ public class ProcessflowResponseTest {
         assertDoesNotThrow(() -> processflowResponse.execute(execution));
     }
 
+    @Test
+    public void testExecutePublishesResultForRequest() throws Exception {
+        Mockito.when(execution.getVariable(AppoConstantsTest.RESPONSE_TYPE)).thenReturn("success");
+        Mockito.when(execution.getVariable(AppoConstantsTest.RESPONSE)).thenReturn("response");
+        Mockito.when(execution.getVariable(AppoConstantsTest.RESPONSE_CODE)).thenReturn("200");
+        Mockito.when(execution.getProcessBusinessKey()).thenReturn("request-1");
+
+        processflowResponse.execute(execution);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put(Constants.PROCESS_FLOW_RESP_CODE, "200");
+        result.put(Constants.PROCESS_FLOW_RESP, "response");
+        Mockito.verify(resultRegistry).publish("request-1", result);
+    }
+
     @Test
     public void testExecuteFailure() throws Exception {
         Mockito.when(execution.getVariable(AppoConstantsTest.RESPONSE_TYPE)).thenReturn("failure");
@@ -0,0 +1,80 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.bpmn.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.camunda.bpm.engine.impl.pvm.runtime.ExecutionImpl;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+import org.edgegallery.mecm.appo.utils.Constants;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProcessflowVariablesTest {
+
+    @Mock
+    ExecutionImpl execution;
+
+    @Test
+    public void testSetVariableTransient() {
+        ProcessflowVariables.setVariable(execution, Constants.ACCESS_TOKEN, "token");
+
+        ArgumentCaptor<Object> value = ArgumentCaptor.forClass(Object.class);
+        Mockito.verify(execution).setVariable(Mockito.eq(Constants.ACCESS_TOKEN), value.capture());
+        assertTrue(((TypedValue) value.getValue()).isTransient());
+        assertEquals("token", ((TypedValue) value.getValue()).getValue());
+    }
+
+    @Test
+    public void testSetVariableKeepsPersistedVariable() {
+        Mockito.when(execution.getVariableTyped(Constants.ACCESS_TOKEN)).thenReturn(Variables.stringValue("old"));
+
+        ProcessflowVariables.setVariable(execution, Constants.ACCESS_TOKEN, "token");
+
+        Mockito.verify(execution).setVariable(Constants.ACCESS_TOKEN, "token");
+    }
+
+    @Test
+    public void testSetVariablePersisted() {
+        ProcessflowVariables.setVariable(execution, Constants.TENANT_ID, "tenant");
+
+        Mockito.verify(execution).setVariable(Constants.TENANT_ID, "tenant");
+    }
+
+    @Test
+    public void testToStartVariables() {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put(Constants.ACCESS_TOKEN, "token");
+        variables.put(Constants.TENANT_ID, "tenant");
+
+        Map<String, Object> startVariables = ProcessflowVariables.toStartVariables(variables);
+
+        assertTrue(((TypedValue) startVariables.get(Constants.ACCESS_TOKEN)).isTransient());
+        assertEquals("tenant", startVariables.get(Constants.TENANT_ID));
+        assertFalse(variables.get(Constants.ACCESS_TOKEN) instanceof TypedValue);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.edgegallery.mecm.appo.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.ExecutionListener;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+import org.edgegallery.mecm.appo.bpmn.tasks.ProcessflowAbstractTask;
+import org.edgegallery.mecm.appo.utils.Constants;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+public class ActivityMetricsPluginTest {
+
+    @Test
+    public void testRecordActivityDuration() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ActivityMetricsPlugin.TimingListener listener = new ActivityMetricsPlugin(meterRegistry)
+                .new TimingListener("createApplicationInstance", "Activity_GetMecHost");
+        DelegateExecution execution = Mockito.mock(DelegateExecution.class);
+        Mockito.when(execution.getVariable(Constants.TENANT_ID)).thenReturn("tenant-1");
+        Mockito.when(execution.getVariable(ProcessflowAbstractTask.RESPONSE_CODE)).thenReturn("500");
+
+        Mockito.when(execution.getEventName()).thenReturn(ExecutionListener.EVENTNAME_START);
+        listener.notify(execution);
+        ArgumentCaptor<TypedValue> start = ArgumentCaptor.forClass(TypedValue.class);
+        Mockito.verify(execution).setVariableLocal(Mockito.eq("activityStart_Activity_GetMecHost"), start.capture());
+
+        Mockito.when(execution.getEventName()).thenReturn(ExecutionListener.EVENTNAME_END);
+        Mockito.when(execution.getVariableLocal("activityStart_Activity_GetMecHost"))
+                .thenReturn(start.getValue().getValue());
+        listener.notify(execution);
+
+        Timer timer = meterRegistry.get(ActivityMetricsPlugin.METRIC_NAME)
+                .tag("process", "createApplicationInstance").tag("activity", "Activity_GetMecHost")
+                .tag("outcome", "error").tag("tenant", "tenant-1").timer();
+        assertEquals(1, timer.count());
+    }
+}
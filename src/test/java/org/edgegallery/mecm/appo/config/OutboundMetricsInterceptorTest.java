@@ -0,0 +1,74 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+public class OutboundMetricsInterceptorTest {
+
+    private static final String TENANT_ID = "12db0288-3c67-4042-a708-a8e4a10c6b31";
+
+    @Test
+    public void testTemplateReplacesIdentifiers() {
+        assertEquals("/lcmcontroller/v2/tenants/{id}/hosts/{id}/kpi",
+                OutboundMetricsInterceptor.template("/lcmcontroller/v2/tenants/" + TENANT_ID + "/hosts/1.1.1.1/kpi"));
+        assertEquals("/inventory/v1/mepms/{id}", OutboundMetricsInterceptor.template("/inventory/v1/mepms/3.3.3.3"));
+        assertEquals("mepm", OutboundMetricsInterceptor.downstream("/lcmcontroller/v2/tenants"));
+        assertEquals("resource-controller", OutboundMetricsInterceptor.downstream("/rescontroller/v1/tenants"));
+    }
+
+    @Test
+    public void testRecordsLatencyStatusAndBytes() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new OutboundMetricsInterceptor(meterRegistry));
+        MockRestServiceServer server = MockRestServiceServer.createServer(restTemplate);
+        server.expect(requestTo("http://1.1.1.1:8093/inventory/v1/mepms/3.3.3.3"))
+                .andRespond(withSuccess("{\"mepmPort\":\"8094\"}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://1.1.1.1:8093/inventory/v1/mepms/4.4.4.4"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).body("not found"));
+
+        restTemplate.getForObject("http://1.1.1.1:8093/inventory/v1/mepms/3.3.3.3", String.class);
+        assertThrows(HttpClientErrorException.class,
+            () -> restTemplate.getForObject("http://1.1.1.1:8093/inventory/v1/mepms/4.4.4.4", String.class));
+
+        assertEquals(1, meterRegistry.get(OutboundMetricsInterceptor.METRIC_NAME)
+                .tags("downstream", "inventory", "uri", "/inventory/v1/mepms/{id}", "status", "200").timer().count());
+        assertEquals(1, meterRegistry.get(OutboundMetricsInterceptor.METRIC_NAME)
+                .tags("status", "404", "outcome", "CLIENT_ERROR").timer().count());
+        assertEquals(19.0, meterRegistry.get("appo.outbound.response.bytes").tag("status", "200")
+                .summary().totalAmount());
+        assertEquals(2, meterRegistry.get(OutboundMetricsInterceptor.HOST_METRIC_NAME)
+                .tag("host", "1.1.1.1:8093").timers().stream().mapToLong(Timer::count).sum());
+        assertTrue(meterRegistry.find(OutboundMetricsInterceptor.METRIC_NAME).tagKeys("host").timers().isEmpty());
+    }
+}
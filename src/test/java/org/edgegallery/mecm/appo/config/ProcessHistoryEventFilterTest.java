@@ -0,0 +1,71 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.camunda.bpm.engine.impl.history.event.HistoricActivityInstanceEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoricVariableUpdateEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.edgegallery.mecm.appo.config.ProcessHistoryEventFilter.Level;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class ProcessHistoryEventFilterTest {
+
+    @Test
+    public void testParseProcessLevels() {
+        Map<String, Level> levels = ProcessHistoryEventFilter
+                .parseProcessLevels("queryKpi=none, createApplicationInstance=Audit,bad,other=unknown");
+
+        assertEquals(2, levels.size());
+        assertEquals(Level.NONE, levels.get("queryKpi"));
+        assertEquals(Level.AUDIT, levels.get("createApplicationInstance"));
+    }
+
+    @Test
+    public void testHandleEventByProcessLevel() {
+        HistoryEventHandler delegate = Mockito.mock(HistoryEventHandler.class);
+        AtomicInteger dropped = new AtomicInteger();
+        ProcessHistoryEventFilter filter = new ProcessHistoryEventFilter(delegate,
+                ProcessHistoryEventFilter.parseProcessLevels("queryKpi=none,queryApplicationInstance=activity"),
+                dropped::incrementAndGet);
+
+        HistoryEvent kpiActivity = event(new HistoricActivityInstanceEventEntity(), "queryKpi");
+        HistoryEvent queryActivity = event(new HistoricActivityInstanceEventEntity(), "queryApplicationInstance");
+        HistoryEvent queryVariable = event(new HistoricVariableUpdateEventEntity(), "queryApplicationInstance");
+        HistoryEvent createVariable = event(new HistoricVariableUpdateEventEntity(), "createApplicationInstance");
+
+        filter.handleEvent(kpiActivity);
+        filter.handleEvent(queryActivity);
+        filter.handleEvent(queryVariable);
+        filter.handleEvent(createVariable);
+
+        Mockito.verify(delegate).handleEvent(queryActivity);
+        Mockito.verify(delegate).handleEvent(createVariable);
+        Mockito.verifyNoMoreInteractions(delegate);
+        assertEquals(2, dropped.get());
+    }
+
+    private static HistoryEvent event(HistoryEvent event, String processKey) {
+        event.setProcessDefinitionKey(processKey);
+        return event;
+    }
+}
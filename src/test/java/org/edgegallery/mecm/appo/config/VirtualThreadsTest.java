@@ -0,0 +1,43 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class VirtualThreadsTest {
+
+    @Test
+    public void testThreadPerTaskExecutor() throws Exception {
+        CompletableFuture<String> threadName = new CompletableFuture<>();
+        VirtualThreads.newThreadPerTaskExecutor("appo-Test-")
+                .execute(() -> threadName.complete(Thread.currentThread().getName()));
+
+        assertTrue(threadName.get(5, TimeUnit.SECONDS).startsWith("appo-Test-"));
+    }
+
+    @Test
+    public void testThreadFactoryNamesThreads() {
+        Thread thread = VirtualThreads.threadFactory("appo-Test-").newThread(() -> { });
+
+        assertEquals("appo-Test-1", thread.getName());
+    }
+}
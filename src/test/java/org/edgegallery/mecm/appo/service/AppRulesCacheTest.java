@@ -0,0 +1,83 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+public class AppRulesCacheTest {
+
+    private static final String TENANT = "tenant";
+    private static final String INSTANCE = "instance";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void testWriteThroughFromLoadedVersion() {
+        AppRulesCache cache = new AppRulesCache(true, 600, 10, meterRegistry);
+        assertNull(cache.get(TENANT, INSTANCE));
+
+        AppRulesCache.Snapshot loaded = cache.load(TENANT, INSTANCE, null);
+        assertNull(cache.get(TENANT, INSTANCE).getAppRules());
+
+        assertTrue(cache.put(TENANT, INSTANCE, loaded.getVersion(), "{\"appTrafficRule\":[]}"));
+        AppRulesCache.Snapshot written = cache.get(TENANT, INSTANCE);
+        assertEquals("{\"appTrafficRule\":[]}", written.getAppRules());
+        assertNotEquals(loaded.getVersion(), written.getVersion());
+        assertEquals(2.0, meterRegistry.get("appo.apprules.cache.requests").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    public void testConcurrentWriteDropsEntry() {
+        AppRulesCache cache = new AppRulesCache(true, 600, 10, meterRegistry);
+        AppRulesCache.Snapshot loaded = cache.load(TENANT, INSTANCE, "{}");
+
+        assertTrue(cache.put(TENANT, INSTANCE, loaded.getVersion(), "{\"first\":1}"));
+        assertFalse(cache.put(TENANT, INSTANCE, loaded.getVersion(), "{\"second\":2}"));
+        assertNull(cache.get(TENANT, INSTANCE));
+        assertFalse(cache.put(TENANT, INSTANCE, null, "{}"));
+        assertEquals(2.0, meterRegistry.get("appo.apprules.cache.requests").tag("result", "conflict").counter()
+                .count());
+    }
+
+    @Test
+    public void testExpiredAndInvalidatedEntriesAreReadAgain() {
+        AppRulesCache cache = new AppRulesCache(true, 0, 10, meterRegistry);
+        cache.load(TENANT, INSTANCE, "{}");
+        assertNull(cache.get(TENANT, INSTANCE));
+
+        AppRulesCache longLived = new AppRulesCache(true, 600, 10, new SimpleMeterRegistry());
+        longLived.load(TENANT, INSTANCE, "{}");
+        longLived.invalidate(TENANT, INSTANCE);
+        assertNull(longLived.get(TENANT, INSTANCE));
+    }
+
+    @Test
+    public void testDisabledCacheKeepsNothing() {
+        AppRulesCache cache = new AppRulesCache(false, 600, 10, meterRegistry);
+        AppRulesCache.Snapshot loaded = cache.load(TENANT, INSTANCE, "{}");
+        assertTrue(cache.put(TENANT, INSTANCE, loaded.getVersion(), "{}"));
+        assertNull(cache.get(TENANT, INSTANCE));
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.ConnectException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.edgegallery.mecm.appo.service.impl.AppoQueryServiceImpl;
+import org.edgegallery.mecm.appo.utils.Constants;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+public class AppoQueryServiceImplTest {
+
+    private static final String TENANT_ID = "12db0288-3c67-4042-a708-a8e4a10c6b31";
+    private static final String INVENTORY = "http://1.1.1.1:8093/inventory/v1";
+    private static final String MEPM = "http://3.3.3.3:8094/lcmcontroller/v2/tenants/" + TENANT_ID;
+
+    private MockRestServiceServer server;
+    private AppoQueryServiceImpl queryService;
+    private MepmReactiveClient mepmClient;
+    private MepmEndpointGuard endpointGuard;
+
+    @Before
+    public void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.createServer(restTemplate);
+        mepmClient = Mockito.mock(MepmReactiveClient.class);
+        endpointGuard = new MepmEndpointGuard(50, 2, 2, 60000, 1, 10, new SimpleMeterRegistry());
+        queryService = new AppoQueryServiceImpl("queryKpi, queryEdgeCapabilities", restTemplate,
+                Mockito.mock(AppInstanceInfoService.class), mepmClient,
+                new MepmEndpointCache(true, 300, 100, new SimpleMeterRegistry()), endpointGuard);
+        ReflectionTestUtils.setField(queryService, "inventoryService", "1.1.1.1");
+        ReflectionTestUtils.setField(queryService, "inventoryServicePort", "8093");
+    }
+
+    private Map<String, String> hostInput() {
+        Map<String, String> input = new HashMap<>();
+        input.put(Constants.TENANT_ID, TENANT_ID);
+        input.put(Constants.MEC_HOST, "2.2.2.2");
+        input.put(Constants.ACCESS_TOKEN, "SampleToken");
+        return input;
+    }
+
+    private void expectMepmResolution() {
+        server.expect(requestTo(INVENTORY + "/tenants/" + TENANT_ID + "/mechosts/2.2.2.2"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{\"mepmIp\": \"3.3.3.3\"}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(INVENTORY + "/mepms/3.3.3.3"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{\"mepmPort\": \"8094\"}", MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void testDirectOperationsFromConfig() {
+        assertTrue(queryService.isDirect("queryKpi"));
+        assertTrue(queryService.isDirect("queryEdgeCapabilities"));
+        assertFalse(queryService.isDirect("appInstanceProfile"));
+    }
+
+    @Test
+    public void testQueryKpiReturnsMepmBody() {
+        String kpi = "{\"data\":{\"cpuusage\":{\"total\":1600}},\"retCode\":0,\"message\":\"success\"}";
+        expectMepmResolution();
+        server.expect(requestTo(MEPM + "/hosts/2.2.2.2/kpi"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(kpi, MediaType.APPLICATION_JSON));
+
+        AppoProcessFlowResponse response = queryService.executeQuery("queryKpi", hostInput());
+
+        server.verify();
+        assertEquals(HttpStatus.OK.value(), response.getResponseCode());
+        assertEquals(kpi, response.getResponse());
+    }
+
+    @Test
+    public void testQueryCapabilitiesUnwrapsData() {
+        expectMepmResolution();
+        server.expect(requestTo(MEPM + "/hosts/2.2.2.2/mep_capabilities"))
+                .andRespond(withSuccess("{\"data\":\"[]\",\"retCode\":0,\"message\":\"success\"}",
+                        MediaType.APPLICATION_JSON));
+
+        AppoProcessFlowResponse response = queryService.executeQuery("queryEdgeCapabilities", hostInput());
+
+        assertEquals(HttpStatus.OK.value(), response.getResponseCode());
+        assertEquals("[]", response.getResponse());
+    }
+
+    @Test
+    public void testInventoryFailureKeepsStatus() {
+        server.expect(requestTo(INVENTORY + "/tenants/" + TENANT_ID + "/mechosts/2.2.2.2"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).body("record not found"));
+
+        AppoProcessFlowResponse response = queryService.executeQuery("queryKpi", hostInput());
+
+        assertEquals(HttpStatus.NOT_FOUND.value(), response.getResponseCode());
+        assertEquals("record not found", response.getResponse());
+    }
+
+    @Test
+    public void testNonBlockingQuerySendsThroughMepmClient() {
+        expectMepmResolution();
+        Mockito.when(mepmClient.send(Mockito.eq(MEPM + "/hosts/2.2.2.2/mep_capabilities"), Mockito.eq(HttpMethod.GET),
+                Mockito.eq("SampleToken"), Mockito.any()))
+                .thenReturn(CompletableFuture.completedFuture(new AppoProcessFlowResponse(
+                        "{\"data\":\"[]\",\"retCode\":0,\"message\":\"success\"}", null, HttpStatus.OK.value())));
+        ReflectionTestUtils.setField(queryService, "nonBlocking", true);
+
+        AppoProcessFlowResponse response = queryService.executeQueryAsync("queryEdgeCapabilities", hostInput())
+                .join();
+
+        server.verify();
+        assertEquals(HttpStatus.OK.value(), response.getResponseCode());
+        assertEquals("[]", response.getResponse());
+    }
+
+    @Test
+    public void testResolutionCachedUntilMepmUnreachable() {
+        String kpi = "{\"data\":{},\"retCode\":0,\"message\":\"success\"}";
+        expectMepmResolution();
+        server.expect(requestTo(MEPM + "/hosts/2.2.2.2/kpi"))
+                .andRespond(withSuccess(kpi, MediaType.APPLICATION_JSON));
+        server.expect(requestTo(MEPM + "/hosts/2.2.2.2/kpi"))
+                .andRespond(request -> {
+                    throw new ConnectException("Connection refused");
+                });
+        server.expect(requestTo(INVENTORY + "/mepms/3.3.3.3"))
+                .andRespond(withSuccess("{\"mepmPort\": \"8094\"}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(MEPM + "/hosts/2.2.2.2/kpi"))
+                .andRespond(withSuccess(kpi, MediaType.APPLICATION_JSON));
+
+        assertEquals(HttpStatus.OK.value(), queryService.executeQuery("queryKpi", hostInput()).getResponseCode());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                queryService.executeQuery("queryKpi", hostInput()).getResponseCode());
+        assertEquals(HttpStatus.OK.value(), queryService.executeQuery("queryKpi", hostInput()).getResponseCode());
+
+        server.verify();
+    }
+
+    @Test
+    public void testOpenCircuitFailsFastWithoutSending() {
+        expectMepmResolution();
+        server.expect(requestTo(MEPM + "/hosts/2.2.2.2/kpi"))
+                .andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+        server.expect(requestTo(MEPM + "/hosts/2.2.2.2/kpi"))
+                .andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+
+        assertEquals(HttpStatus.BAD_GATEWAY.value(),
+                queryService.executeQuery("queryKpi", hostInput()).getResponseCode());
+        assertEquals(HttpStatus.BAD_GATEWAY.value(),
+                queryService.executeQuery("queryKpi", hostInput()).getResponseCode());
+        assertEquals(MepmEndpointGuard.State.OPEN, endpointGuard.getState("3.3.3.3:8094"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                queryService.executeQuery("queryKpi", hostInput()).getResponseCode());
+
+        server.verify();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import org.edgegallery.mecm.appo.exception.AppoAdmissionException;
+import org.junit.Test;
+
+public class AsyncAdmissionControllerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AsyncAdmissionController controller = new AsyncAdmissionController(1, 1, 3, Runnable::run,
+            new TenantFairScheduler(2, 2, 10, "", meterRegistry), meterRegistry);
+
+    @Test
+    public void testRejectWhenSaturated() {
+        CompletableFuture<Void> first = new CompletableFuture<>();
+        try (AsyncAdmissionController.Ticket ticket = controller.admit("tenant-1", OperationLane.CREATE,
+                "createApplicationInstance")) {
+            ticket.submit(() -> first);
+        }
+        try (AsyncAdmissionController.Ticket ticket = controller.admit("tenant-1", OperationLane.CREATE,
+                "createApplicationInstance")) {
+            ticket.submit(CompletableFuture::new);
+        }
+
+        AppoAdmissionException exception = assertThrows(AppoAdmissionException.class,
+            () -> controller.admit("tenant-1", OperationLane.CREATE, "createApplicationInstance"));
+        assertEquals(3, exception.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("appo.async.rejected").counter().count());
+
+        first.complete(null);
+        assertDoesNotThrow(() -> controller.admit("tenant-1", OperationLane.CREATE, "createApplicationInstance")
+                .close());
+    }
+
+    @Test
+    public void testReleaseWhenNotSubmitted() {
+        for (int i = 0; i < 3; i++) {
+            try (AsyncAdmissionController.Ticket ticket = controller.admit("tenant-1", OperationLane.APP_RULE,
+                    "configureAppRules")) {
+                assertEquals(1.0, meterRegistry.get("appo.async.admitted").gauge().value());
+            }
+        }
+        assertEquals(0.0, meterRegistry.get("appo.async.admitted").gauge().value());
+    }
+}
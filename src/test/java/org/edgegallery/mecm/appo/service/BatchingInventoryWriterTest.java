@@ -0,0 +1,188 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.edgegallery.mecm.appo.exception.AppoException;
+import org.edgegallery.mecm.appo.service.impl.PerRecordInventoryBulkClient;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+public class BatchingInventoryWriterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final List<String> batches = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        callers.shutdownNow();
+    }
+
+    private BatchingInventoryWriter writer(int maxBatchSize, InventoryBulkClient bulkClient) {
+        return new BatchingInventoryWriter(true, maxBatchSize, 60000, bulkClient, Runnable::run, meterRegistry);
+    }
+
+    private BatchingInventoryWriter.ApplicationWrite write(String url) {
+        return new BatchingInventoryWriter.ApplicationWrite(HttpMethod.PUT, url, HttpEntity.EMPTY,
+                () -> new ResponseEntity<>(url, HttpStatus.OK));
+    }
+
+    private void recordBatch(String tenantId, List<BatchingInventoryWriter.ApplicationWrite> writes) {
+        StringBuilder batch = new StringBuilder(tenantId).append(':');
+        for (BatchingInventoryWriter.ApplicationWrite write : writes) {
+            batch.append(write.getUrl());
+            write.complete(write.send());
+        }
+        synchronized (batches) {
+            batches.add(batch.toString());
+        }
+    }
+
+    @Test
+    public void testFullBatchIsWrittenTogetherInUrlOrder() throws Exception {
+        BatchingInventoryWriter writer = writer(2, this::recordBatch);
+
+        CompletableFuture<ResponseEntity<String>> first = CompletableFuture
+                .supplyAsync(() -> writer.write("tenant", write("b")), callers);
+        ResponseEntity<String> second = writer.write("tenant", write("a"));
+
+        assertEquals("a", second.getBody());
+        assertEquals("b", first.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals(1, batches.size());
+        assertEquals("tenant:ab", batches.get(0));
+        assertEquals(2.0, meterRegistry.get("appo.inventory.write.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    public void testFlushWritesLingeringBatchesPerTenant() throws Exception {
+        BatchingInventoryWriter writer = writer(50, this::recordBatch);
+
+        CompletableFuture<ResponseEntity<String>> first = CompletableFuture
+                .supplyAsync(() -> writer.write("tenant1", write("a")), callers);
+        CompletableFuture<ResponseEntity<String>> second = CompletableFuture
+                .supplyAsync(() -> writer.write("tenant2", write("b")), callers);
+        while (!first.isDone() || !second.isDone()) {
+            writer.flush();
+            Thread.sleep(5);
+        }
+
+        assertEquals("a", first.get().getBody());
+        assertEquals("b", second.get().getBody());
+        assertEquals(2, batches.size());
+    }
+
+    @Test
+    public void testFailedBulkWriteFailsEachWrite() {
+        BatchingInventoryWriter writer = writer(1, (tenantId, writes) -> {
+            throw new AppoException("inventory unavailable");
+        });
+
+        AppoException exception = assertThrows(AppoException.class, () -> writer.write("tenant", write("a")));
+        assertEquals("inventory unavailable", exception.getMessage());
+    }
+
+    @Test
+    public void testWriteNotCompletedByBulkClientFails() {
+        BatchingInventoryWriter writer = writer(1, (tenantId, writes) -> { });
+
+        assertThrows(AppoException.class, () -> writer.write("tenant", write("a")));
+    }
+
+    @Test
+    public void testWriteWithoutResponseFailsAfterTimeout() {
+        List<BatchingInventoryWriter.ApplicationWrite> sent = new ArrayList<>();
+        BatchingInventoryWriter writer = new BatchingInventoryWriter(true, 1, 10, (tenantId, writes) -> { },
+                command -> { }, meterRegistry);
+        BatchingInventoryWriter heldBack = new BatchingInventoryWriter(true, 50, 10, (tenantId, writes) -> {
+            sent.addAll(writes);
+        }, Runnable::run, meterRegistry);
+
+        AppoException exception = assertThrows(AppoException.class, () -> writer.write("tenant", write("a")));
+        assertEquals("inventory write of a timed out", exception.getMessage());
+        assertThrows(AppoException.class, () -> heldBack.write("tenant", write("b")));
+        heldBack.flush();
+        assertTrue(sent.isEmpty());
+    }
+
+    @Test
+    public void testRejectedBatchIsHeldBackUntilNextFlush() throws Exception {
+        AtomicBoolean reject = new AtomicBoolean(true);
+        BatchingInventoryWriter writer = new BatchingInventoryWriter(true, 1, 60000, this::recordBatch, command -> {
+            if (reject.getAndSet(false)) {
+                throw new RejectedExecutionException();
+            }
+            command.run();
+        }, meterRegistry);
+
+        CompletableFuture<ResponseEntity<String>> first = CompletableFuture
+                .supplyAsync(() -> writer.write("tenant", write("a")), callers);
+        while (reject.get()) {
+            Thread.sleep(5);
+        }
+        assertFalse(first.isDone());
+        writer.flush();
+
+        assertEquals("a", first.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals(1, batches.size());
+    }
+
+    // write answering with its url only once all writes sharing latch are sent at the same time
+    private BatchingInventoryWriter.ApplicationWrite concurrentWrite(String url, CountDownLatch allSent) {
+        return new BatchingInventoryWriter.ApplicationWrite(HttpMethod.PUT, url, HttpEntity.EMPTY, () -> {
+            allSent.countDown();
+            try {
+                return new ResponseEntity<>(allSent.await(5, TimeUnit.SECONDS) ? url : "sequential", HttpStatus.OK);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AppoException("interrupted");
+            }
+        });
+    }
+
+    @Test
+    public void testPerRecordClientSendsRecordsConcurrently() throws Exception {
+        CountDownLatch allSent = new CountDownLatch(2);
+        BatchingInventoryWriter writer = writer(2, new PerRecordInventoryBulkClient(callers));
+
+        CompletableFuture<ResponseEntity<String>> second = CompletableFuture
+                .supplyAsync(() -> writer.write("tenant", concurrentWrite("b", allSent)), callers);
+        ResponseEntity<String> first = writer.write("tenant", concurrentWrite("a", allSent));
+
+        assertEquals("a", first.getBody());
+        assertEquals("b", second.get(5, TimeUnit.SECONDS).getBody());
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.http.impl.client.HttpClients;
+import org.edgegallery.mecm.appo.config.ScopedRequestFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+public class HedgedInventoryReaderTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch unansweredDone = new CountDownLatch(1);
+    private ServerSocket silentServer;
+
+    @Before
+    public void setUp() throws IOException {
+        silentServer = new ServerSocket(0, 10, InetAddress.getLoopbackAddress());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        release.countDown();
+        executor.shutdownNow();
+        silentServer.close();
+    }
+
+    // request to a server accepting connections but never answering
+    private String unanswered() {
+        try {
+            RestTemplate restTemplate = new RestTemplate(new ScopedRequestFactory(HttpClients.createDefault()));
+            return restTemplate.getForObject("http://127.0.0.1:" + silentServer.getLocalPort() + "/", String.class);
+        } finally {
+            unansweredDone.countDown();
+        }
+    }
+
+    private void warmUp(HedgedInventoryReader reader, int samples) {
+        for (int i = 0; i < samples; i++) {
+            reader.read("mecHost", () -> "{}");
+        }
+    }
+
+    private String block() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "slow";
+    }
+
+    @Test
+    public void testSlowReadIsHedged() {
+        HedgedInventoryReader reader = new HedgedInventoryReader(executor, true, 5, 3, 5000, 5000, 20, true,
+                5000, meterRegistry);
+        warmUp(reader, 5);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String response = reader.read("mecHost", () -> attempts.incrementAndGet() == 1 ? block() : "fast");
+
+        assertEquals("fast", response);
+        assertEquals(2, attempts.get());
+        assertEquals(1.0, meterRegistry.get("appo.inventory.read.hedged").counter().count());
+    }
+
+    @Test
+    public void testReadTimesOutAfterAdaptiveTimeout() {
+        HedgedInventoryReader reader = new HedgedInventoryReader(executor, false, 5, 3, 50, 5000, 20, true,
+                5000, meterRegistry);
+        warmUp(reader, 5);
+
+        assertThrows(ResourceAccessException.class, () -> reader.read("mecHost", this::block));
+        assertEquals(1.0, meterRegistry.get("appo.inventory.read.timeouts").counter().count());
+    }
+
+    @Test
+    public void testTimedOutReadIsAborted() throws Exception {
+        HedgedInventoryReader reader = new HedgedInventoryReader(executor, false, 5, 3, 50, 5000, 20, true,
+                5000, meterRegistry);
+        warmUp(reader, 5);
+
+        assertThrows(ResourceAccessException.class, () -> reader.read("mecHost", this::unanswered));
+        assertTrue(unansweredDone.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testLosingHedgedReadIsAborted() throws Exception {
+        HedgedInventoryReader reader = new HedgedInventoryReader(executor, true, 5, 3, 5000, 5000, 20, true,
+                5000, meterRegistry);
+        warmUp(reader, 5);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String response = reader.read("mecHost", () -> attempts.incrementAndGet() == 1 ? unanswered() : "fast");
+
+        assertEquals("fast", response);
+        assertTrue(unansweredDone.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSaturatedReadOnCallerThreadIsBounded() {
+        HedgedInventoryReader reader = new HedgedInventoryReader(command -> {
+            throw new RejectedExecutionException();
+        }, false, 5, 3, 50, 200, 20, true, 5000, meterRegistry);
+
+        long start = System.nanoTime();
+        assertThrows(ResourceAccessException.class, () -> reader.read("mecHost", this::unanswered));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+    }
+
+    @Test
+    public void testNoHedgeBeforeEnoughSamples() {
+        HedgedInventoryReader reader = new HedgedInventoryReader(executor, true, 50, 3, 50, 5000, 0, true,
+                5000, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertEquals("{}", reader.read("mepm", () -> {
+            attempts.incrementAndGet();
+            return "{}";
+        }));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void testClientErrorIsPropagated() {
+        HedgedInventoryReader reader = new HedgedInventoryReader(executor, false, 5, 3, 50, 5000, 20, true,
+                5000, meterRegistry);
+
+        HttpClientErrorException exception = assertThrows(HttpClientErrorException.class,
+            () -> reader.read("mepm", () -> {
+                throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+            }));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
+    @Test
+    public void testConcurrentReadsOfKeyAreCoalesced() throws Exception {
+        HedgedInventoryReader reader = new HedgedInventoryReader(executor, false, 5, 3, 5000, 5000, 20, true,
+                5000, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        Future<String> first = executor.submit(() -> reader.read("mecHost", "1.1.1.1", () -> {
+            attempts.incrementAndGet();
+            return block();
+        }));
+        while (attempts.get() == 0) {
+            Thread.sleep(1);
+        }
+        Future<String> second = executor.submit(() -> reader.read("mecHost", "1.1.1.1", () -> {
+            attempts.incrementAndGet();
+            return "fast";
+        }));
+        while (meterRegistry.find("appo.inventory.read.coalesced").counter() == null) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        assertEquals("slow", first.get(5, TimeUnit.SECONDS));
+        assertEquals("slow", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, attempts.get());
+        assertEquals("fast", reader.read("mecHost", "1.1.1.1", () -> "fast"));
+    }
+
+    @Test
+    public void testNotFoundIsCached() {
+        HedgedInventoryReader reader = new HedgedInventoryReader(executor, false, 5, 3, 50, 5000, 20, true,
+                5000, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(HttpClientErrorException.class, () -> reader.read("mecHost", "1.1.1.1", () -> {
+                attempts.incrementAndGet();
+                throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+            }));
+        }
+        assertEquals(1, attempts.get());
+        assertEquals(2.0, meterRegistry.get("appo.inventory.read.not-found-cached").counter().count());
+        assertEquals("{}", reader.read("mecHost", "2.2.2.2", () -> "{}"));
+    }
+
+    @Test
+    public void testOtherFailuresAreNotCached() {
+        HedgedInventoryReader reader = new HedgedInventoryReader(executor, false, 5, 3, 50, 5000, 20, false,
+                5000, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ResourceAccessException.class, () -> reader.read("mepm", "1.1.1.1", () -> {
+                attempts.incrementAndGet();
+                throw new ResourceAccessException("connection refused");
+            }));
+        }
+        assertEquals(2, attempts.get());
+    }
+}
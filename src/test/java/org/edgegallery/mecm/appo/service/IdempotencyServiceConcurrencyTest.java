@@ -0,0 +1,131 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.edgegallery.mecm.appo.apihandler.AppoApplicationTest;
+import org.edgegallery.mecm.appo.exception.AppoConflictException;
+import org.edgegallery.mecm.appo.model.IdempotencyRecord;
+import org.edgegallery.mecm.appo.repository.IdempotencyRecordRepository;
+import org.edgegallery.mecm.appo.utils.AppoResponse;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = AppoApplicationTest.class)
+public class IdempotencyServiceConcurrencyTest {
+
+    private static final String TENANT_ID = "tenant-1";
+    private static final String ID = TENANT_ID + ":key-1";
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        callers.shutdownNow();
+        repository.deleteAll();
+    }
+
+    // both requests look up the key before either of them stores it
+    private IdempotencyService racingService() {
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        IdempotencyRecordRepository racing = (IdempotencyRecordRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] {IdempotencyRecordRepository.class},
+                (proxy, method, args) -> {
+                    try {
+                        Object result = method.invoke(repository, args);
+                        if ("findById".equals(method.getName())) {
+                            barrier.await(10, TimeUnit.SECONDS);
+                        }
+                        return result;
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        return new IdempotencyService(racing, 24, 300, new SimpleMeterRegistry());
+    }
+
+    private List<Object> executeConcurrently(IdempotencyService service) throws Exception {
+        List<Future<ResponseEntity<AppoResponse>>> futures = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            futures.add(callers.submit(() -> service.execute(TENANT_ID, "key-1", "createAppInstance",
+                    null, AppoResponse.class, () -> {
+                        executions.incrementAndGet();
+                        return new ResponseEntity<>(new AppoResponse(Collections.singletonMap("id", "inst-1")),
+                                HttpStatus.CREATED);
+                    })));
+        }
+        List<Object> results = new ArrayList<>();
+        for (Future<ResponseEntity<AppoResponse>> future : futures) {
+            try {
+                results.add(future.get(20, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                results.add(e.getCause());
+            }
+        }
+        return results;
+    }
+
+    private void assertOneExecutedOneConflict(List<Object> results) {
+        assertEquals(1, executions.get());
+        assertEquals(1, results.stream().filter(ResponseEntity.class::isInstance).count());
+        assertEquals(1, results.stream().filter(AppoConflictException.class::isInstance).count());
+        IdempotencyRecord stored = repository.findById(ID).orElse(null);
+        assertEquals(201, stored.getStatusCode());
+    }
+
+    @Test
+    public void testConcurrentFirstUseExecutesOnce() throws Exception {
+        assertNull(repository.findById(ID).orElse(null));
+
+        assertOneExecutedOneConflict(executeConcurrently(racingService()));
+    }
+
+    @Test
+    public void testConcurrentTakeOverOfExpiredKeyExecutesOnce() throws Exception {
+        repository.save(new IdempotencyRecord(ID, TENANT_ID, "key-1", "createAppInstance", null, 201, "{}",
+                LocalDateTime.now().minusHours(25)));
+
+        assertOneExecutedOneConflict(executeConcurrently(racingService()));
+    }
+}
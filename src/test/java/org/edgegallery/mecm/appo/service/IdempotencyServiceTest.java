@@ -0,0 +1,148 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.edgegallery.mecm.appo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.edgegallery.mecm.appo.exception.AppoConflictException;
+import org.edgegallery.mecm.appo.model.IdempotencyRecord;
+import org.edgegallery.mecm.appo.repository.IdempotencyRecordRepository;
+import org.edgegallery.mecm.appo.utils.AppoResponse;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+public class IdempotencyServiceTest {
+
+    private static final String TENANT_ID = "tenant-1";
+
+    private final IdempotencyRecordRepository repository = Mockito.mock(IdempotencyRecordRepository.class);
+
+    private final IdempotencyService service = new IdempotencyService(repository, 24, 300, new SimpleMeterRegistry());
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private ResponseEntity<AppoResponse> execute(String key, String operation) {
+        return execute(key, operation, Collections.singletonMap("appName", "app-1"));
+    }
+
+    private ResponseEntity<AppoResponse> execute(String key, String operation, Object requestBody) {
+        return service.execute(TENANT_ID, key, operation, requestBody, AppoResponse.class, () -> {
+            executions.incrementAndGet();
+            return new ResponseEntity<>(new AppoResponse(Collections.singletonMap("app_instance_id", "inst-1")),
+                    HttpStatus.CREATED);
+        });
+    }
+
+    @Test
+    public void testExecuteWithoutKey() {
+        execute(null, "createAppInstance");
+        execute("", "createAppInstance");
+
+        assertEquals(2, executions.get());
+        Mockito.verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    public void testPersistAndReplayResponse() {
+        Mockito.when(repository.findById(TENANT_ID + ":key-1")).thenReturn(Optional.empty());
+        execute("key-1", "createAppInstance");
+
+        ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        Mockito.verify(repository, Mockito.times(2)).save(captor.capture());
+        IdempotencyRecord record = captor.getValue();
+        assertEquals(201, record.getStatusCode());
+
+        Mockito.when(repository.findById(TENANT_ID + ":key-1")).thenReturn(Optional.of(record));
+        ResponseEntity<AppoResponse> replayed = execute("key-1", "createAppInstance");
+
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CREATED, replayed.getStatusCode());
+        assertEquals("true", replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals("inst-1", ((Map<?, ?>) replayed.getBody().getResponse()).get("app_instance_id"));
+    }
+
+    @Test
+    public void testKeyReusedWithAnotherBodyConflicts() {
+        Mockito.when(repository.findById(TENANT_ID + ":key-1")).thenReturn(Optional.empty());
+        execute("key-1", "createAppInstance");
+
+        ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        Mockito.verify(repository, Mockito.times(2)).save(captor.capture());
+        Mockito.when(repository.findById(TENANT_ID + ":key-1")).thenReturn(Optional.of(captor.getValue()));
+
+        AppoConflictException exception = assertThrows(AppoConflictException.class,
+                () -> execute("key-1", "createAppInstance", Collections.singletonMap("appName", "app-2")));
+        assertEquals("Idempotency key already used with another request body", exception.getMessage());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void testConflicts() {
+        IdempotencyRecord inProgress = new IdempotencyRecord(TENANT_ID + ":key-1", TENANT_ID, "key-1",
+                "terminateAppInstance:inst-1", null, null, null, LocalDateTime.now());
+        Mockito.when(repository.findById(TENANT_ID + ":key-1")).thenReturn(Optional.of(inProgress));
+
+        assertThrows(AppoConflictException.class, () -> execute("key-1", "terminateAppInstance:inst-1"));
+        assertThrows(AppoConflictException.class, () -> execute("key-1", "terminateAppInstance:inst-2"));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    public void testExpiredKeyExecutedAgain() {
+        IdempotencyRecord expired = new IdempotencyRecord(TENANT_ID + ":key-1", TENANT_ID, "key-1",
+                "createAppInstance", null, 201, "{}", LocalDateTime.now().minusHours(25));
+        Mockito.when(repository.findById(TENANT_ID + ":key-1")).thenReturn(Optional.of(expired));
+        Mockito.when(repository.takeOver(Mockito.eq(TENANT_ID + ":key-1"), Mockito.eq(expired.getCreateTime()),
+                Mockito.eq("createAppInstance"), Mockito.anyString(), Mockito.any())).thenReturn(1);
+
+        execute("key-1", "createAppInstance");
+
+        assertEquals(1, executions.get());
+        Mockito.verify(repository).save(expired);
+        assertEquals(201, expired.getStatusCode());
+    }
+
+    @Test
+    public void testExpiredKeyTakenOverByAnotherRequest() {
+        IdempotencyRecord expired = new IdempotencyRecord(TENANT_ID + ":key-1", TENANT_ID, "key-1",
+                "createAppInstance", null, 201, "{}", LocalDateTime.now().minusHours(25));
+        Mockito.when(repository.findById(TENANT_ID + ":key-1")).thenReturn(Optional.of(expired));
+
+        assertThrows(AppoConflictException.class, () -> execute("key-1", "createAppInstance"));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    public void testFailedRequestReleasesKey() {
+        Mockito.when(repository.findById(TENANT_ID + ":key-1")).thenReturn(Optional.empty());
+
+        ResponseEntity<AppoResponse> response = service.execute(TENANT_ID, "key-1", "createAppInstance", null,
+                AppoResponse.class, () -> new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        Mockito.verify(repository).deleteById(TENANT_ID + ":key-1");
+    }
+}
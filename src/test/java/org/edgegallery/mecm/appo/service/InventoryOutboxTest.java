@@ -0,0 +1,229 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.edgegallery.mecm.appo.exception.AppoException;
+import org.edgegallery.mecm.appo.model.InventoryOutboxRecord;
+import org.edgegallery.mecm.appo.repository.InventoryOutboxRepository;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+
+public class InventoryOutboxTest {
+
+    private static final String TENANT_ID = "tenant-1";
+    private static final String APP_INSTANCE_ID = "inst-1";
+    private static final String TOKEN = "token";
+    private static final String APP_URL = "1.1.1.1:8080/inventory/v1/tenants/tenant-1/mechosts/2.2.2.2/apps";
+
+    private final InventoryOutboxRepository repository = Mockito.mock(InventoryOutboxRepository.class);
+
+    private final RestService restService = Mockito.mock(RestService.class);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final InventoryOutbox outbox = new InventoryOutbox(repository, restService, true, "1.1.1.1", "8080", 3,
+            1000, 60000, 100, 120000, meterRegistry);
+
+    private InventoryOutboxRecord record(String id, String operation, String status, int attempts,
+                                         LocalDateTime nextAttemptTime) {
+        return new InventoryOutboxRecord(id, TENANT_ID, APP_INSTANCE_ID, "2.2.2.2", operation,
+                "{\"appInstanceId\":\"inst-1\",\"status\":\"Created\"}", status, attempts, null,
+                false, nextAttemptTime, LocalDateTime.now().minusMinutes(1));
+    }
+
+    private void pending(InventoryOutboxRecord... records) {
+        List<InventoryOutboxRecord> pending = Arrays.asList(records);
+        Mockito.when(repository.findDue(ArgumentMatchers.any(), ArgumentMatchers.eq(100))).thenReturn(pending);
+        Mockito.when(repository.findByAppInstanceId(TENANT_ID, APP_INSTANCE_ID)).thenReturn(pending);
+        // due records are claimed like the database does, records backing off or parked stay unclaimed
+        Mockito.doAnswer(claim -> {
+            LocalDateTime now = claim.getArgument(3);
+            int claimed = 0;
+            for (InventoryOutboxRecord record : pending) {
+                if (!record.isParked() && !record.getNextAttemptTime().isAfter(now)) {
+                    record.setClaim(claim.getArgument(2));
+                    claimed++;
+                }
+            }
+            return claimed;
+        }).when(repository).claim(ArgumentMatchers.eq(TENANT_ID), ArgumentMatchers.eq(APP_INSTANCE_ID),
+                ArgumentMatchers.anyString(), ArgumentMatchers.any(), ArgumentMatchers.any());
+        Mockito.doAnswer(delete -> delete.<List<String>>getArgument(0).size()).when(repository)
+                .deleteByIds(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void testStatusUpdatesCoalescedIntoAdd() {
+        outbox.appendAdd(TENANT_ID, TOKEN, "2.2.2.2", APP_INSTANCE_ID, "{}", "Created");
+        LocalDateTime due = LocalDateTime.now().minusSeconds(1);
+        pending(record("1", InventoryOutbox.ADD, "Created", 0, due),
+                record("2", InventoryOutbox.UPDATE, "Instantiated", 0, due));
+
+        outbox.dispatch();
+
+        Mockito.verify(restService).sendRequest(APP_URL, HttpMethod.POST, TOKEN,
+                "{\"appInstanceId\":\"inst-1\",\"status\":\"Instantiated\"}");
+        Mockito.verify(repository).deleteByIds(Arrays.asList("1", "2"));
+        assertEquals(1.0, meterRegistry.get("appo.inventory.outbox.coalesced").counter().count());
+        Mockito.verifyNoMoreInteractions(restService);
+    }
+
+    @Test
+    public void testStatusUpdateOfAddedRecord() {
+        outbox.appendStatus(TENANT_ID, TOKEN, "2.2.2.2", APP_INSTANCE_ID, "Instantiated");
+        pending(record("1", InventoryOutbox.UPDATE, "Instantiated", 0, LocalDateTime.now().minusSeconds(1)));
+        Mockito.when(restService.sendRequest(APP_URL + "/inst-1", HttpMethod.GET, TOKEN, null))
+                .thenReturn(new ResponseEntity<>("{\"appInstanceId\":\"inst-1\",\"status\":\"Created\"}",
+                        HttpStatus.OK));
+
+        outbox.dispatch();
+
+        Mockito.verify(restService).sendRequest(APP_URL + "/inst-1", HttpMethod.PUT, TOKEN,
+                "{\"appInstanceId\":\"inst-1\",\"status\":\"Instantiated\"}");
+        Mockito.verify(repository).deleteByIds(Collections.singletonList("1"));
+    }
+
+    @Test
+    public void testFailedWriteRetriedWithBackoffThenParked() {
+        outbox.appendAdd(TENANT_ID, TOKEN, "2.2.2.2", APP_INSTANCE_ID, "{}", "Created");
+        Mockito.when(restService.sendRequest(ArgumentMatchers.anyString(), ArgumentMatchers.any(),
+                ArgumentMatchers.anyString(), ArgumentMatchers.anyString()))
+                .thenThrow(new AppoException("inventory unavailable"));
+
+        LocalDateTime before = LocalDateTime.now();
+        pending(record("1", InventoryOutbox.ADD, "Created", 1, before.minusSeconds(1)));
+        outbox.dispatch();
+
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        Mockito.verify(repository).updateAttempts(ArgumentMatchers.eq(Collections.singletonList("1")),
+                ArgumentMatchers.eq(2), nextAttempt.capture());
+        assertFalse(nextAttempt.getValue().isBefore(before.plusSeconds(2)));
+
+        pending(record("1", InventoryOutbox.ADD, "Created", 2, before.minusSeconds(1)));
+        outbox.dispatch();
+
+        Mockito.verify(repository).park(Collections.singletonList("1"), 3);
+        Mockito.verify(repository, Mockito.never()).deleteByIds(ArgumentMatchers.any());
+        assertEquals(1.0, meterRegistry.get("appo.inventory.outbox.dispatched").tag("result", "parked").counter()
+                .count());
+    }
+
+    @Test
+    public void testRecordsBehindParkedRecordWaitUntilRetried() {
+        outbox.appendStatus(TENANT_ID, TOKEN, "2.2.2.2", APP_INSTANCE_ID, "Instantiated");
+        LocalDateTime due = LocalDateTime.now().minusSeconds(1);
+        InventoryOutboxRecord added = record("1", InventoryOutbox.ADD, "Created", 3, due);
+        added.setParked(true);
+        pending(added, record("2", InventoryOutbox.UPDATE, "Instantiated", 0, due));
+
+        outbox.dispatch();
+
+        Mockito.verifyNoMoreInteractions(restService);
+        Mockito.verify(repository).release(ArgumentMatchers.anyString(), ArgumentMatchers.any());
+
+        Mockito.when(repository.unpark(ArgumentMatchers.eq(TENANT_ID), ArgumentMatchers.any())).thenReturn(1);
+        assertEquals(1, outbox.retryParked(TENANT_ID));
+    }
+
+    @Test
+    public void testInstanceBackingOffOrWithoutTokenWaits() {
+        LocalDateTime now = LocalDateTime.now();
+        pending(record("1", InventoryOutbox.ADD, "Created", 0, now.minusSeconds(1)));
+        outbox.dispatch();
+
+        outbox.appendStatus(TENANT_ID, TOKEN, "2.2.2.2", APP_INSTANCE_ID, "Instantiated");
+        pending(record("1", InventoryOutbox.ADD, "Created", 1, now.plusMinutes(1)),
+                record("2", InventoryOutbox.UPDATE, "Instantiated", 0, now.minusSeconds(1)));
+        outbox.dispatch();
+
+        Mockito.verifyNoMoreInteractions(restService);
+        Mockito.verify(repository, Mockito.never()).deleteByIds(ArgumentMatchers.any());
+        Mockito.verify(repository).release(ArgumentMatchers.anyString(), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void testRecordsClaimedByAnotherDispatcherSkipped() {
+        outbox.appendAdd(TENANT_ID, TOKEN, "2.2.2.2", APP_INSTANCE_ID, "{}", "Created");
+        pending(record("1", InventoryOutbox.ADD, "Created", 0, LocalDateTime.now().minusSeconds(1)));
+        Mockito.doReturn(0).when(repository).claim(ArgumentMatchers.eq(TENANT_ID),
+                ArgumentMatchers.eq(APP_INSTANCE_ID), ArgumentMatchers.anyString(), ArgumentMatchers.any(),
+                ArgumentMatchers.any());
+
+        outbox.dispatch();
+
+        Mockito.verifyNoMoreInteractions(restService);
+        Mockito.verify(repository, Mockito.never()).findByAppInstanceId(TENANT_ID, APP_INSTANCE_ID);
+    }
+
+    @Test
+    public void testRejectedTokenWaitsForNewTokenWithoutAttempt() {
+        outbox.appendAdd(TENANT_ID, TOKEN, "2.2.2.2", APP_INSTANCE_ID, "{}", "Created");
+        Mockito.when(restService.sendRequest(ArgumentMatchers.anyString(), ArgumentMatchers.any(),
+                ArgumentMatchers.anyString(), ArgumentMatchers.anyString()))
+                .thenThrow(new AppoException("unauthorized", new HttpClientErrorException(HttpStatus.UNAUTHORIZED)))
+                .thenReturn(new ResponseEntity<>(HttpStatus.OK));
+        pending(record("1", InventoryOutbox.ADD, "Created", 2, LocalDateTime.now().minusSeconds(1)));
+
+        outbox.dispatch();
+        outbox.dispatch();
+
+        Mockito.verify(restService).sendRequest(ArgumentMatchers.anyString(), ArgumentMatchers.any(),
+                ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
+        Mockito.verify(repository).release(ArgumentMatchers.anyString(), ArgumentMatchers.any());
+        Mockito.verify(repository, Mockito.never()).updateAttempts(ArgumentMatchers.any(),
+                ArgumentMatchers.anyInt(), ArgumentMatchers.any());
+        Mockito.verify(repository, Mockito.never()).deleteByIds(ArgumentMatchers.any());
+
+        outbox.appendStatus(TENANT_ID, "token-2", "2.2.2.2", APP_INSTANCE_ID, "Created");
+        pending(record("1", InventoryOutbox.ADD, "Created", 2, LocalDateTime.now().minusSeconds(1)));
+        outbox.dispatch();
+
+        Mockito.verify(restService).sendRequest(ArgumentMatchers.eq(APP_URL), ArgumentMatchers.eq(HttpMethod.POST),
+                ArgumentMatchers.eq("token-2"), ArgumentMatchers.anyString());
+        Mockito.verify(repository).deleteByIds(Collections.singletonList("1"));
+        assertEquals(1.0, meterRegistry.get("appo.inventory.outbox.dispatched").tag("result", "unauthorized")
+                .counter().count());
+    }
+
+    @Test
+    public void testRecordDiscardedWhileWrittenIsDeletedAgain() {
+        outbox.appendAdd(TENANT_ID, TOKEN, "2.2.2.2", APP_INSTANCE_ID, "{}", "Created");
+        pending(record("1", InventoryOutbox.ADD, "Created", 0, LocalDateTime.now().minusSeconds(1)));
+        Mockito.doReturn(0).when(repository).deleteByIds(ArgumentMatchers.any());
+
+        outbox.dispatch();
+
+        Mockito.verify(restService).sendRequest(ArgumentMatchers.eq(APP_URL), ArgumentMatchers.eq(HttpMethod.POST),
+                ArgumentMatchers.eq(TOKEN), ArgumentMatchers.anyString());
+        Mockito.verify(restService).sendRequest(APP_URL + "/inst-1", HttpMethod.DELETE, TOKEN, null);
+    }
+}
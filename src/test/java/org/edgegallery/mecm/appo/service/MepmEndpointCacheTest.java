@@ -0,0 +1,126 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.google.gson.JsonParser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class MepmEndpointCacheTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private String loadPort() {
+        loads.incrementAndGet();
+        return "8094";
+    }
+
+    @Test
+    public void testCachesUntilInvalidated() {
+        MepmEndpointCache cache = new MepmEndpointCache(true, 300, 10, meterRegistry);
+        assertEquals("8094", cache.getMepmPort("3.3.3.3", this::loadPort));
+        assertEquals("8094", cache.getMepmPort("3.3.3.3", this::loadPort));
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("appo.endpoint.cache.requests").tag("cache", "mepm")
+                .tag("result", "hit").counter().count());
+
+        cache.invalidateMepm("3.3.3.3");
+        cache.getMepmPort("3.3.3.3", this::loadPort);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testExpiredEntryIsReadAgain() {
+        MepmEndpointCache cache = new MepmEndpointCache(true, 0, 10, meterRegistry);
+        cache.getMepmPort("3.3.3.3", this::loadPort);
+        cache.getMepmPort("3.3.3.3", this::loadPort);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testFailedReadIsNotCached() {
+        MepmEndpointCache cache = new MepmEndpointCache(true, 300, 10, meterRegistry);
+        assertNull(cache.getMepmPort("3.3.3.3", () -> null));
+        cache.getMepmPort("3.3.3.3", this::loadPort);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        MepmEndpointCache cache = new MepmEndpointCache(true, 300, 2, meterRegistry);
+        cache.getMepmPort("1.1.1.1", this::loadPort);
+        cache.getMepmPort("2.2.2.2", this::loadPort);
+        cache.getMepmPort("1.1.1.1", this::loadPort);
+        cache.getMepmPort("3.3.3.3", this::loadPort);
+        assertEquals(2.0, meterRegistry.get("appo.endpoint.cache.size").tag("cache", "mepm").gauge().value());
+
+        cache.getMepmPort("1.1.1.1", this::loadPort);
+        assertEquals(3, loads.get());
+        cache.getMepmPort("2.2.2.2", this::loadPort);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void testHostRecordSharedAcrossReaders() {
+        MepmEndpointCache cache = new MepmEndpointCache(true, 300, 10, meterRegistry);
+        MepmEndpointCache.HostRecord host = MepmEndpointCache.HostRecord.fromInventory(new JsonParser()
+                .parse("{\"mechostIp\":\"1.1.1.1\",\"mepmIp\":\"3.3.3.3\","
+                        + "\"hwcapabilities\":[{\"hwType\":\"GPU\"},{\"hwType\":\"NPU\"}]}").getAsJsonObject());
+        cache.putHost("tenant", "1.1.1.1", host);
+
+        MepmEndpointCache.HostRecord cached = cache.getHost("tenant", "1.1.1.1", () -> null);
+        assertEquals("3.3.3.3", cached.getMepmIp());
+        assertEquals("GPU,NPU", cached.getHwCapabilities());
+        assertNull(cache.getHost("other", "1.1.1.1", () -> null));
+
+        cache.invalidateAll();
+        assertNull(cache.getHost("tenant", "1.1.1.1", () -> null));
+    }
+
+    @Test
+    public void testHostsNotListedAreInvalidated() {
+        MepmEndpointCache cache = new MepmEndpointCache(true, 300, 10, meterRegistry);
+        cache.putHost("tenant", "1.1.1.1", new MepmEndpointCache.HostRecord("3.3.3.3", null));
+        cache.putHost("tenant", "2.2.2.2", new MepmEndpointCache.HostRecord("3.3.3.3", null));
+        cache.putHost("other", "2.2.2.2", new MepmEndpointCache.HostRecord("4.4.4.4", null));
+
+        cache.retainHosts("tenant", Collections.singleton("1.1.1.1"));
+        assertEquals("3.3.3.3", cache.getHost("tenant", "1.1.1.1", () -> null).getMepmIp());
+        assertNull(cache.getHost("tenant", "2.2.2.2", () -> null));
+        assertEquals("4.4.4.4", cache.getHost("other", "2.2.2.2", () -> null).getMepmIp());
+
+        cache.invalidateHost("tenant", "1.1.1.1");
+        assertNull(cache.getHost("tenant", "1.1.1.1", () -> null));
+    }
+
+    @Test
+    public void testDisabledCacheAlwaysReads() {
+        MepmEndpointCache cache = new MepmEndpointCache(false, 300, 10, meterRegistry);
+        cache.getMepmPort("3.3.3.3", this::loadPort);
+        cache.getMepmPort("3.3.3.3", this::loadPort);
+        assertEquals(2, loads.get());
+        assertNull(MepmEndpointCache.HostRecord.fromInventory(new JsonParser().parse("{}").getAsJsonObject()));
+    }
+}
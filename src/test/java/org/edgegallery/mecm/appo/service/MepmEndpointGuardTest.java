@@ -0,0 +1,128 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.edgegallery.mecm.appo.exception.AppoEndpointUnavailableException;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+public class MepmEndpointGuardTest {
+
+    private static final String ENDPOINT = "3.3.3.3:8094";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private void fail(MepmEndpointGuard guard) {
+        assertThrows(ResourceAccessException.class, () -> guard.execute(ENDPOINT, () -> {
+            throw new ResourceAccessException("read timed out");
+        }));
+    }
+
+    @Test
+    public void testOpensOnFailureRateAndFailsFast() {
+        MepmEndpointGuard guard = new MepmEndpointGuard(50, 4, 4, 60000, 1, 10, meterRegistry);
+        guard.execute(ENDPOINT, () -> "ok");
+        guard.execute(ENDPOINT, () -> "ok");
+        fail(guard);
+        assertEquals(MepmEndpointGuard.State.CLOSED, guard.getState(ENDPOINT));
+        fail(guard);
+
+        assertEquals(MepmEndpointGuard.State.OPEN, guard.getState(ENDPOINT));
+        assertThrows(AppoEndpointUnavailableException.class, () -> guard.execute(ENDPOINT, () -> "ok"));
+        assertEquals(1.0, meterRegistry.get("appo.mepm.breaker.state").tag("endpoint", ENDPOINT).gauge().value());
+        assertEquals(1.0, meterRegistry.get("appo.mepm.breaker.rejected").tag("reason", "open").counter().count());
+        assertEquals("ok", guard.execute("4.4.4.4:8094", () -> "ok"));
+    }
+
+    @Test
+    public void testClientErrorIsNotEndpointFailure() {
+        MepmEndpointGuard guard = new MepmEndpointGuard(50, 2, 2, 60000, 1, 10, meterRegistry);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(HttpClientErrorException.class, () -> guard.execute(ENDPOINT, () -> {
+                throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+            }));
+        }
+        assertEquals(MepmEndpointGuard.State.CLOSED, guard.getState(ENDPOINT));
+    }
+
+    @Test
+    public void testHalfOpenTrialClosesOrReopens() {
+        MepmEndpointGuard guard = new MepmEndpointGuard(50, 2, 2, 0, 1, 10, meterRegistry);
+        fail(guard);
+        fail(guard);
+        assertEquals(MepmEndpointGuard.State.OPEN, guard.getState(ENDPOINT));
+
+        fail(guard);
+        assertEquals(MepmEndpointGuard.State.OPEN, guard.getState(ENDPOINT));
+
+        assertEquals("ok", guard.execute(ENDPOINT, () -> "ok"));
+        assertEquals(MepmEndpointGuard.State.CLOSED, guard.getState(ENDPOINT));
+    }
+
+    @Test
+    public void testBulkheadRejectsBeyondConcurrentLimit() throws Exception {
+        MepmEndpointGuard guard = new MepmEndpointGuard(50, 10, 10, 60000, 1, 1, meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> guard.execute(ENDPOINT, () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "ok";
+            }));
+            started.await();
+
+            assertThrows(AppoEndpointUnavailableException.class, () -> guard.execute(ENDPOINT, () -> "ok"));
+            assertEquals(1.0, meterRegistry.get("appo.mepm.bulkhead.active").gauge().value());
+            assertEquals(1.0, meterRegistry.get("appo.mepm.breaker.rejected").tag("reason", "bulkhead")
+                    .counter().count());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testAsyncCallHoldsPermitUntilCompleted() {
+        MepmEndpointGuard guard = new MepmEndpointGuard(50, 2, 2, 60000, 1, 1, meterRegistry);
+        CompletableFuture<Integer> pending = new CompletableFuture<>();
+        CompletableFuture<Integer> result = guard.executeAsync(ENDPOINT, () -> pending, status -> status >= 500);
+        assertThrows(AppoEndpointUnavailableException.class,
+            () -> guard.executeAsync(ENDPOINT, () -> CompletableFuture.completedFuture(200), status -> false));
+
+        pending.complete(503);
+        assertEquals(503, result.join());
+        guard.executeAsync(ENDPOINT, () -> CompletableFuture.completedFuture(502), status -> status >= 500);
+        assertEquals(MepmEndpointGuard.State.OPEN, guard.getState(ENDPOINT));
+    }
+}
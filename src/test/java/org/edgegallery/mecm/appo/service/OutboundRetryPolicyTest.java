@@ -0,0 +1,106 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.HttpHostConnectException;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.HttpCoreContext;
+import org.junit.Test;
+
+public class OutboundRetryPolicyTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HttpClientContext context(String method) {
+        HttpClientContext context = HttpClientContext.create();
+        context.setAttribute(HttpCoreContext.HTTP_TARGET_HOST, new HttpHost("3.3.3.3", 8094));
+        context.setAttribute(HttpCoreContext.HTTP_REQUEST, "POST".equals(method)
+                ? new HttpPost("http://3.3.3.3:8094/") : new HttpGet("http://3.3.3.3:8094/"));
+        return context;
+    }
+
+    private HttpResponse response(int status) {
+        return new BasicHttpResponse(HttpVersion.HTTP_1_1, status, "");
+    }
+
+    @Test
+    public void testBackoffIsJitteredWithinExponentialCap() {
+        OutboundRetryPolicy policy = new OutboundRetryPolicy(3, 100, 1000, 0.1, 10, meterRegistry);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(policy.backoff(1) <= 100);
+            assertTrue(policy.backoff(3) <= 400);
+            assertTrue(policy.backoff(10) <= 1000);
+        }
+    }
+
+    @Test
+    public void testOnlyIdempotentRequestsRetriedAfterSending() {
+        OutboundRetryPolicy policy = new OutboundRetryPolicy(3, 0, 0, 0.1, 10, meterRegistry);
+        IOException reset = new IOException("connection reset");
+
+        assertTrue(policy.retryRequest(reset, 1, context("GET")));
+        assertFalse(policy.retryRequest(reset, 1, context("POST")));
+        assertTrue(policy.retryRequest(new HttpHostConnectException(reset, new HttpHost("3.3.3.3", 8094)), 1,
+                context("POST")));
+        assertFalse(policy.retryRequest(new SocketTimeoutException(), 1, context("GET")));
+        assertFalse(policy.retryRequest(reset, 4, context("GET")));
+
+        assertTrue(policy.retryRequest(response(503), 1, context("POST")));
+        assertFalse(policy.retryRequest(response(502), 1, context("POST")));
+        assertTrue(policy.retryRequest(response(502), 1, context("GET")));
+        assertFalse(policy.retryRequest(response(500), 1, context("GET")));
+    }
+
+    @Test
+    public void testRetryBudgetBoundsRetriesPerHost() throws Exception {
+        OutboundRetryPolicy policy = new OutboundRetryPolicy(3, 0, 0, 0.5, 2, meterRegistry);
+
+        assertTrue(policy.retryRequest(response(503), 1, context("GET")));
+        assertTrue(policy.retryRequest(response(503), 1, context("GET")));
+        assertFalse(policy.retryRequest(response(503), 1, context("GET")));
+        assertEquals(1.0, meterRegistry.get("appo.http.retry.budget.exhausted").counter().count());
+
+        policy.budgetInterceptor().process(new HttpGet("http://3.3.3.3:8094/"), context("GET"));
+        assertFalse(policy.retryRequest(response(503), 1, context("GET")));
+        policy.budgetInterceptor().process(new HttpGet("http://3.3.3.3:8094/"), context("GET"));
+        assertTrue(policy.retryRequest(response(503), 1, context("GET")));
+    }
+
+    @Test
+    public void testRetryAfterHeaderIsHonoured() {
+        OutboundRetryPolicy policy = new OutboundRetryPolicy(3, 0, 5000, 0.1, 10, meterRegistry);
+        HttpResponse response = response(503);
+        response.setHeader("Retry-After", "2");
+
+        assertTrue(policy.retryRequest(response, 1, context("GET")));
+        assertEquals(2000, policy.getRetryInterval());
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.junit.Test;
+
+public class ProcessflowResultRegistryTest {
+
+    private final ProcessflowResultRegistry registry = new ProcessflowResultRegistry();
+
+    @Test
+    public void testPublishCompletesRegisteredRequest() {
+        CompletableFuture<Map<String, Object>> result = registry.register("request-1");
+
+        registry.publish("request-1", Collections.singletonMap("ProcessflowResponseCode", "200"));
+
+        assertEquals("200", result.getNow(null).get("ProcessflowResponseCode"));
+    }
+
+    @Test
+    public void testPublishIgnoresUnregisteredRequest() {
+        CompletableFuture<Map<String, Object>> result = registry.register("request-1");
+        registry.unregister("request-1");
+
+        registry.publish("request-1", Collections.singletonMap("ProcessflowResponseCode", "200"));
+        registry.publish(null, Collections.emptyMap());
+
+        assertFalse(result.isDone());
+    }
+}
@@ -1,12 +1,18 @@
 package org.edgegallery.mecm.appo.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.function.Function;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.edgegallery.mecm.appo.apihandler.AppoSyncHandler;
 import org.edgegallery.mecm.appo.apihandler.dto.AppInstanceDeletedDto;
 import org.edgegallery.mecm.appo.apihandler.dto.AppInstanceInfoDto;
@@ -51,27 +57,59 @@ public class RestClientHelperTest {
 
     }
 
-    @Test(expected = InvocationTargetException.class)
+    @Test
+    public void buildPooledHttpClient() throws Exception {
+        restClientHelper = new RestClientHelper(false, null, null);
+        PoolingHttpClientConnectionManager connectionManager = restClientHelper.buildConnectionManager(50, 5);
+        assertEquals(50, connectionManager.getMaxTotal());
+        assertEquals(5, connectionManager.getDefaultMaxPerRoute());
+
+        try (CloseableHttpClient httpClient = restClientHelper.buildHttpClient(connectionManager,
+            RequestConfig.custom().setConnectTimeout(1000).build(), 30000, 30000,
+            new OutboundRetryPolicy(3, 50, 2000, 0.1, 10, new SimpleMeterRegistry()))) {
+            assertNotNull(httpClient);
+        }
+        assertThrows(AppoException.class, () -> new RestClientHelper(true, "path", "trust")
+            .buildConnectionManager(50, 5));
+    }
+
+    @Test
     public void testProcessflowErrorResponse()
         throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
         AppoProcessflowServiceImpl appoProcessflowService = new AppoProcessflowServiceImpl();
-        Object[] obj1 = {"processInstanceId", "OK"};
         Method method1 = AppoProcessflowServiceImpl.class
-            .getDeclaredMethod("processflowErrorResponse", String.class, String.class);
+            .getDeclaredMethod("processflowErrorResponse", Function.class, String.class);
         method1.setAccessible(true);
-        method1.invoke(appoProcessflowService, obj1);
+
+        Function<String, Object> variables = name -> "ProcessflowErrResponse".equals(name) ? "MEPM unreachable" : null;
+        AppoProcessFlowResponse response = (AppoProcessFlowResponse) method1
+            .invoke(appoProcessflowService, variables, "500");
+        assertEquals("MEPM unreachable", response.getResponse());
+        assertEquals(500, response.getResponseCode());
+
+        Function<String, Object> noVariables = name -> null;
+        response = (AppoProcessFlowResponse) method1.invoke(appoProcessflowService, noVariables, "404");
+        assertNull(response.getResponse());
+        assertEquals(404, response.getResponseCode());
+        assertNull(method1.invoke(appoProcessflowService, noVariables, null));
     }
 
-    @Test(expected = InvocationTargetException.class)
+    @Test
     public void testProcessflowException()
         throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
         AppoProcessflowServiceImpl appoProcessflowService = new AppoProcessflowServiceImpl();
-        Object[] obj1 = {"processInstanceId", "OK"};
         Method method1 = AppoProcessflowServiceImpl.class
-            .getDeclaredMethod("processflowException", String.class, String.class);
+            .getDeclaredMethod("processflowException", Function.class, String.class);
         method1.setAccessible(true);
-        method1.invoke(appoProcessflowService, obj1);
 
+        Function<String, Object> variables = name -> "ProcessflowException".equals(name) ? "Internal error" : null;
+        AppoProcessFlowResponse response = (AppoProcessFlowResponse) method1
+            .invoke(appoProcessflowService, variables, "500");
+        assertEquals("Internal error", response.getResponse());
+        assertEquals(500, response.getResponseCode());
+
+        Function<String, Object> noVariables = name -> null;
+        assertNull(method1.invoke(appoProcessflowService, noVariables, "500"));
     }
 
     @Test
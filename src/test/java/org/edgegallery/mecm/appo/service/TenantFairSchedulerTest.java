@@ -0,0 +1,148 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.Test;
+
+public class TenantFairSchedulerTest {
+
+    private final List<String> dispatched = new ArrayList<>();
+    private final List<CompletableFuture<Void>> flows = new ArrayList<>();
+
+    private CompletableFuture<Void> schedule(TenantFairScheduler scheduler, String tenantId, String name) {
+        return schedule(scheduler, tenantId, OperationLane.CREATE, name);
+    }
+
+    private CompletableFuture<Void> schedule(TenantFairScheduler scheduler, String tenantId,
+                                             OperationLane operation, String name) {
+        assertTrue(scheduler.tryReserve(tenantId));
+        return scheduler.schedule(tenantId, operation, () -> {
+            dispatched.add(name);
+            CompletableFuture<Void> flow = new CompletableFuture<>();
+            flows.add(flow);
+            return flow;
+        });
+    }
+
+    @Test
+    public void testRoundRobinAcrossTenants() {
+        TenantFairScheduler scheduler = new TenantFairScheduler(1, 1, 10, "", new SimpleMeterRegistry());
+        schedule(scheduler, "tenant-a", "a1");
+        schedule(scheduler, "tenant-a", "a2");
+        schedule(scheduler, "tenant-a", "a3");
+        CompletableFuture<Void> b1 = schedule(scheduler, "tenant-b", "b1");
+
+        flows.get(0).complete(null);
+        flows.get(1).complete(null);
+        flows.get(2).complete(null);
+
+        assertEquals(Arrays.asList("a1", "a2", "b1", "a3"), dispatched);
+        assertTrue(b1.isDone());
+    }
+
+    @Test
+    public void testTenantConcurrencyAndQueueCapacity() {
+        TenantFairScheduler scheduler = new TenantFairScheduler(4, 1, 2, "", new SimpleMeterRegistry());
+        schedule(scheduler, "tenant-a", "a1");
+        schedule(scheduler, "tenant-a", "a2");
+        assertFalse(scheduler.tryReserve("tenant-a"));
+        schedule(scheduler, "tenant-b", "b1");
+
+        assertEquals(Arrays.asList("a1", "b1"), dispatched);
+
+        flows.get(0).complete(null);
+        assertEquals(Arrays.asList("a1", "b1", "a2"), dispatched);
+        assertTrue(scheduler.tryReserve("tenant-a"));
+        scheduler.cancel("tenant-a");
+    }
+
+    @Test
+    public void testHigherPriorityLaneDispatchedFirst() {
+        TenantFairScheduler scheduler = new TenantFairScheduler(1, 10, 10, "terminate=1:1,create=4:1",
+                new SimpleMeterRegistry());
+        schedule(scheduler, "tenant-a", OperationLane.CREATE, "c1");
+        schedule(scheduler, "tenant-a", OperationLane.CREATE, "c2");
+        schedule(scheduler, "tenant-b", OperationLane.TERMINATE, "t1");
+
+        flows.get(0).complete(null);
+
+        assertEquals(Arrays.asList("c1", "t1"), dispatched);
+    }
+
+    @Test
+    public void testLaneConcurrency() {
+        TenantFairScheduler scheduler = new TenantFairScheduler(4, 10, 10, "create=4:1,bad=x:1",
+                new SimpleMeterRegistry());
+        schedule(scheduler, "tenant-a", OperationLane.CREATE, "c1");
+        schedule(scheduler, "tenant-a", OperationLane.CREATE, "c2");
+        schedule(scheduler, "tenant-a", OperationLane.APP_RULE, "r1");
+
+        assertEquals(Arrays.asList("c1", "r1"), dispatched);
+
+        flows.get(0).complete(null);
+        assertEquals(Arrays.asList("c1", "r1", "c2"), dispatched);
+    }
+
+    @Test
+    public void testReservedSlotsKeptForTerminate() {
+        TenantFairScheduler scheduler = new TenantFairScheduler(3, 10, 10, "terminate=1:3:1,create=4:3",
+                new SimpleMeterRegistry());
+        schedule(scheduler, "tenant-a", OperationLane.CREATE, "c1");
+        schedule(scheduler, "tenant-a", OperationLane.CREATE, "c2");
+        schedule(scheduler, "tenant-a", OperationLane.CREATE, "c3");
+        assertEquals(Arrays.asList("c1", "c2"), dispatched);
+
+        schedule(scheduler, "tenant-b", OperationLane.TERMINATE, "t1");
+        assertEquals(Arrays.asList("c1", "c2", "t1"), dispatched);
+
+        flows.get(0).complete(null);
+        assertEquals(Arrays.asList("c1", "c2", "t1", "c3"), dispatched);
+    }
+
+    @Test
+    public void testIdleTenantMetricsRemoved() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TenantFairScheduler scheduler = new TenantFairScheduler(1, 1, 10, "", meterRegistry);
+        schedule(scheduler, "tenant-a", "a1");
+        schedule(scheduler, "tenant-a", "a2");
+        assertEquals(1.0, meterRegistry.find("appo.scheduler.tenant.queued").tag("tenant", "tenant-a").gauge()
+                .value());
+        assertEquals(1.0, meterRegistry.find("appo.scheduler.lane.queued").tag("lane", "CREATE").gauge().value());
+
+        flows.get(0).complete(null);
+        assertNotNull(meterRegistry.find("appo.scheduler.tenant.running").tag("tenant", "tenant-a").gauge());
+        assertEquals(0.0, meterRegistry.find("appo.scheduler.lane.queued").tag("lane", "CREATE").gauge().value());
+        flows.get(1).complete(null);
+        assertNull(meterRegistry.find("appo.scheduler.tenant.queued").tag("tenant", "tenant-a").gauge());
+        assertNull(meterRegistry.find("appo.scheduler.tenant.running").tag("tenant", "tenant-a").gauge());
+
+        assertTrue(scheduler.tryReserve("tenant-b"));
+        scheduler.cancel("tenant-b");
+        assertNull(meterRegistry.find("appo.scheduler.tenant.queued").tag("tenant", "tenant-b").gauge());
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class AppInstanceDependencyGraphTest {
+
+    private final Map<String, Collection<String>> dependents = new HashMap<>();
+
+    private Collection<String> dependentsOf(String appInstanceId) {
+        return dependents.getOrDefault(appInstanceId, Collections.emptyList());
+    }
+
+    @Test
+    public void testLevelsTerminateDependentsFirst() {
+        // a depends on b, b depends on c, d is independent
+        dependents.put("b", Collections.singletonList("a"));
+        dependents.put("c", Collections.singletonList("b"));
+
+        AppInstanceDependencyGraph graph = AppInstanceDependencyGraph
+                .build(Arrays.asList("c", "b", "a", "d"), this::dependentsOf);
+
+        assertEquals(Arrays.asList(Arrays.asList("a", "d"), Collections.singletonList("b"),
+                Collections.singletonList("c")), graph.getLevels());
+        assertTrue(graph.getRejected().isEmpty());
+        assertEquals(Collections.singleton("a"), graph.getDependents("b"));
+    }
+
+    @Test
+    public void testOutsideDependentRejectsInstanceAndItsDependencies() {
+        // x (not requested) depends on b, b depends on c
+        dependents.put("b", Arrays.asList("x"));
+        dependents.put("c", Arrays.asList("b"));
+
+        AppInstanceDependencyGraph graph = AppInstanceDependencyGraph
+                .build(Arrays.asList("a", "b", "c"), this::dependentsOf);
+
+        assertEquals(Collections.singletonList("a"), graph.getAccepted());
+        assertEquals(AppInstanceDependencyGraph.DEPENDED_BY_OTHERS, graph.getRejected().get("b"));
+        assertEquals(AppInstanceDependencyGraph.DEPENDED_BY_OTHERS, graph.getRejected().get("c"));
+    }
+
+    @Test
+    public void testCycleIsRejected() {
+        dependents.put("a", Collections.singletonList("b"));
+        dependents.put("b", Collections.singletonList("a"));
+
+        AppInstanceDependencyGraph graph = AppInstanceDependencyGraph
+                .build(Arrays.asList("a", "b", "c"), this::dependentsOf);
+
+        assertEquals(Collections.singletonList("c"), graph.getAccepted());
+        assertEquals(AppInstanceDependencyGraph.DEPENDENCY_CYCLE, graph.getRejected().get("a"));
+        assertEquals(AppInstanceDependencyGraph.DEPENDENCY_CYCLE, graph.getRejected().get("b"));
+    }
+
+    @Test
+    public void testJsonRoundTrip() {
+        dependents.put("b", Collections.singletonList("a"));
+
+        AppInstanceDependencyGraph graph = AppInstanceDependencyGraph
+                .fromJson(AppInstanceDependencyGraph.build(Arrays.asList("a", "b"), this::dependentsOf).toJson());
+
+        assertEquals(Arrays.asList("a", "b"), graph.getAccepted());
+        assertEquals(Collections.singleton("a"), graph.getDependents("b"));
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ *  Copyright 2021 Huawei Technologies Co., Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.edgegallery.mecm.appo.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class ResponseBodyUnwrapperTest {
+
+    @Test
+    public void testUnwrapsData() {
+        String body = "{\"retCode\":0,\"data\":\"[{\\\"appInstanceId\\\":\\\"1\\\"}]\",\"message\":\"success\"}";
+        assertEquals("[{\"appInstanceId\":\"1\"}]", ResponseBodyUnwrapper.unwrap(body));
+        assertEquals("[{\"appInstanceId\":\"1\"}]",
+                ResponseBodyUnwrapper.unwrap(body.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testUnwrapsMessageWhenDataIsNull() {
+        assertEquals("not found", ResponseBodyUnwrapper.unwrap("{\"message\":\"not found\",\"data\":null}"));
+    }
+
+    @Test
+    public void testKeepsBodyWithoutDataField() {
+        String body = "{\"message\":\"metadata only\",\"status\":\"ok\"}";
+        assertEquals(body, ResponseBodyUnwrapper.unwrap(body));
+        assertEquals("[1,2]", ResponseBodyUnwrapper.unwrap("[1,2]"));
+        assertEquals("{}", ResponseBodyUnwrapper.unwrap((String) null));
+        assertEquals("{}", ResponseBodyUnwrapper.unwrap(new byte[0], StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testUnwrapsNonStringData() {
+        assertEquals("{\"cpu\":1}", ResponseBodyUnwrapper.unwrap("{\"data\":{\"cpu\":1}}"));
+        assertEquals("3", ResponseBodyUnwrapper.unwrap("{\"data\":3}"));
+    }
+}